@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.5"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.ddbs"
@@ -30,6 +31,11 @@ sourceSets {
             srcDirs("src/main/java")
         }
     }
+    // End-to-end load harness (src/loadTest): gateway stub + SMTP sink around the full application
+    create("loadTest") {
+        compileClasspath += main.get().output + configurations.runtimeClasspath.get()
+        runtimeClasspath += output + compileClasspath
+    }
 }
 
 dependencies {
@@ -53,6 +59,10 @@ dependencies {
     // Scheduling
     implementation("org.springframework.boot:spring-boot-starter")
     
+    // Metrics: Micrometer via actuator, scraped from /actuator/prometheus
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("io.micrometer:micrometer-registry-prometheus")
+    
     // Lombok for reducing boilerplate
     compileOnly("org.projectlombok:lombok")
     annotationProcessor("org.projectlombok:lombok")
@@ -60,8 +70,171 @@ dependencies {
     // Testing
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    // In-memory MySQL-mode database for the outbox tests
+    testRuntimeOnly("com.h2database:h2")
+    
+    // Micro-benchmarks (src/jmh)
+    jmh("org.openjdk.jol:jol-core:0.17")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
-}
\ No newline at end of file
+}
+jmh {
+	jmhVersion = "1.37"
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	// Machine-readable results for jmhCompare; narrow a run with -PjmhIncludes=<regex>
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+	project.findProperty("jmhIncludes")?.let { includes = listOf(it.toString()) }
+}
+
+// Baseline for jmhCompare; outside build/ so it survives clean, git-ignored since scores are machine specific
+val jmhBaseline = layout.projectDirectory.file("src/jmh/baseline.json")
+
+fun jmhScores(file: File): Map<String, Pair<Double, String>> {
+	@Suppress("UNCHECKED_CAST")
+	val results = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+	return results.associate { result ->
+		val params = (result["params"] as Map<*, *>?)?.entries?.joinToString(",", "(", ")") { "${it.key}=${it.value}" } ?: ""
+		val metric = result["primaryMetric"] as Map<*, *>
+		"${result["benchmark"]}$params" to ((metric["score"] as Number).toDouble() to metric["scoreUnit"].toString())
+	}
+}
+
+tasks.register("jmhCompare") {
+	group = "benchmark"
+	description = "Compares the last jmh results with the baseline; fails on regressions over -PjmhThreshold percent (default 10)"
+	val resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+	val threshold = (project.findProperty("jmhThreshold") ?: "10").toString().toDouble()
+	doLast {
+		val current = jmhScores(resultsFile.get().asFile)
+		val baselineFile = jmhBaseline.asFile
+		val baseline = if (baselineFile.exists()) jmhScores(baselineFile) else emptyMap()
+		val regressions = mutableListOf<String>()
+		current.forEach { (name, score) ->
+			val previous = baseline[name]
+			// All suites report average time, so higher is worse
+			val change = previous?.let { (score.first - it.first) / it.first * 100 }
+			println(String.format("%-100s %14.3f %-6s %s", name, score.first, score.second,
+					change?.let { String.format("%+7.1f%%", it) } ?: "    new"))
+			if (change != null && change > threshold) {
+				regressions += name
+			}
+		}
+		if (regressions.isNotEmpty()) {
+			throw GradleException("${regressions.size} benchmark(s) regressed by more than $threshold%: $regressions")
+		}
+	}
+}
+
+tasks.register<Copy>("jmhSaveBaseline") {
+	group = "benchmark"
+	description = "Stores the last jmh results as the baseline for jmhCompare"
+	from(layout.buildDirectory.file("reports/jmh/results.json"))
+	into(jmhBaseline.asFile.parentFile)
+	rename { jmhBaseline.asFile.name }
+}
+
+// Full scheduler cycles against local stubs, e.g. gradle loadTest --args="--sessions=2000 --attendees=100"
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Runs reminder cycles against a local gateway stub and SMTP sink and reports cycle time, emails/sec and heap"
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass = "com.ddbs.choroid_reminder_service.loadtest.LoadTestRunner"
+	jvmArgs("-Xmx4g", "-XX:+UseG1GC")
+	systemProperty("loadtest.report", layout.buildDirectory.file("reports/loadtest/report.json").get().asFile.path)
+}
+
+// A day of sessions replayed on a virtual clock, e.g. gradle simulateDay --args="--sessions=1500 --hours=24"
+tasks.register<JavaExec>("simulateDay") {
+	group = "verification"
+	description = "Replays a day of sessions in compressed virtual time and checks every expected reminder was sent"
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass = "com.ddbs.choroid_reminder_service.loadtest.SimulationRunner"
+	jvmArgs("-Xmx2g", "-XX:+UseG1GC")
+	systemProperty("simulation.report", layout.buildDirectory.file("reports/simulation/report.json").get().asFile.path)
+}
+
+// Start-up: Spring AOT, class data sharing and the Java 24 AOT cache, all trained on the extracted boot jar.
+// Conditional beans (ledger, outbox, source and cluster modes) are fixed when AOT runs, so build with the deployment's
+// settings, e.g. gradle bootJar -Paot -PstartupProperties="reminder.ledger.enabled=true,reminder.ledger.store=wal",
+// and start with -Dspring.aot.enabled=true. The same properties are applied to the training runs below.
+val startupProperties = (project.findProperty("startupProperties")?.toString() ?: "")
+	.split(",").map { it.trim() }.filter { it.contains("=") }
+	.associate { it.substringBefore("=") to it.substringAfter("=") }
+val aotEnabled = project.hasProperty("aot")
+
+if (aotEnabled) {
+	apply(plugin = "org.springframework.boot.aot")
+	tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+		systemProperties(startupProperties)
+	}
+}
+
+val startupDir = layout.buildDirectory.dir("startup")
+val startupJava = javaToolchains.launcherFor(java.toolchain).map { it.executablePath.asFile.path }
+
+// Training runs exit as soon as the context has refreshed; the classes loaded up to then are what a start-up needs
+fun trainingCommand(vararg vmOptions: String): List<String> =
+	listOf(startupJava.get()) + vmOptions + "-Dspring.context.exit=onRefresh" + "-Dserver.port=0" +
+			(if (aotEnabled) listOf("-Dspring.aot.enabled=true") else emptyList()) +
+			startupProperties.map { "-D${it.key}=${it.value}" } +
+			listOf("-jar", startupDir.get().file("application/application.jar").asFile.path)
+
+tasks.register<Exec>("extractBootJar") {
+	group = "build"
+	description = "Extracts the boot jar into build/startup/application (application.jar + lib/), the layout CDS needs"
+	val jar = tasks.bootJar.flatMap { it.archiveFile }
+	inputs.file(jar)
+	outputs.dir(startupDir.map { it.dir("application") })
+	doFirst {
+		commandLine(startupJava.get(), "-Djarmode=tools", "-jar", jar.get().asFile.path, "extract", "--force",
+				"--application-filename", "application.jar", "--destination", startupDir.get().dir("application").asFile.path)
+	}
+}
+
+// Run with: java -XX:SharedArchiveFile=build/startup/application.jsa -jar build/startup/application/application.jar
+tasks.register<Exec>("cdsArchive") {
+	group = "build"
+	description = "Writes a dynamic AppCDS archive (build/startup/application.jsa) from a training run"
+	dependsOn("extractBootJar")
+	doFirst {
+		// Per-class "not supported" warnings are expected (generated accessors, JFR events) and drowned the output
+		commandLine(trainingCommand("-Xlog:cds=error", "-XX:ArchiveClassesAtExit=" + startupDir.get().file("application.jsa").asFile.path))
+	}
+}
+
+// JEP 483 (Java 24+), classes loaded and linked ahead of time; run with -XX:AOTCache=build/startup/application.aot
+tasks.register<Exec>("aotCacheRecord") {
+	group = "build"
+	description = "Records the AOT configuration (build/startup/application.aotconf) from a training run"
+	dependsOn("extractBootJar")
+	doFirst {
+		commandLine(trainingCommand("-XX:AOTMode=record",
+				"-XX:AOTConfiguration=" + startupDir.get().file("application.aotconf").asFile.path))
+	}
+}
+
+tasks.register<Exec>("aotCache") {
+	group = "build"
+	description = "Creates the Java 24 AOT cache (build/startup/application.aot) from the recorded configuration"
+	dependsOn("aotCacheRecord")
+	doFirst {
+		commandLine(trainingCommand("-XX:AOTMode=create",
+				"-XX:AOTConfiguration=" + startupDir.get().file("application.aotconf").asFile.path,
+				"-XX:AOTCache=" + startupDir.get().file("application.aot").asFile.path))
+	}
+}
+
+// Heap footprint of the dedup store against the old string-keyed map
+tasks.register<JavaExec>("heapFootprint") {
+	group = "benchmark"
+	description = "Compares retained heap of the reminder dedup store with the legacy string-keyed map"
+	classpath = sourceSets["jmh"].runtimeClasspath
+	mainClass = "com.ddbs.choroid_reminder_service.benchmark.ReminderKeyFootprint"
+	jvmArgs("-Djdk.attach.allowAttachSelf=true", "-XX:+EnableDynamicAgentLoading")
+	args(project.findProperty("footprintEntries")?.toString() ?: "100000")
+}
@@ -0,0 +1,100 @@
+package com.ddbs.choroid_reminder_service.benchmark;
+
+import com.ddbs.choroid_reminder_service.config.AppConfig;
+import com.ddbs.choroid_reminder_service.dto.ApiResponse;
+import com.ddbs.choroid_reminder_service.dto.RarfDto;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson decoding of gateway responses with the application's ObjectMapper, the same way SessionApiService does it
+ * 
+ * Sizes cover a quiet and a busy window: sessions per upcoming/ended query, RARF rows per session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiDecodingBenchmark {
+    
+    private static final TypeReference<ApiResponse<List<SessionDto>>> SESSIONS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<RarfDto>> RARF_TYPE = new TypeReference<>() {};
+    
+    private static final ObjectMapper OBJECT_MAPPER = new AppConfig().objectMapper();
+    
+    @State(Scope.Benchmark)
+    public static class SessionsPayload {
+        
+        @Param({"50", "500"})
+        private int sessions;
+        
+        private String json;
+        
+        @Setup
+        public void setUp() throws IOException {
+            // Written in the gateway's wire format; serialising SessionDto would add its derived getters
+            LocalDateTime start = LocalDateTime.now().plusMinutes(10);
+            List<Map<String, Object>> data = new ArrayList<>(sessions);
+            for (int i = 0; i < sessions; i++) {
+                SessionDto session = BenchmarkFixtures.session(i, start.plusMinutes(i));
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("id", session.getId());
+                item.put("creatorId", session.getCreatorId());
+                item.put("title", session.getTitle());
+                item.put("start", session.getStart().toString());
+                item.put("duration", session.getDuration());
+                item.put("tags", session.getTags());
+                item.put("meetingLink", session.getMeetingLink());
+                item.put("resourcesLink", session.getResourcesLink());
+                data.add(item);
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("success", true);
+            response.put("message", "Sessions retrieved");
+            response.put("data", data);
+            response.put("pagination", Map.of("page", 0, "size", sessions, "total", sessions));
+            json = OBJECT_MAPPER.writeValueAsString(response);
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class RarfPayload {
+        
+        @Param({"30", "300"})
+        private int rarfRows;
+        
+        private String json;
+        
+        @Setup
+        public void setUp() throws IOException {
+            List<RarfDto> rows = new ArrayList<>(rarfRows);
+            for (int i = 0; i < rarfRows; i++) {
+                boolean filled = i % 3 == 0;
+                rows.add(new RarfDto("session-1", "user" + i, filled,
+                        filled ? 4 : null, filled ? 4 : null, filled ? 3 : null, filled ? 5 : null, filled ? 4 : null,
+                        filled ? 4 : null, filled ? 5 : null, filled ? 5 : null, filled ? 3 : null,
+                        filled ? "The worked examples on replication" : null,
+                        filled ? "More time for questions at the end" : null));
+            }
+            json = OBJECT_MAPPER.writeValueAsString(rows);
+        }
+    }
+    
+    @Benchmark
+    public ApiResponse<List<SessionDto>> decodeSessions(SessionsPayload payload) throws IOException {
+        return OBJECT_MAPPER.readValue(payload.json, SESSIONS_TYPE);
+    }
+    
+    @Benchmark
+    public List<RarfDto> decodeRarf(RarfPayload payload) throws IOException {
+        return OBJECT_MAPPER.readValue(payload.json, RARF_TYPE);
+    }
+}
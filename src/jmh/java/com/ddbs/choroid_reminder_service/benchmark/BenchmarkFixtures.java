@@ -0,0 +1,101 @@
+package com.ddbs.choroid_reminder_service.benchmark;
+
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shared setup for benchmarks: realistic sessions and users, and wiring of Spring beans without a context
+ */
+public final class BenchmarkFixtures {
+    
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^:}]+)(?::([^}]*))?}");
+    
+    private BenchmarkFixtures() {
+    }
+    
+    public static SessionDto session(int i, LocalDateTime start) {
+        return new SessionDto(UUID.randomUUID().toString(), "conductor" + i,
+                "Session " + i + ": Introduction to Distributed Databases",
+                start.truncatedTo(ChronoUnit.SECONDS), 60, List.of("databases", "distributed-systems", "java"),
+                "https://meet.google.com/abc-defg-" + String.format("%03d", i % 1000),
+                "https://drive.google.com/drive/folders/resources" + i, null);
+    }
+    
+    public static UserDto user(int i) {
+        return UserDto.builder()
+                .userID((long) i)
+                .username("user" + i)
+                .name("User Number " + i)
+                .rollNumber("221CS" + String.format("%03d", i % 1000))
+                .nitkEmail("user" + i + ".221cs@nitk.edu.in")
+                .personalEmail("user" + i + "@example.com")
+                .degree("B.Tech")
+                .major("Computer Science")
+                .build();
+    }
+    
+    /**
+     * Fill every @Value field of a bean from its placeholder default, or from overrides by property key
+     * Stands in for Spring's property binding so beans can be built with plain constructors
+     */
+    public static <T> T applyValues(T bean, Map<String, String> overrides) {
+        for (Class<?> type = bean.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                Value value = field.getAnnotation(Value.class);
+                if (value == null) {
+                    continue;
+                }
+                Matcher matcher = PLACEHOLDER.matcher(value.value());
+                if (!matcher.matches()) {
+                    throw new IllegalArgumentException("Unsupported @Value on " + field + ": " + value.value());
+                }
+                String raw = overrides.getOrDefault(matcher.group(1), matcher.group(2));
+                if (raw == null) {
+                    throw new IllegalArgumentException("No default or override for property " + matcher.group(1));
+                }
+                setField(bean, field, convert(raw, field.getType()));
+            }
+        }
+        return bean;
+    }
+    
+    public static void setField(Object target, String name, Object value) {
+        try {
+            setField(target, target.getClass().getDeclaredField(name), value);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    private static void setField(Object target, Field field, Object value) {
+        try {
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static Object convert(String raw, Class<?> type) {
+        if (type == int.class) {
+            return Integer.parseInt(raw);
+        } else if (type == long.class) {
+            return Long.parseLong(raw);
+        } else if (type == double.class) {
+            return Double.parseDouble(raw);
+        } else if (type == boolean.class) {
+            return Boolean.parseBoolean(raw);
+        }
+        return raw;
+    }
+}
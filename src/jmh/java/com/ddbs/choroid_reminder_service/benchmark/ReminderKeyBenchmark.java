@@ -0,0 +1,85 @@
+package com.ddbs.choroid_reminder_service.benchmark;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.service.ReminderKeySet;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key generation and dedup lookup: legacy "%s_%s_%s" string keys against compact 128-bit keys
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ReminderKeyBenchmark {
+    
+    private static final ReminderStatus.ReminderType TYPE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+    
+    @Param({"100000"})
+    private int entries;
+    
+    private String[] sessionIds;
+    private String[] usernames;
+    private Map<String, ReminderStatus> legacyStore;
+    private ReminderKeySet compactStore;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        sessionIds = new String[entries];
+        usernames = new String[entries];
+        legacyStore = new ConcurrentHashMap<>();
+        compactStore = new ReminderKeySet();
+        
+        String sessionId = null;
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (int i = 0; i < entries; i++) {
+            if (i % ReminderKeyFootprint.RECIPIENTS_PER_SESSION == 0) {
+                sessionId = UUID.randomUUID().toString();
+            }
+            sessionIds[i] = sessionId;
+            usernames[i] = "user" + i;
+            
+            ReminderStatus status = ReminderStatus.create(sessionId, usernames[i], TYPE, usernames[i] + "@example.com");
+            status.markAsSent(sentAt);
+            legacyStore.put(String.format("%s_%s_%s", sessionId, usernames[i], TYPE.name()), status);
+            compactStore.add(ReminderKey.of(sessionId, usernames[i], TYPE));
+        }
+    }
+    
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == entries ? 0 : index + 1;
+        return index;
+    }
+    
+    @Benchmark
+    public String legacyKey() {
+        int i = nextIndex();
+        return String.format("%s_%s_%s", sessionIds[i], usernames[i], TYPE.name());
+    }
+    
+    @Benchmark
+    public ReminderKey compactKey() {
+        int i = nextIndex();
+        return ReminderKey.of(sessionIds[i], usernames[i], TYPE);
+    }
+    
+    @Benchmark
+    public boolean legacyDedupCheck() {
+        int i = nextIndex();
+        return legacyStore.containsKey(String.format("%s_%s_%s", sessionIds[i], usernames[i], TYPE.name()));
+    }
+    
+    @Benchmark
+    public boolean compactDedupCheck() {
+        int i = nextIndex();
+        return compactStore.contains(ReminderKey.of(sessionIds[i], usernames[i], TYPE));
+    }
+}
@@ -0,0 +1,66 @@
+package com.ddbs.choroid_reminder_service.benchmark;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.service.ReminderStatusStore;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retained heap of the dedup store after N reminders were sent, compared with the legacy
+ * ConcurrentHashMap of "%s_%s_%s" keys to full ReminderStatus objects
+ * 
+ * Run with: gradle heapFootprint [-PfootprintEntries=100000]
+ */
+public class ReminderKeyFootprint {
+    
+    static final int RECIPIENTS_PER_SESSION = 20;
+    
+    private static final ReminderStatus.ReminderType TYPE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+    
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        
+        Map<String, ReminderStatus> legacyStore = new ConcurrentHashMap<>();
+        ReminderStatusStore compactStore = new ReminderStatusStore(Clock.systemDefaultZone());
+        // Zero pending retention so the expire() below can drop the tracking queue
+        BenchmarkFixtures.applyValues(compactStore, Map.of("reminder.store.pending-retention-minutes", "0"));
+        
+        LocalDateTime sentAt = LocalDateTime.now();
+        LocalDateTime start = sentAt.plusMinutes(20);
+        String sessionId = null;
+        for (int i = 0; i < entries; i++) {
+            if (i % RECIPIENTS_PER_SESSION == 0) {
+                sessionId = UUID.randomUUID().toString();
+                start = start.plusMinutes(5);
+            }
+            String username = "user" + i;
+            
+            ReminderStatus legacy = ReminderStatus.create(sessionId, username, TYPE, username + "@example.com");
+            legacy.markAsSent(sentAt);
+            legacyStore.put(String.format("%s_%s_%s", sessionId, username, TYPE.name()), legacy);
+            
+            ReminderKey key = ReminderKey.of(sessionId, username, TYPE);
+            ReminderStatus status = ReminderStatus.create(sessionId, username, TYPE, username + "@example.com");
+            compactStore.claim(key, start, status);
+            status.markAsSent(sentAt);
+            compactStore.markSent(key, start, status);
+        }
+        
+        // Release the pending-tracking queue as the hourly cleanup would once it has aged out
+        compactStore.expire();
+        
+        long legacyBytes = GraphLayout.parseInstance(legacyStore).totalSize();
+        long compactBytes = GraphLayout.parseInstance(compactStore).totalSize();
+        
+        System.out.printf("Sent reminders:        %,d%n", entries);
+        System.out.printf("Legacy string map:     %,d bytes (%.1f bytes/reminder)%n", legacyBytes, (double) legacyBytes / entries);
+        System.out.printf("Compact status store:  %,d bytes (%.1f bytes/reminder)%n", compactBytes, (double) compactBytes / entries);
+        System.out.printf("Reduction:             %.1fx%n", (double) legacyBytes / compactBytes);
+    }
+}
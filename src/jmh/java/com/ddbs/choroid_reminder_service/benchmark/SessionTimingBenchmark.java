@@ -0,0 +1,48 @@
+package com.ddbs.choroid_reminder_service.benchmark;
+
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionDto timing helpers against the setup time, over a mix of upcoming and ended sessions
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SessionTimingBenchmark {
+    
+    private static final int SESSIONS = 1024;
+    
+    private SessionDto[] sessions;
+    private LocalDateTime now;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        sessions = new SessionDto[SESSIONS];
+        now = LocalDateTime.now();
+        for (int i = 0; i < SESSIONS; i++) {
+            // Starts spread from 3 hours ago to 3 hours ahead, so both helpers hit their early return half the time
+            sessions[i] = BenchmarkFixtures.session(i, now.plusMinutes(i % 360 - 180));
+        }
+    }
+    
+    private SessionDto nextSession() {
+        SessionDto session = sessions[next];
+        next = (next + 1) & (SESSIONS - 1);
+        return session;
+    }
+    
+    @Benchmark
+    public long minutesUntilStart() {
+        return nextSession().getMinutesUntilStart(now);
+    }
+    
+    @Benchmark
+    public long minutesSinceEnd() {
+        return nextSession().getMinutesSinceEnd(now);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.benchmark.BenchmarkFixtures;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTML body rendering for the conductor, attendee and feedback reminder templates
+ * 
+ * Lives in the service package because the builders are package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class EmailTemplateBenchmark {
+    
+    private EmailService emailService;
+    private UserDto user;
+    private SessionDto session;
+    
+    @Setup
+    public void setUp() {
+        emailService = BenchmarkFixtures.applyValues(new EmailService(null, new SimpleMeterRegistry(), Clock.systemDefaultZone()), Map.of(
+                "reminder.from-email", "reminders@example.com",
+                "reminder.from-name", "Choroid Reminders",
+                "api.gateway.base-url", "https://choroid.example.com"));
+        user = BenchmarkFixtures.user(1);
+        session = BenchmarkFixtures.session(1, LocalDateTime.now().plusMinutes(30));
+    }
+    
+    @Benchmark
+    public String conductorHtml() {
+        return emailService.buildConductorReminderHtml(user, session, 30);
+    }
+    
+    @Benchmark
+    public String attendeeHtml() {
+        return emailService.buildAttendeeReminderHtml(user, session, 30);
+    }
+    
+    @Benchmark
+    public String feedbackHtml() {
+        return emailService.buildFeedbackReminderHtml(user, session);
+    }
+}
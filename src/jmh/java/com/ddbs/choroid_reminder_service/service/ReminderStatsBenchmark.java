@@ -0,0 +1,133 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.benchmark.BenchmarkFixtures;
+import com.ddbs.choroid_reminder_service.dto.ReminderBatch;
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getReminderStats with a large reminder history, against the legacy full scan of the string-keyed map
+ * 
+ * Lives in the service package to wire the scheduler and its collaborators through their package-private
+ * lifecycle methods without a Spring context. Of the held reminders 90% are sent, 5% failed, 5% pending.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReminderStatsBenchmark {
+    
+    private static final int RECIPIENTS_PER_SESSION = 20;
+    
+    @Param({"10000", "1000000"})
+    private int entries;
+    
+    private ReminderSchedulerService scheduler;
+    private Map<String, ReminderStatus> legacyStore;
+    
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Clock clock = Clock.systemDefaultZone();
+        ReminderStatusStore store = BenchmarkFixtures.applyValues(new ReminderStatusStore(clock), Map.of());
+        ReminderMetrics metrics = new ReminderMetrics(clock);
+        ReminderLateness lateness = BenchmarkFixtures.applyValues(new ReminderLateness(registry, clock), Map.of());
+        lateness.init();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        ReminderLedgerFront ledgerFront = BenchmarkFixtures.applyValues(
+                new ReminderLedgerFront(beans.getBeanProvider(ReminderLedger.class), clock), Map.of());
+        RecipientCache recipientCache = BenchmarkFixtures.applyValues(new RecipientCache(null, clock), Map.of());
+        
+        scheduler = BenchmarkFixtures.applyValues(new ReminderSchedulerService(null, recipientCache, null, store,
+                ledgerFront, metrics, lateness, null, null, registry, clock,
+                beans.getBeanProvider(SessionOwnership.class), beans.getBeanProvider(ReminderOutbox.class),
+                beans.getBeanProvider(OutboxSender.class), beans.getBeanProvider(CatchUpService.class),
+                beans.getBeanProvider(AdaptivePollingCadence.class)), Map.of());
+        scheduler.startPipeline();
+        legacyStore = new ConcurrentHashMap<>();
+        
+        LocalDateTime now = LocalDateTime.now(clock);
+        SessionDto session = null;
+        ReminderBatch batch = null;
+        for (int i = 0; i < entries; i++) {
+            ReminderStatus.ReminderType type = ReminderStatus.ReminderType.values()[i / RECIPIENTS_PER_SESSION % 2];
+            if (i % RECIPIENTS_PER_SESSION == 0) {
+                session = BenchmarkFixtures.session(i, now.minusMinutes(i / RECIPIENTS_PER_SESSION % 1440));
+                batch = new ReminderBatch(session, type, 30);
+                batch.setDueAt(session.getStart().minusMinutes(30));
+            }
+            String username = "user" + i;
+            ReminderKey key = ReminderKey.of(session.getSessionID(), username, type);
+            ReminderStatus status = ReminderStatus.create(session.getSessionID(), username, type, username + "@example.com");
+            boolean conductor = i % RECIPIENTS_PER_SESSION == 0;
+            
+            store.claim(key, session.getStart(), status);
+            metrics.recordClaimed(type, conductor, false);
+            int outcome = i % 20;
+            if (outcome < 18) {
+                status.markAsSent(now);
+                store.markSent(key, session.getStart(), status);
+                metrics.recordOutcome(type, conductor, true);
+                
+                ReminderTask task = ReminderTask.create(batch, null, conductor, key, status);
+                Instant dueAt = batch.getDueAt().atZone(ZoneId.systemDefault()).toInstant();
+                task.setEnqueuedAt(dueAt);
+                task.setAcceptedAt(dueAt.plusMillis(i % 300_000));
+                lateness.record(task);
+            } else if (outcome == 18) {
+                status.markAsFailed("SMTP timeout");
+                store.recordFailure(key, session.getStart(), status);
+                metrics.recordOutcome(type, conductor, false);
+            }
+            legacyStore.put(String.format("%s_%s_%s", session.getSessionID(), username, type.name()), status);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        scheduler.stopPipeline();
+    }
+    
+    @Benchmark
+    public Map<String, Object> reminderStats() {
+        return scheduler.getReminderStats();
+    }
+    
+    @Benchmark
+    public Map<String, Object> legacyScanStats() {
+        Map<String, Object> stats = new HashMap<>();
+        
+        long totalReminders = legacyStore.size();
+        long successfulReminders = legacyStore.values().stream()
+                .mapToLong(status -> status.isSent() ? 1 : 0)
+                .sum();
+        long failedReminders = totalReminders - successfulReminders;
+        
+        stats.put("totalReminders", totalReminders);
+        stats.put("successfulReminders", successfulReminders);
+        stats.put("failedReminders", failedReminders);
+        stats.put("cacheSize", legacyStore.size());
+        
+        Map<String, Long> byType = new HashMap<>();
+        legacyStore.values().forEach(status -> {
+            String type = status.getReminderType().name();
+            byType.put(type, byType.getOrDefault(type, 0L) + 1);
+        });
+        stats.put("remindersByType", byType);
+        
+        return stats;
+    }
+}
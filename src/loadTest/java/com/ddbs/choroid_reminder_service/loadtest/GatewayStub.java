@@ -0,0 +1,226 @@
+package com.ddbs.choroid_reminder_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the API gateway, serving the three endpoints the service calls
+ * 
+ * POST /choroid/sessions/search        - sessions whose start lies in the requested window
+ * GET  /choroid/rarf/session/{id}/all  - one RARF row per attendee of the session
+ * GET  /users/api/findemail/{username} - plain text email address
+ * 
+ * Every response waits a fixed latency plus an exponential jitter, with an occasional slow
+ * outlier, and a configurable share of requests fail with 503. Sessions are only returned
+ * once the stub is armed, so start-up cycles of the application see an empty gateway.
+ */
+public class GatewayStub implements AutoCloseable {
+    
+    private static final DateTimeFormatter START_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<StubSession> sessions;
+    private final Map<String, StubSession> sessionsById = new LinkedHashMap<>();
+    private final Map<String, LongAdder> requests = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile boolean armed;
+    
+    /**
+     * A session the stub serves; index spreads its attendees over the user population
+     */
+    public record StubSession(String id, int index, String creatorId, LocalDateTime start, int durationMinutes,
+                              int attendees) {
+    }
+    
+    public GatewayStub(LoadTestOptions options, List<StubSession> sessions) throws IOException {
+        this.options = options;
+        this.sessions = List.copyOf(sessions);
+        this.sessions.forEach(session -> sessionsById.put(session.id(), session));
+        for (String endpoint : List.of("search", "rarf", "email")) {
+            requests.put(endpoint, new LongAdder());
+            errors.put(endpoint, new LongAdder());
+        }
+        
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "gateway-stub-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/choroid/sessions/search", exchange -> handle(exchange, "search", this::search));
+        server.createContext("/choroid/rarf/session/", exchange -> handle(exchange, "rarf", this::rarf));
+        server.createContext("/users/api/findemail/", exchange -> handle(exchange, "email", this::email));
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Start returning the generated sessions from searches
+     */
+    public void arm() {
+        armed = true;
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        requests.forEach((endpoint, count) -> {
+            Map<String, Object> endpointStats = new LinkedHashMap<>();
+            endpointStats.put("requests", count.sum());
+            endpointStats.put("errors", errors.get(endpoint).sum());
+            stats.put(endpoint, endpointStats);
+        });
+        return stats;
+    }
+    
+    public long totalRequests() {
+        return requests.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+    
+    /**
+     * Sessions that are all due in the next cycle: the first feedbackSessions just ended, the rest start soon
+     */
+    public static List<StubSession> dueNow(LoadTestOptions options, LocalDateTime now, int feedbackSessions) {
+        List<StubSession> sessions = new ArrayList<>(options.sessions());
+        for (int i = 0; i < options.sessions(); i++) {
+            // Upcoming sessions start 12-28 minutes out; finished ones ended 3-15 minutes ago (60 minute sessions)
+            LocalDateTime start = i < feedbackSessions
+                    ? now.minusMinutes(63 + i % 13)
+                    : now.plusMinutes(12 + i % 17);
+            sessions.add(new StubSession("load-session-" + i, i, "conductor" + i % 500, start, 60, options.attendees()));
+        }
+        return sessions;
+    }
+    
+    private interface Handler {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+    
+    private record Response(int status, String contentType, byte[] body) {
+        
+        static Response json(byte[] body) {
+            return new Response(200, "application/json", body);
+        }
+    }
+    
+    private void handle(HttpExchange exchange, String endpoint, Handler handler) throws IOException {
+        try (exchange) {
+            requests.get(endpoint).increment();
+            delay();
+            
+            Response response;
+            if (ThreadLocalRandom.current().nextDouble() < options.gatewayErrorRate()) {
+                errors.get(endpoint).increment();
+                response = new Response(503, "text/plain", "Service Unavailable".getBytes(StandardCharsets.UTF_8));
+            } else {
+                response = handler.handle(exchange);
+            }
+            
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(response.status(), response.body().length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response.body());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void delay() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long millis = options.gatewayLatencyMs();
+        if (options.gatewayJitterMs() > 0) {
+            millis += (long) (-Math.log(1 - random.nextDouble()) * options.gatewayJitterMs());
+        }
+        if (random.nextDouble() < options.gatewaySlowRate()) {
+            millis += options.gatewaySlowMs();
+        }
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+    
+    private Response search(HttpExchange exchange) throws IOException {
+        Map<?, ?> criteria = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+        LocalDateTime after = LocalDateTime.parse(criteria.get("startAfter").toString());
+        LocalDateTime before = LocalDateTime.parse(criteria.get("startBefore").toString());
+        
+        List<Map<String, Object>> data = new ArrayList<>();
+        if (armed) {
+            for (StubSession session : sessions) {
+                if (session.start().isAfter(after) && session.start().isBefore(before)) {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("id", session.id());
+                    item.put("creatorId", session.creatorId());
+                    item.put("title", "Load Test Session " + session.index());
+                    item.put("start", session.start().format(START_FORMAT));
+                    item.put("duration", session.durationMinutes());
+                    item.put("tags", List.of("load-test"));
+                    item.put("meetingLink", "https://meet.example.com/" + session.id());
+                    item.put("resourcesLink", "https://drive.example.com/" + session.id());
+                    data.add(item);
+                }
+            }
+        }
+        return Response.json(objectMapper.writeValueAsBytes(Map.of("success", true, "data", data)));
+    }
+    
+    private Response rarf(HttpExchange exchange) throws IOException {
+        // /choroid/rarf/session/{id}/all
+        String path = exchange.getRequestURI().getPath();
+        String sessionId = path.substring("/choroid/rarf/session/".length(), path.lastIndexOf('/'));
+        StubSession session = sessionsById.get(sessionId);
+        if (session == null) {
+            return Response.json("[]".getBytes(StandardCharsets.UTF_8));
+        }
+        
+        List<Map<String, Object>> rows = new ArrayList<>(session.attendees());
+        for (int j = 0; j < session.attendees(); j++) {
+            // Attendees overlap across sessions the way a real user base does
+            long user = ((long) session.index() * session.attendees() + j * 7919L) % options.users();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("sessionId", sessionId);
+            row.put("userId", "user" + user);
+            row.put("feedbackFilled", false);
+            rows.add(row);
+        }
+        return Response.json(objectMapper.writeValueAsBytes(rows));
+    }
+    
+    private Response email(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String username = URLDecoder.decode(path.substring("/users/api/findemail/".length()), StandardCharsets.UTF_8);
+        return new Response(200, "text/plain", (username + "@loadtest.local").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ddbs.choroid_reminder_service.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from --key=value arguments
+ * 
+ * Unknown arguments are handed to the application unchanged, so service properties can be tuned
+ * in the same run, e.g. --reminder.pipeline.resolve.workers=16.
+ */
+public record LoadTestOptions(
+        int sessions,
+        int attendees,
+        int users,
+        double feedbackFraction,
+        int cycles,
+        long gatewayLatencyMs,
+        long gatewayJitterMs,
+        double gatewaySlowRate,
+        long gatewaySlowMs,
+        double gatewayErrorRate,
+        long smtpLatencyMs,
+        double smtpErrorRate,
+        int smtpKeepMessages,
+        List<String> applicationArgs) {
+    
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    
+    static {
+        DEFAULTS.put("sessions", "2000");
+        DEFAULTS.put("attendees", "100");
+        DEFAULTS.put("users", "20000");
+        DEFAULTS.put("feedback-fraction", "0.25");
+        DEFAULTS.put("cycles", "2");
+        DEFAULTS.put("gateway-latency-ms", "5");
+        DEFAULTS.put("gateway-jitter-ms", "5");
+        DEFAULTS.put("gateway-slow-rate", "0.01");
+        DEFAULTS.put("gateway-slow-ms", "250");
+        DEFAULTS.put("gateway-error-rate", "0.0");
+        DEFAULTS.put("smtp-latency-ms", "0");
+        DEFAULTS.put("smtp-error-rate", "0.0");
+        DEFAULTS.put("smtp-keep-messages", "100");
+    }
+    
+    public static LoadTestOptions parse(String[] args) {
+        return parse(args, Map.of());
+    }
+    
+    /**
+     * Parse with some defaults replaced, for drivers that want a different baseline (e.g. no gateway latency)
+     */
+    public static LoadTestOptions parse(String[] args, Map<String, String> defaultOverrides) {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        values.putAll(defaultOverrides);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+            if (key != null && DEFAULTS.containsKey(key)) {
+                values.put(key, arg.substring(eq + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        
+        return new LoadTestOptions(
+                Integer.parseInt(values.get("sessions")),
+                Integer.parseInt(values.get("attendees")),
+                Integer.parseInt(values.get("users")),
+                Double.parseDouble(values.get("feedback-fraction")),
+                Integer.parseInt(values.get("cycles")),
+                Long.parseLong(values.get("gateway-latency-ms")),
+                Long.parseLong(values.get("gateway-jitter-ms")),
+                Double.parseDouble(values.get("gateway-slow-rate")),
+                Long.parseLong(values.get("gateway-slow-ms")),
+                Double.parseDouble(values.get("gateway-error-rate")),
+                Long.parseLong(values.get("smtp-latency-ms")),
+                Double.parseDouble(values.get("smtp-error-rate")),
+                Integer.parseInt(values.get("smtp-keep-messages")),
+                List.copyOf(applicationArgs));
+    }
+    
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("sessions", sessions);
+        description.put("attendees", attendees);
+        description.put("users", users);
+        description.put("feedbackFraction", feedbackFraction);
+        description.put("cycles", cycles);
+        description.put("gatewayLatencyMs", gatewayLatencyMs);
+        description.put("gatewayJitterMs", gatewayJitterMs);
+        description.put("gatewaySlowRate", gatewaySlowRate);
+        description.put("gatewaySlowMs", gatewaySlowMs);
+        description.put("gatewayErrorRate", gatewayErrorRate);
+        description.put("smtpLatencyMs", smtpLatencyMs);
+        description.put("smtpErrorRate", smtpErrorRate);
+        description.put("applicationArgs", applicationArgs);
+        return description;
+    }
+}
@@ -0,0 +1,191 @@
+package com.ddbs.choroid_reminder_service.loadtest;
+
+import com.ddbs.choroid_reminder_service.ChoroidReminderServiceApplication;
+import com.ddbs.choroid_reminder_service.service.ReminderSchedulerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test: the full application against a local gateway stub and SMTP sink
+ * 
+ * Starts both stubs, boots the service pointed at them, waits for the start-up cycle to pass
+ * against an empty gateway, then arms the stub and runs scheduler cycles back to back. Each
+ * cycle reports its duration, emails accepted per second, GC activity and heap use; the first
+ * cycle sends everything, later ones measure a cycle where every reminder is already sent.
+ * 
+ * Run with: gradle loadTest --args="--sessions=2000 --attendees=100 --gateway-latency-ms=5"
+ * See LoadTestOptions for the harness settings; any other --property=value goes to the service.
+ */
+public class LoadTestRunner {
+    
+    private static final long STARTUP_CYCLE_TIMEOUT_MS = 120_000;
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<Map<String, Object>> cycles = new ArrayList<>();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options.describe());
+        
+        int feedbackSessions = (int) Math.round(options.sessions() * options.feedbackFraction());
+        int upcomingSessions = options.sessions() - feedbackSessions;
+        
+        try (GatewayStub gateway = new GatewayStub(options, GatewayStub.dueNow(options, LocalDateTime.now(), feedbackSessions));
+             SmtpSink smtp = new SmtpSink(options);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(ChoroidReminderServiceApplication.class)
+                     .run(applicationArgs(options, gateway, smtp, Map.of()))) {
+            
+            ReminderSchedulerService scheduler = context.getBean(ReminderSchedulerService.class);
+            awaitStartupCycle(scheduler);
+            gateway.arm();
+            
+            // Conductors get a pre-session reminder too; feedback requests go to attendees only
+            long expected = (long) upcomingSessions * (options.attendees() + 1) + (long) feedbackSessions * options.attendees();
+            System.out.printf("%nLoad test: %,d sessions (%,d upcoming, %,d finished) x %,d attendees, %,d emails expected%n",
+                    options.sessions(), upcomingSessions, feedbackSessions, options.attendees(), expected);
+            System.out.printf("%-6s %10s %10s %12s %12s %8s %10s %12s %12s %12s%n",
+                    "cycle", "seconds", "emails", "emails/sec", "gw requests", "gcs", "gc ms", "heap MB", "peak MB", "live MB");
+            
+            for (int cycle = 1; cycle <= options.cycles(); cycle++) {
+                Map<String, Object> result = runCycle(cycle, scheduler, gateway, smtp);
+                cycles.add(result);
+                System.out.printf("%-6d %10.1f %,10d %,12.0f %,12d %8d %10d %12d %12d %12d%n",
+                        cycle, result.get("seconds"), result.get("emails"), result.get("emailsPerSecond"),
+                        result.get("gatewayRequests"), result.get("gcCount"), result.get("gcMillis"), result.get("heapUsedMb"),
+                        result.get("heapPeakMb"), result.get("heapLiveMb"));
+            }
+            
+            Map<String, Object> stats = scheduler.getReminderStats();
+            report.put("cycles", cycles);
+            report.put("gateway", gateway.stats());
+            report.put("smtp", smtp.stats());
+            report.put("service", Map.of(
+                    "successfulReminders", stats.get("successfulReminders"),
+                    "failedReminders", stats.get("failedReminders"),
+                    "pendingReminders", stats.get("pendingReminders"),
+                    "lateness", stats.get("lateness"),
+                    "recipientCache", stats.get("recipientCache")));
+            
+            System.out.printf("%nGateway: %s%nSMTP:    %s%nService: %,d sent, %,d failed, %,d pending%n",
+                    gateway.stats(), smtp.stats(), stats.get("successfulReminders"),
+                    stats.get("failedReminders"), stats.get("pendingReminders"));
+        }
+        
+        String reportPath = System.getProperty("loadtest.report");
+        if (reportPath != null) {
+            File reportFile = new File(reportPath);
+            reportFile.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+            System.out.println("Report written to " + reportFile);
+        }
+        System.exit(0);
+    }
+    
+    /**
+     * Service properties pointing at the stubs; harness overrides come next, then the user's own --property=value args
+     */
+    static String[] applicationArgs(LoadTestOptions options, GatewayStub gateway, SmtpSink smtp,
+                                    Map<String, String> harnessOverrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("api.gateway.base-url", gateway.baseUrl());
+        properties.put("spring.mail.host", "127.0.0.1");
+        properties.put("spring.mail.port", String.valueOf(smtp.port()));
+        properties.put("spring.mail.username", "");
+        properties.put("spring.mail.password", "");
+        properties.put("spring.mail.properties.mail.smtp.auth", "false");
+        properties.put("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        // Cycles are driven from here; the scheduled one only runs once at start-up
+        properties.put("reminder.scheduler.session-check-interval", "86400000");
+        properties.put("reminder.warmup.enabled", "false");
+        properties.put("reminder.pipeline.cycle-drain-timeout-ms", "3600000");
+        properties.put("reminder.logging.format", "text");
+        properties.put("logging.level.com.ddbs.choroid_reminder_service", "WARN");
+        properties.putAll(harnessOverrides);
+        
+        // Duplicate command line properties are joined rather than overridden, so merge first
+        List<String> passthrough = new ArrayList<>();
+        for (String arg : options.applicationArgs()) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                properties.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else {
+                passthrough.add(arg);
+            }
+        }
+        properties.forEach((key, value) -> passthrough.add("--" + key + "=" + value));
+        return passthrough.toArray(String[]::new);
+    }
+    
+    @SuppressWarnings("unchecked")
+    static void awaitStartupCycle(ReminderSchedulerService scheduler) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + STARTUP_CYCLE_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, Object> state = (Map<String, Object>) scheduler.getReminderStats().get("scheduler");
+            if (((Number) state.get("completedCycles")).longValue() > 0 && !(Boolean) state.get("cycleInProgress")) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Start-up reminder cycle did not finish within " + STARTUP_CYCLE_TIMEOUT_MS + " ms");
+    }
+    
+    private static Map<String, Object> runCycle(int cycle, ReminderSchedulerService scheduler, GatewayStub gateway,
+                                                SmtpSink smtp) {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        long emailsBefore = smtp.acceptedCount();
+        long requestsBefore = gateway.totalRequests();
+        
+        long start = System.nanoTime();
+        scheduler.checkAndSendReminders();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        long emails = smtp.acceptedCount() - emailsBefore;
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        // Pool peaks are per pool, so their sum can overstate the true peak slightly
+        long heapPeak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        long cycleGcCount = gcCount() - gcCount;
+        long cycleGcMillis = gcMillis() - gcMillis;
+        System.gc();
+        long heapLive = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cycle", cycle);
+        result.put("seconds", seconds);
+        result.put("emails", emails);
+        result.put("emailsPerSecond", emails / seconds);
+        result.put("gatewayRequests", gateway.totalRequests() - requestsBefore);
+        result.put("gcCount", cycleGcCount);
+        result.put("gcMillis", cycleGcMillis);
+        result.put("heapUsedMb", heapUsed >> 20);
+        result.put("heapPeakMb", heapPeak >> 20);
+        result.put("heapLiveMb", heapLive >> 20);
+        return result;
+    }
+    
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+    
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ddbs.choroid_reminder_service.loadtest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Clock that only moves when told to, so a day of scheduler cycles can run back to back
+ * 
+ * Registered as the application's clock bean before the context refreshes; every component
+ * that reads the time through it sees the same virtual instant until the driver advances it.
+ */
+public class SimulatedClock extends Clock {
+    
+    private final ZoneId zone;
+    private volatile Instant instant;
+    
+    public SimulatedClock(Instant start, ZoneId zone) {
+        this.instant = start;
+        this.zone = zone;
+    }
+    
+    public void advance(Duration step) {
+        instant = instant.plus(step);
+    }
+    
+    public void set(Instant instant) {
+        this.instant = instant;
+    }
+    
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+    
+    /**
+     * Clocks derived for another zone share this one's time, so they advance together
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (zone.equals(this.zone)) {
+            return this;
+        }
+        SimulatedClock parent = this;
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+            
+            @Override
+            public Clock withZone(ZoneId other) {
+                return parent.withZone(other);
+            }
+            
+            @Override
+            public Instant instant() {
+                return parent.instant();
+            }
+        };
+    }
+    
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
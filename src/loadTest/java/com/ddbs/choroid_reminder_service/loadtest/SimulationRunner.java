@@ -0,0 +1,308 @@
+package com.ddbs.choroid_reminder_service.loadtest;
+
+import com.ddbs.choroid_reminder_service.ChoroidReminderServiceApplication;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.service.RecipientWarmupService;
+import com.ddbs.choroid_reminder_service.service.ReminderSchedulerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays a day of sessions through the full application in compressed virtual time
+ * 
+ * The service runs on a SimulatedClock registered before the context refreshes, against the
+ * same gateway stub and SMTP sink as the load test. The driver runs one scheduler cycle per
+ * virtual step (five minutes by default) from an hour before the day until two hours after
+ * its last session, warming recipients and cleaning up on the service's own virtual cadence,
+ * then advances the clock. A 24h workload finishes in however long its cycles take.
+ * 
+ * Every session is checked against the scheduler's timing rules at each step to work out the
+ * emails a correct run sends; the run exits non-zero when the SMTP sink saw a different count.
+ * 
+ * Run with: gradle simulateDay --args="--sessions=1500 --attendees=30"
+ * Driver settings: --hours, --step-minutes, --warmup-minutes, --cleanup-minutes, --seed, --day=yyyy-MM-dd
+ * and --sessions-file, a JSON array of {id, creatorId, start, duration, attendees} that replaces
+ * the generated day. LoadTestOptions settings and service --property=value args work as in the load test.
+ */
+public class SimulationRunner {
+    
+    private static final Map<String, String> DRIVER_DEFAULTS = new LinkedHashMap<>();
+    
+    // Gateway delays are real sleeps and would dominate a compressed day, so they start at zero
+    private static final Map<String, String> OPTION_DEFAULTS = Map.of(
+            "sessions", "1500",
+            "attendees", "30",
+            "gateway-latency-ms", "0",
+            "gateway-jitter-ms", "0",
+            "gateway-slow-rate", "0.0");
+    
+    // Relative share of the day's sessions starting in each hour: quiet nights, morning and afternoon peaks
+    private static final double[] HOURLY_WEIGHTS = {
+            0.2, 0.1, 0.1, 0.1, 0.1, 0.3, 0.8, 2, 4, 6, 6, 5, 3, 4, 6, 6, 5, 4, 3, 3, 2, 1, 0.6, 0.3};
+    
+    private static final int[] DURATIONS = {30, 45, 60, 60, 60};
+    
+    static {
+        DRIVER_DEFAULTS.put("hours", "24");
+        DRIVER_DEFAULTS.put("step-minutes", "5");
+        DRIVER_DEFAULTS.put("warmup-minutes", "5");
+        DRIVER_DEFAULTS.put("cleanup-minutes", "60");
+        DRIVER_DEFAULTS.put("seed", "42");
+        DRIVER_DEFAULTS.put("day", "");
+        DRIVER_DEFAULTS.put("sessions-file", "");
+    }
+    
+    private static final class HourResult {
+        int cycles;
+        long emails;
+        long gatewayRequests;
+        double wallSeconds;
+        double maxCycleSeconds;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> driver = new LinkedHashMap<>(DRIVER_DEFAULTS);
+        List<String> remaining = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+            if (key != null && DRIVER_DEFAULTS.containsKey(key)) {
+                driver.put(key, arg.substring(eq + 1));
+            } else {
+                remaining.add(arg);
+            }
+        }
+        LoadTestOptions options = LoadTestOptions.parse(remaining.toArray(String[]::new), OPTION_DEFAULTS);
+        int hours = Integer.parseInt(driver.get("hours"));
+        Duration step = Duration.ofMinutes(Long.parseLong(driver.get("step-minutes")));
+        Duration warmupInterval = Duration.ofMinutes(Long.parseLong(driver.get("warmup-minutes")));
+        Duration cleanupInterval = Duration.ofMinutes(Long.parseLong(driver.get("cleanup-minutes")));
+        
+        List<GatewayStub.StubSession> sessions;
+        LocalDate day;
+        if (driver.get("sessions-file").isEmpty()) {
+            day = driver.get("day").isEmpty() ? LocalDate.now() : LocalDate.parse(driver.get("day"));
+            sessions = generateDay(options, day.atStartOfDay(), hours, Long.parseLong(driver.get("seed")));
+        } else {
+            sessions = loadSessions(new File(driver.get("sessions-file")), options);
+            day = driver.get("day").isEmpty()
+                    ? sessions.stream().map(GatewayStub.StubSession::start).min(Comparator.naturalOrder()).orElseThrow().toLocalDate()
+                    : LocalDate.parse(driver.get("day"));
+        }
+        LocalDateTime from = day.atStartOfDay().minusHours(1);
+        LocalDateTime until = day.atStartOfDay().plusHours(hours + 2);
+        long expected = expectedEmails(sessions, from, until, step);
+        
+        ZoneId zone = ZoneId.systemDefault();
+        SimulatedClock clock = new SimulatedClock(from.atZone(zone).toInstant(), zone);
+        // The driver calls warmup and cleanup itself on virtual time; their real schedules only fire at start-up
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("reminder.warmup.enabled", "true");
+        overrides.put("reminder.warmup.interval", "86400000");
+        overrides.put("reminder.scheduler.cleanup-interval", "86400000");
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<LocalDateTime, HourResult> byHour = new LinkedHashMap<>();
+        report.put("options", options.describe());
+        report.put("driver", driver);
+        
+        try (GatewayStub gateway = new GatewayStub(options, sessions);
+             SmtpSink smtp = new SmtpSink(options);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(ChoroidReminderServiceApplication.class)
+                     .initializers(ctx -> ctx.getBeanFactory().registerSingleton("clock", clock))
+                     .run(LoadTestRunner.applicationArgs(options, gateway, smtp, overrides))) {
+            
+            ReminderSchedulerService scheduler = context.getBean(ReminderSchedulerService.class);
+            RecipientWarmupService warmup = context.getBeanProvider(RecipientWarmupService.class).getIfAvailable();
+            LoadTestRunner.awaitStartupCycle(scheduler);
+            gateway.arm();
+            
+            System.out.printf("%nSimulating %s to %s in %d minute steps: %,d sessions, %,d emails expected%n",
+                    from, until, step.toMinutes(), sessions.size(), expected);
+            System.out.printf("%-16s %8s %10s %12s %10s %14s%n", "virtual hour", "cycles", "emails", "gw requests",
+                    "wall sec", "max cycle sec");
+            
+            LocalDateTime lastWarmup = null;
+            LocalDateTime lastCleanup = from;
+            long wallStart = System.nanoTime();
+            for (LocalDateTime now = LocalDateTime.now(clock); !now.isAfter(until); now = LocalDateTime.now(clock)) {
+                if (warmup != null && (lastWarmup == null || !now.isBefore(lastWarmup.plus(warmupInterval)))) {
+                    warmup.warmUpUpcomingRecipients();
+                    lastWarmup = now;
+                }
+                if (!now.isBefore(lastCleanup.plus(cleanupInterval))) {
+                    scheduler.cleanupOldReminders();
+                    lastCleanup = now;
+                }
+                
+                long emailsBefore = smtp.acceptedCount();
+                long requestsBefore = gateway.totalRequests();
+                long start = System.nanoTime();
+                scheduler.checkAndSendReminders();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                
+                HourResult hour = byHour.computeIfAbsent(now.truncatedTo(ChronoUnit.HOURS), h -> new HourResult());
+                hour.cycles++;
+                hour.emails += smtp.acceptedCount() - emailsBefore;
+                hour.gatewayRequests += gateway.totalRequests() - requestsBefore;
+                hour.wallSeconds += seconds;
+                hour.maxCycleSeconds = Math.max(hour.maxCycleSeconds, seconds);
+                if (now.plus(step).truncatedTo(ChronoUnit.HOURS).isAfter(now.truncatedTo(ChronoUnit.HOURS))) {
+                    System.out.printf("%-16s %8d %,10d %,12d %10.2f %14.3f%n", now.truncatedTo(ChronoUnit.HOURS),
+                            hour.cycles, hour.emails, hour.gatewayRequests, hour.wallSeconds, hour.maxCycleSeconds);
+                }
+                
+                clock.advance(step);
+            }
+            double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+            double virtualSeconds = Duration.between(from, until).getSeconds();
+            
+            long sent = smtp.acceptedCount();
+            Map<String, Object> stats = scheduler.getReminderStats();
+            Map<String, Object> totals = new LinkedHashMap<>();
+            totals.put("expectedEmails", expected);
+            totals.put("sentEmails", sent);
+            totals.put("missedEmails", expected - sent);
+            totals.put("wallSeconds", wallSeconds);
+            totals.put("virtualSeconds", virtualSeconds);
+            totals.put("speedup", virtualSeconds / wallSeconds);
+            report.put("totals", totals);
+            
+            List<Map<String, Object>> hourRows = new ArrayList<>();
+            byHour.forEach((hourStart, hour) -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("hour", hourStart.toString());
+                row.put("cycles", hour.cycles);
+                row.put("emails", hour.emails);
+                row.put("gatewayRequests", hour.gatewayRequests);
+                row.put("wallSeconds", hour.wallSeconds);
+                row.put("maxCycleSeconds", hour.maxCycleSeconds);
+                hourRows.add(row);
+            });
+            report.put("hours", hourRows);
+            report.put("gateway", gateway.stats());
+            report.put("smtp", smtp.stats());
+            report.put("service", Map.of(
+                    "successfulReminders", stats.get("successfulReminders"),
+                    "failedReminders", stats.get("failedReminders"),
+                    "pendingReminders", stats.get("pendingReminders"),
+                    "lateness", stats.get("lateness")));
+            
+            System.out.printf("%nExpected %,d emails, sent %,d (%,d missed)%n", expected, sent, expected - sent);
+            System.out.printf("%.0f virtual seconds in %.1f wall seconds (%.0fx)%n", virtualSeconds, wallSeconds,
+                    virtualSeconds / wallSeconds);
+            printLateness(stats.get("lateness"));
+            
+            writeReport(report);
+            System.exit(expected == sent ? 0 : 1);
+        }
+    }
+    
+    /**
+     * Spread sessions over the first hours of the day by HOURLY_WEIGHTS, starting on five minute boundaries
+     */
+    static List<GatewayStub.StubSession> generateDay(LoadTestOptions options, LocalDateTime dayStart, int hours, long seed) {
+        Random random = new Random(seed);
+        double[] cumulative = new double[Math.min(hours, HOURLY_WEIGHTS.length)];
+        double total = 0;
+        for (int h = 0; h < cumulative.length; h++) {
+            total += HOURLY_WEIGHTS[h];
+            cumulative[h] = total;
+        }
+        
+        List<GatewayStub.StubSession> sessions = new ArrayList<>(options.sessions());
+        for (int i = 0; i < options.sessions(); i++) {
+            double pick = random.nextDouble() * total;
+            int hour = 0;
+            while (cumulative[hour] < pick) {
+                hour++;
+            }
+            LocalDateTime start = dayStart.plusHours(hour).plusMinutes(random.nextInt(12) * 5L);
+            int attendees = 1 + random.nextInt(Math.max(1, 2 * options.attendees() - 1));
+            sessions.add(new GatewayStub.StubSession("sim-session-" + i, i, "conductor" + random.nextInt(500), start,
+                    DURATIONS[random.nextInt(DURATIONS.length)], attendees));
+        }
+        return sessions;
+    }
+    
+    @SuppressWarnings("unchecked")
+    static List<GatewayStub.StubSession> loadSessions(File file, LoadTestOptions options) throws IOException {
+        List<Map<String, Object>> rows = new ObjectMapper().readValue(file, List.class);
+        List<GatewayStub.StubSession> sessions = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            sessions.add(new GatewayStub.StubSession(
+                    String.valueOf(row.getOrDefault("id", "file-session-" + i)),
+                    i,
+                    String.valueOf(row.getOrDefault("creatorId", "conductor" + i % 500)),
+                    LocalDateTime.parse(row.get("start").toString()),
+                    ((Number) row.getOrDefault("duration", 60)).intValue(),
+                    ((Number) row.getOrDefault("attendees", options.attendees())).intValue()));
+        }
+        return sessions;
+    }
+    
+    /**
+     * Emails a correct run sends: a pre-session reminder to attendees and conductor if any step lands in the
+     * reminder window, and a feedback request to attendees if any step lands in the feedback window
+     */
+    static long expectedEmails(List<GatewayStub.StubSession> sessions, LocalDateTime from, LocalDateTime until, Duration step) {
+        long expected = 0;
+        for (GatewayStub.StubSession stub : sessions) {
+            SessionDto session = new SessionDto();
+            session.setStart(stub.start());
+            session.setDuration(stub.durationMinutes());
+            
+            boolean reminder = false;
+            boolean feedback = false;
+            for (LocalDateTime now = from; !now.isAfter(until); now = now.plus(step)) {
+                long untilStart = session.getMinutesUntilStart(now);
+                reminder |= untilStart >= 10 && untilStart <= 30;
+                feedback |= now.isAfter(session.getEndDateTime()) && session.getMinutesSinceEnd(now) <= 30;
+            }
+            if (reminder) {
+                expected += stub.attendees() + 1;
+            }
+            if (feedback) {
+                expected += stub.attendees();
+            }
+        }
+        return expected;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static void printLateness(Object lateness) {
+        if (!(lateness instanceof Map<?, ?> latenessStats)) {
+            return;
+        }
+        Map<String, Map<String, Object>> byType = (Map<String, Map<String, Object>>) latenessStats.get("byType");
+        byType.forEach((type, stats) -> System.out.printf("Lateness %-10s p50 %ss  p99 %ss  max %ss  (%s sent)%n",
+                type, stats.get("p50Seconds"), stats.get("p99Seconds"), stats.get("maxSeconds"), stats.get("sent")));
+    }
+    
+    private static void writeReport(Map<String, Object> report) throws IOException {
+        String reportPath = System.getProperty("simulation.report");
+        if (reportPath != null) {
+            File reportFile = new File(reportPath);
+            reportFile.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+            System.out.println("Report written to " + reportFile);
+        }
+    }
+}
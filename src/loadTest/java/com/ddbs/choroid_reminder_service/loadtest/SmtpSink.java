@@ -0,0 +1,187 @@
+package com.ddbs.choroid_reminder_service.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process SMTP server that accepts and records messages without delivering them
+ * 
+ * Speaks the subset of SMTP that JavaMail uses without auth or STARTTLS. Counts every accepted
+ * message and keeps the most recent ones for inspection, so a run of hundreds of thousands of
+ * reminders does not fill the heap being measured. Accepting a message can be delayed and a
+ * share of messages can be rejected with a transient 451 to mimic a real relay.
+ */
+public class SmtpSink implements AutoCloseable {
+    
+    public record Message(String from, List<String> recipients, String data) {
+    }
+    
+    private final LoadTestOptions options;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Deque<Message> recent = new ArrayDeque<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder acceptedBytes = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    
+    public SmtpSink(LoadTestOptions options) throws IOException {
+        this.options = options;
+        serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "smtp-sink-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::acceptLoop);
+    }
+    
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+    
+    public long acceptedCount() {
+        return accepted.sum();
+    }
+    
+    public synchronized List<Message> recentMessages() {
+        return new ArrayList<>(recent);
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", connections.sum());
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("acceptedBytes", acceptedBytes.sum());
+        return stats;
+    }
+    
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.increment();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("SMTP sink accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1)) {
+            reply(out, "220 loadtest.local ESMTP sink");
+            
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line.toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-loadtest.local\r\n250-8BITMIME\r\n250 SIZE 52428800");
+                    case "HELO" -> reply(out, "250 loadtest.local");
+                    case "MAIL" -> {
+                        from = line.substring(line.indexOf(':') + 1).trim();
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf(':') + 1).trim());
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data = readData(in);
+                        reply(out, receive(from, recipients, data));
+                        from = null;
+                        recipients = new ArrayList<>();
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away mid-conversation; nothing to record
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder(8192);
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            // Undo dot-stuffing
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return data.toString();
+    }
+    
+    private String receive(String from, List<String> recipients, String data) throws InterruptedException {
+        if (options.smtpLatencyMs() > 0) {
+            Thread.sleep(options.smtpLatencyMs());
+        }
+        if (ThreadLocalRandom.current().nextDouble() < options.smtpErrorRate()) {
+            rejected.increment();
+            return "451 4.3.0 Temporary failure, try again later";
+        }
+        
+        accepted.increment();
+        acceptedBytes.add(data.length());
+        if (options.smtpKeepMessages() > 0) {
+            synchronized (this) {
+                recent.addLast(new Message(from, List.copyOf(recipients), data));
+                if (recent.size() > options.smtpKeepMessages()) {
+                    recent.removeFirst();
+                }
+            }
+        }
+        return "250 OK queued";
+    }
+    
+    private static void reply(Writer out, String response) throws IOException {
+        out.write(response);
+        out.write("\r\n");
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}
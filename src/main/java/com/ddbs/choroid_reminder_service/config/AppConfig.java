@@ -2,10 +2,13 @@ package com.ddbs.choroid_reminder_service.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Clock;
+
 /**
  * Application configuration for beans and components
  */
@@ -30,4 +33,14 @@ public class AppConfig {
         mapper.registerModule(new JavaTimeModule());
         return mapper;
     }
+    
+    /**
+     * The one source of "now" for reminder timing, dedup retention and cache expiry
+     * A simulation can register its own clock before the context refreshes to run in virtual time
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.ddbs.choroid_reminder_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Dedicated scheduling executor for the reminder service
+ * 
+ * Replaces Spring's default single-threaded scheduler so the reminder cycle, cleanup and
+ * recipient warm-up each get their own thread and never queue behind one another.
+ */
+@Configuration
+@Slf4j
+public class SchedulingConfig implements SchedulingConfigurer {
+    
+    @Value("${reminder.scheduler.pool-size:4}")
+    private int poolSize;
+    
+    @Bean
+    public ThreadPoolTaskScheduler reminderTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("reminder-scheduler-");
+        scheduler.setErrorHandler(t -> log.error("Unhandled error in scheduled task", t));
+        return scheduler;
+    }
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(reminderTaskScheduler());
+    }
+}
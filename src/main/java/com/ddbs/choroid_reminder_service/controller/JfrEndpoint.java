@@ -0,0 +1,149 @@
+package com.ddbs.choroid_reminder_service.controller;
+
+import com.ddbs.choroid_reminder_service.service.ReminderEvents;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for on-demand JDK Flight Recorder recordings
+ * 
+ * GET  /actuator/jfr        - recordings currently known to the JVM
+ * POST /actuator/jfr/start  - start a recording (optional durationSeconds, settings "default" or "profile")
+ * POST /actuator/jfr/dump   - write the current recording, or a snapshot of all recordings, to the dump directory
+ * POST /actuator/jfr/stop   - stop and close the recording started here
+ * POST bodies are JSON, e.g. {"durationSeconds": 300}; send {} when there are no options.
+ */
+@Component
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+@Slf4j
+public class JfrEndpoint {
+    
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    private final Clock clock;
+    
+    @Value("${reminder.jfr.dump-dir:${java.io.tmpdir}}")
+    private String dumpDir;
+    
+    @Value("${reminder.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+    
+    private Recording recording;
+    
+    @ReadOperation
+    public synchronized Map<String, Object> recordings() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("available", FlightRecorder.isAvailable());
+        result.put("managedRecording", recording != null ? recording.getId() : null);
+        result.put("recordings", FlightRecorder.isAvailable()
+                ? FlightRecorder.getFlightRecorder().getRecordings().stream().map(JfrEndpoint::describe).toList()
+                : List.of());
+        return result;
+    }
+    
+    @WriteOperation
+    public synchronized Map<String, Object> control(@Selector String action, @Nullable Long durationSeconds,
+                                                    @Nullable String settings) throws IOException {
+        if (!FlightRecorder.isAvailable()) {
+            return Map.of("error", "Flight Recorder is not available in this JVM");
+        }
+        
+        return switch (action) {
+            case "start" -> start(durationSeconds, settings);
+            case "dump" -> dump();
+            case "stop" -> stop();
+            default -> Map.of("error", "Unknown action '" + action + "', expected start, dump or stop");
+        };
+    }
+    
+    private Map<String, Object> start(Long durationSeconds, String settings) throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return Map.of("error", "Recording " + recording.getId() + " is already running", "recording", describe(recording));
+        }
+        
+        if (recording != null) {
+            recording.close();
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings != null ? settings : "profile"));
+        } catch (ParseException e) {
+            throw new IOException("Invalid JFR settings '" + settings + "'", e);
+        }
+        recording.setName("choroid-reminder");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        ReminderEvents.ALL.forEach(recording::enable);
+        if (durationSeconds != null && durationSeconds > 0) {
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+        }
+        recording.start();
+        log.info("Started JFR recording {} ({})", recording.getId(),
+                durationSeconds != null ? durationSeconds + "s" : "until stopped");
+        return describe(recording);
+    }
+    
+    private Map<String, Object> dump() throws IOException {
+        Path file = Paths.get(dumpDir, "reminder-" + LocalDateTime.now(clock).format(FILE_TIMESTAMP) + ".jfr");
+        Files.createDirectories(file.getParent());
+        
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.dump(file);
+        } else {
+            // No recording of our own: snapshot whatever the JVM is recording (e.g. -XX:StartFlightRecording)
+            try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+                if (snapshot.getSize() == 0) {
+                    return Map.of("error", "No recording data available; start a recording first");
+                }
+                snapshot.dump(file);
+            }
+        }
+        log.info("Dumped JFR recording to {}", file);
+        return Map.of("file", file.toAbsolutePath().toString(), "bytes", Files.size(file));
+    }
+    
+    private Map<String, Object> stop() {
+        if (recording == null) {
+            return Map.of("error", "No recording was started through this endpoint");
+        }
+        Map<String, Object> stopped = describe(recording);
+        recording.close();
+        recording = null;
+        return stopped;
+    }
+    
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState().name());
+        description.put("startTime", recording.getStartTime() != null ? recording.getStartTime().toString() : null);
+        description.put("duration", recording.getDuration() != null ? recording.getDuration().toString() : null);
+        description.put("size", recording.getSize());
+        return description;
+    }
+}
@@ -2,12 +2,14 @@ package com.ddbs.choroid_reminder_service.controller;
 
 import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
 import com.ddbs.choroid_reminder_service.service.EmailService;
+import com.ddbs.choroid_reminder_service.service.GatewayClient;
 import com.ddbs.choroid_reminder_service.service.ReminderSchedulerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -25,6 +27,8 @@ public class ReminderController {
     
     private final ReminderSchedulerService reminderSchedulerService;
     private final EmailService emailService;
+    private final GatewayClient gatewayClient;
+    private final Clock clock;
     
     /**
      * Health check endpoint
@@ -34,7 +38,7 @@ public class ReminderController {
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
         response.put("service", "Choroid Reminder Service");
-        response.put("timestamp", LocalDateTime.now().toString());
+        response.put("timestamp", LocalDateTime.now(clock).toString());
         response.put("version", "1.0.0");
         
         // Include basic service information
@@ -56,7 +60,8 @@ public class ReminderController {
         log.info("Reminder statistics requested");
         
         Map<String, Object> stats = reminderSchedulerService.getReminderStats();
-        stats.put("timestamp", LocalDateTime.now().toString());
+        stats.put("circuitBreakers", gatewayClient.getCircuitBreakerStats());
+        stats.put("timestamp", LocalDateTime.now(clock).toString());
         stats.put("service", "Choroid Reminder Service");
         
         return ResponseEntity.ok(stats);
@@ -86,7 +91,7 @@ public class ReminderController {
                 response.put("error", "Invalid reminder type");
                 response.put("message", "Valid types: BEFORE_30_MIN, AFTER_30_MIN_FEEDBACK");
                 response.put("provided", reminderType);
-                response.put("timestamp", LocalDateTime.now().toString());
+                response.put("timestamp", LocalDateTime.now(clock).toString());
                 return ResponseEntity.badRequest().body(response);
             }
             
@@ -96,7 +101,7 @@ public class ReminderController {
             response.put("message", result);
             response.put("sessionId", sessionId);
             response.put("reminderType", type.name());
-            response.put("timestamp", LocalDateTime.now().toString());
+            response.put("timestamp", LocalDateTime.now(clock).toString());
             
             log.info("Manual reminder trigger completed for session {}: {}", sessionId, result);
             return ResponseEntity.ok(response);
@@ -105,7 +110,7 @@ public class ReminderController {
             log.error("Error processing manual reminder trigger for session {}", sessionId, e);
             response.put("error", "Internal server error");
             response.put("message", e.getMessage());
-            response.put("timestamp", LocalDateTime.now().toString());
+            response.put("timestamp", LocalDateTime.now(clock).toString());
             return ResponseEntity.internalServerError().body(response);
         }
     }
@@ -126,7 +131,7 @@ public class ReminderController {
             if (!email.contains("@") || !email.contains(".")) {
                 response.put("error", "Invalid email format");
                 response.put("message", "Please provide a valid email address");
-                response.put("timestamp", LocalDateTime.now().toString());
+                response.put("timestamp", LocalDateTime.now(clock).toString());
                 return ResponseEntity.badRequest().body(response);
             }
             
@@ -142,7 +147,7 @@ public class ReminderController {
             }
             
             response.put("email", email);
-            response.put("timestamp", LocalDateTime.now().toString());
+            response.put("timestamp", LocalDateTime.now(clock).toString());
             
             return emailSent ? ResponseEntity.ok(response) : ResponseEntity.internalServerError().body(response);
             
@@ -150,7 +155,7 @@ public class ReminderController {
             log.error("Error sending test email to {}", email, e);
             response.put("error", "Internal server error");
             response.put("message", e.getMessage());
-            response.put("timestamp", LocalDateTime.now().toString());
+            response.put("timestamp", LocalDateTime.now(clock).toString());
             return ResponseEntity.internalServerError().body(response);
         }
     }
@@ -166,25 +171,26 @@ public class ReminderController {
         Map<String, String> response = new HashMap<>();
         
         try {
-            // This would trigger the scheduled method manually
-            // Note: This is a simplified approach - in production you might want to extract
-            // the core logic into a separate method that can be called both by scheduler and API
+            // Runs on the scheduling executor; a check already in progress is not queued twice
+            boolean started = reminderSchedulerService.triggerCheckNow();
             
-            response.put("message", "Manual scheduled check triggered successfully");
-            response.put("note", "The scheduled check process has been initiated");
-            response.put("timestamp", LocalDateTime.now().toString());
-            
-            // You could call the scheduler method here if it was refactored to be public
-            // reminderSchedulerService.checkAndSendReminders();
+            if (started) {
+                response.put("message", "Manual scheduled check triggered successfully");
+                response.put("note", "The scheduled check process has been initiated");
+            } else {
+                response.put("message", "Scheduled check already in progress - request skipped");
+                response.put("note", "Skipped runs are counted in /api/reminders/stats");
+            }
+            response.put("timestamp", LocalDateTime.now(clock).toString());
             
-            log.info("Manual scheduled check completed");
+            log.info("Manual scheduled check {}", started ? "started" : "skipped");
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             log.error("Error during manual scheduled check", e);
             response.put("error", "Internal server error");
             response.put("message", e.getMessage());
-            response.put("timestamp", LocalDateTime.now().toString());
+            response.put("timestamp", LocalDateTime.now(clock).toString());
             return ResponseEntity.internalServerError().body(response);
         }
     }
@@ -221,7 +227,7 @@ public class ReminderController {
             "AFTER_30_MIN_FEEDBACK", "Please provide session feedback"
         ));
         
-        config.put("timestamp", LocalDateTime.now().toString());
+        config.put("timestamp", LocalDateTime.now(clock).toString());
         
         return ResponseEntity.ok(config);
     }
@@ -256,7 +262,7 @@ public class ReminderController {
             "testEmail", "POST /api/reminders/test-email?email=test@example.com"
         ));
         
-        help.put("timestamp", LocalDateTime.now().toString());
+        help.put("timestamp", LocalDateTime.now(clock).toString());
         
         return ResponseEntity.ok(help);
     }
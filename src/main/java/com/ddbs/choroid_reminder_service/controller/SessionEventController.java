@@ -0,0 +1,90 @@
+package com.ddbs.choroid_reminder_service.controller;
+
+import com.ddbs.choroid_reminder_service.dto.RegistrationEventDto;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.service.SessionEventStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inbound change events for the push session source (reminder.source.mode=push)
+ * 
+ * PUT    /api/reminders/events/sessions/{sessionId}                          - session created or updated (SessionDto body)
+ * DELETE /api/reminders/events/sessions/{sessionId}                          - session cancelled
+ * PUT    /api/reminders/events/sessions/{sessionId}/registrations/{username} - registration added (optional email/name body)
+ * DELETE /api/reminders/events/sessions/{sessionId}/registrations/{username} - registration removed
+ * GET    /api/reminders/events/stats                                         - store size, event counts and reconciliation
+ * All operations are idempotent, so producers can safely redeliver.
+ */
+@RestController
+@RequestMapping("/api/reminders/events")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.source.mode", havingValue = "push")
+public class SessionEventController {
+    
+    private final SessionEventStore sessionEventStore;
+    private final Clock clock;
+    
+    @PutMapping("/sessions/{sessionId}")
+    public ResponseEntity<Map<String, String>> sessionChanged(@PathVariable String sessionId, @RequestBody SessionDto session) {
+        session.setSessionID(sessionId);
+        if (session.getStartDateTime() == null) {
+            return ResponseEntity.badRequest().body(response(sessionId, "error", "A session event needs a start time"));
+        }
+        sessionEventStore.upsertSession(session);
+        return ResponseEntity.ok(response(sessionId, "message", "Session stored"));
+    }
+    
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Map<String, String>> sessionCancelled(@PathVariable String sessionId) {
+        boolean removed = sessionEventStore.cancelSession(sessionId);
+        return ResponseEntity.ok(response(sessionId, "message", removed ? "Session removed" : "Session was not stored"));
+    }
+    
+    @PutMapping("/sessions/{sessionId}/registrations/{username}")
+    public ResponseEntity<Map<String, String>> registrationAdded(@PathVariable String sessionId, @PathVariable String username,
+                                                                 @RequestBody(required = false) RegistrationEventDto event) {
+        if (!sessionEventStore.addRegistration(sessionId, username, event)) {
+            // Accepted anyway: reconciliation retries the lookup, so the producer need not redeliver
+            Map<String, String> response = response(sessionId, "message", "No email found for user; left for reconciliation");
+            response.put("username", username);
+            return ResponseEntity.accepted().body(response);
+        }
+        Map<String, String> response = response(sessionId, "message", "Registration stored");
+        response.put("username", username);
+        return ResponseEntity.ok(response);
+    }
+    
+    @DeleteMapping("/sessions/{sessionId}/registrations/{username}")
+    public ResponseEntity<Map<String, String>> registrationRemoved(@PathVariable String sessionId, @PathVariable String username) {
+        boolean removed = sessionEventStore.removeRegistration(sessionId, username);
+        Map<String, String> response = response(sessionId, "message", removed ? "Registration removed" : "Registration was not stored");
+        response.put("username", username);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        Map<String, Object> stats = sessionEventStore.toStats();
+        stats.put("timestamp", LocalDateTime.now(clock).toString());
+        return ResponseEntity.ok(stats);
+    }
+    
+    private Map<String, String> response(String sessionId, String key, String message) {
+        log.debug("Session event for {}: {}", sessionId, message);
+        Map<String, String> response = new HashMap<>();
+        response.put(key, message);
+        response.put("sessionId", sessionId);
+        response.put("timestamp", LocalDateTime.now(clock).toString());
+        return response;
+    }
+}
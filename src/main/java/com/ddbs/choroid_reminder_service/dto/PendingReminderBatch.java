@@ -0,0 +1,35 @@
+package com.ddbs.choroid_reminder_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Unsent reminders of one type for one session, as written to the shutdown checkpoint
+ * Resolved batches list the recipients still to send; unresolved ones carry the session's recipients when it had them
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PendingReminderBatch {
+    
+    @JsonProperty("session")
+    private SessionDto session;
+    
+    @JsonProperty("reminderType")
+    private ReminderStatus.ReminderType reminderType;
+    
+    @JsonProperty("minutesBefore")
+    private int minutesBefore;
+    
+    @JsonProperty("resolved")
+    private boolean resolved;
+    
+    @JsonProperty("recipients")
+    private List<UserDto> recipients;
+}
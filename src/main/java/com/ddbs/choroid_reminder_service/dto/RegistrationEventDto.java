@@ -0,0 +1,24 @@
+package com.ddbs.choroid_reminder_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional body of a registration-added event
+ * Without an email the service looks it up once through the gateway when the event arrives
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RegistrationEventDto {
+    
+    @JsonProperty("email")
+    private String email;
+    
+    @JsonProperty("name")
+    private String name;
+}
@@ -0,0 +1,56 @@
+package com.ddbs.choroid_reminder_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All reminders of one type for one session as they move through the pipeline
+ * Tracks outstanding recipients so a per-session summary can be logged when the last one completes
+ */
+@Getter
+public class ReminderBatch {
+    
+    private final SessionDto session;
+    private final ReminderStatus.ReminderType reminderType;
+    private final int minutesBefore;
+    
+    // Dispatch priority, lower is sooner (see DispatchPriority)
+    @Setter
+    private long priority;
+    
+    // Ideal send time: start minus the reminder lead, or end plus the feedback delay
+    @Setter
+    private LocalDateTime dueAt;
+    
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger sentCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    
+    public ReminderBatch(SessionDto session, ReminderStatus.ReminderType reminderType, int minutesBefore) {
+        this.session = session;
+        this.reminderType = reminderType;
+        this.minutesBefore = minutesBefore;
+    }
+    
+    /**
+     * Register a recipient that has been handed to the pipeline
+     */
+    public void addRecipient() {
+        outstanding.incrementAndGet();
+    }
+    
+    /**
+     * Record a recipient outcome; returns true if this was the last outstanding recipient
+     */
+    public boolean complete(boolean sent) {
+        if (sent) {
+            sentCount.incrementAndGet();
+        } else {
+            failedCount.incrementAndGet();
+        }
+        return outstanding.decrementAndGet() == 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ddbs.choroid_reminder_service.dto;
+
+/**
+ * Compact 128-bit dedup key for a (session, user, reminder type) triple
+ * 
+ * Replaces the "%s_%s_%s" composite string: two independently seeded 64-bit hashes over the
+ * length-prefixed session id and username plus the type ordinal. Length prefixes mean
+ * underscores in usernames can no longer make two different triples collide, and at 128 bits
+ * an accidental hash collision is negligible for any realistic number of reminders.
+ */
+public record ReminderKey(long hi, long lo) {
+    
+    private static final long SEED_HI = 0x9E3779B97F4A7C15L;
+    private static final long SEED_LO = 0xC2B2AE3D27D4EB4FL;
+    private static final long MULTIPLIER_HI = 0x100000001B3L;
+    private static final long MULTIPLIER_LO = 0xFF51AFD7ED558CCDL;
+    
+    public static ReminderKey of(String sessionId, String username, ReminderStatus.ReminderType reminderType) {
+        long hi = SEED_HI;
+        long lo = SEED_LO;
+        
+        hi = mixHi(hi, sessionId.length());
+        lo = mixLo(lo, sessionId.length());
+        for (int i = 0; i < sessionId.length(); i++) {
+            char c = sessionId.charAt(i);
+            hi = mixHi(hi, c);
+            lo = mixLo(lo, c);
+        }
+        
+        hi = mixHi(hi, username.length());
+        lo = mixLo(lo, username.length());
+        for (int i = 0; i < username.length(); i++) {
+            char c = username.charAt(i);
+            hi = mixHi(hi, c);
+            lo = mixLo(lo, c);
+        }
+        
+        hi = mixHi(hi, reminderType.ordinal());
+        lo = mixLo(lo, reminderType.ordinal());
+        return new ReminderKey(finish(hi), finish(lo));
+    }
+    
+    private static long mixHi(long hash, int value) {
+        return (hash ^ value) * MULTIPLIER_HI;
+    }
+    
+    private static long mixLo(long hash, int value) {
+        return Long.rotateLeft(hash ^ (value * MULTIPLIER_LO), 29) * SEED_HI;
+    }
+    
+    /**
+     * MurmurHash3 fmix64 finaliser for full avalanche
+     */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hi, lo);
+    }
+}
@@ -53,11 +53,11 @@ public class ReminderStatus {
     }
     
     /**
-     * Mark reminder as sent
+     * Mark reminder as sent at the given time (from the application clock)
      */
-    public void markAsSent() {
+    public void markAsSent(LocalDateTime sentAt) {
         this.sent = true;
-        this.sentAt = LocalDateTime.now();
+        this.sentAt = sentAt;
         this.errorMessage = null;
     }
     
@@ -70,6 +70,13 @@ public class ReminderStatus {
         this.retryCount++;
     }
     
+    /**
+     * Check if reminder has been claimed but not yet sent or failed
+     */
+    public boolean isPending() {
+        return !sent && errorMessage == null;
+    }
+    
     /**
      * Check if reminder should be retried
      */
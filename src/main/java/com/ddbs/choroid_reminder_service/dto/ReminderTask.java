@@ -0,0 +1,50 @@
+package com.ddbs.choroid_reminder_service.dto;
+
+import jakarta.mail.internet.MimeMessage;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A single reminder email for one recipient, handed from stage to stage in the pipeline
+ */
+@Data
+@NoArgsConstructor
+public class ReminderTask {
+    
+    private ReminderBatch batch;
+    private UserDto user;
+    private boolean conductor;
+    private ReminderKey reminderKey;
+    private ReminderStatus status;
+    
+    // Dispatch priority, lower is sooner (see DispatchPriority)
+    private long priority;
+    
+    // Populated by the render stage
+    private MimeMessage message;
+    
+    // Handed to the render stage / accepted by the SMTP server
+    private Instant enqueuedAt;
+    private Instant acceptedAt;
+    
+    public static ReminderTask create(ReminderBatch batch, UserDto user, boolean conductor,
+                                      ReminderKey reminderKey, ReminderStatus status) {
+        ReminderTask task = new ReminderTask();
+        task.setBatch(batch);
+        task.setUser(user);
+        task.setConductor(conductor);
+        task.setReminderKey(reminderKey);
+        task.setStatus(status);
+        return task;
+    }
+    
+    public SessionDto getSession() {
+        return batch.getSession();
+    }
+    
+    public ReminderStatus.ReminderType getReminderType() {
+        return batch.getReminderType();
+    }
+}
@@ -2,13 +2,16 @@ package com.ddbs.choroid_reminder_service.dto;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO representing session data from Sessions table
@@ -48,6 +51,11 @@ public class SessionDto {
     @JsonProperty("resourcesLink")
     private String resourcesLink;
     
+    // Registrants and conductor keyed by username in RARF order; only set when read from the database
+    @JsonIgnore
+    @ToString.Exclude
+    private Map<String, UserDto> recipients;
+    
     /**
      * Get calculated end time based on start time and duration
      */
@@ -59,25 +67,24 @@ public class SessionDto {
     }
     
     /**
-     * Check if session is upcoming (scheduled but not started)
+     * Check if session is upcoming (scheduled but not started) at the given time
      */
-    public boolean isUpcoming() {
-        return start != null && LocalDateTime.now().isBefore(start);
+    public boolean isUpcoming(LocalDateTime now) {
+        return start != null && now.isBefore(start);
     }
     
     /**
-     * Check if session has ended
+     * Check if session has ended by the given time
      */
-    public boolean hasEnded() {
+    public boolean hasEnded(LocalDateTime now) {
         LocalDateTime endTime = getEndDateTime();
-        return endTime != null && LocalDateTime.now().isAfter(endTime);
+        return endTime != null && now.isAfter(endTime);
     }
     
     /**
-     * Get minutes until session starts
+     * Get minutes until session starts, relative to a given time (e.g. the scheduler cycle's snapshot)
      */
-    public long getMinutesUntilStart() {
-        LocalDateTime now = LocalDateTime.now();
+    public long getMinutesUntilStart(LocalDateTime now) {
         if (start != null && now.isBefore(start)) {
             return java.time.Duration.between(now, start).toMinutes();
         }
@@ -85,10 +92,9 @@ public class SessionDto {
     }
     
     /**
-     * Get minutes since session ended
+     * Get minutes since session ended, relative to a given time (e.g. the scheduler cycle's snapshot)
      */
-    public long getMinutesSinceEnd() {
-        LocalDateTime now = LocalDateTime.now();
+    public long getMinutesSinceEnd(LocalDateTime now) {
         LocalDateTime endTime = getEndDateTime();
         if (endTime != null && now.isAfter(endTime)) {
             return java.time.Duration.between(endTime, now).toMinutes();
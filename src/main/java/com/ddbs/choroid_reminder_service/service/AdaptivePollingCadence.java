@@ -0,0 +1,149 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reminder cycle cadence planned from the known session schedule (reminder.scheduler.polling=adaptive)
+ * 
+ * A cycle only finds work when a session's pre-session band opens (start minus REMINDER_WINDOW_OPENS_MINUTES)
+ * or its feedback window opens (the end). This trigger keeps the sorted list of those boundaries
+ * over the next horizon-hours, refreshed by one session search every horizon-refresh-ms, and
+ * schedules each cycle for the next boundary after the previous one finished:
+ * - an empty horizon polls every max-interval-ms, which still catches sessions created after the refresh
+ * - boundaries clustered closer than min-interval-ms share a cycle
+ * - a boundary is polled as it passes, so reminders go out at their ideal time rather than up to an interval late
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.scheduler.polling", havingValue = "adaptive")
+public class AdaptivePollingCadence implements Trigger {
+    
+    private final SessionApiService sessionApiService;
+    private final Clock clock;
+    
+    @Value("${reminder.scheduler.adaptive.min-interval-ms:60000}")
+    private long minIntervalMs;
+    
+    // Keep below the 20-minute pre-session band so a session missing from the horizon still gets a cycle inside it
+    @Value("${reminder.scheduler.adaptive.max-interval-ms:900000}")
+    private long maxIntervalMs;
+    
+    @Value("${reminder.scheduler.adaptive.horizon-hours:24}")
+    private long horizonHours;
+    
+    @Value("${reminder.scheduler.adaptive.horizon-refresh-ms:1800000}")
+    private long horizonRefreshMs;
+    
+    // Sorted band openings; replaced wholesale on refresh
+    private volatile List<LocalDateTime> boundaries = List.of();
+    private volatile LocalDateTime horizonFetchedAt;
+    private volatile long lastIntervalMs = -1;
+    private volatile String lastReason = "start";
+    private volatile LocalDateTime nextPoll;
+    
+    private final LongAdder horizonRefreshes = new LongAdder();
+    private final LongAdder boundaryPolls = new LongAdder();
+    private final LongAdder idlePolls = new LongAdder();
+    
+    @Override
+    public Instant nextExecution(TriggerContext triggerContext) {
+        Instant lastCompletion = triggerContext.lastCompletion();
+        if (lastCompletion == null) {
+            // First cycle straight away, as with the fixed cadence
+            return triggerContext.getClock().instant();
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (horizonFetchedAt == null || Duration.between(horizonFetchedAt, now).toMillis() >= horizonRefreshMs) {
+            refreshHorizon(now);
+        }
+        long intervalMs = nextIntervalMs(now);
+        nextPoll = now.plus(Duration.ofMillis(intervalMs));
+        log.debug("Next reminder cycle in {} ms ({})", intervalMs, lastReason);
+        return lastCompletion.plusMillis(intervalMs);
+    }
+    
+    /**
+     * Delay from now to the next cycle: the next boundary, clamped to the min and max intervals
+     */
+    long nextIntervalMs(LocalDateTime now) {
+        List<LocalDateTime> known = boundaries;
+        int index = Collections.binarySearch(known, now);
+        int next = index >= 0 ? index + 1 : -index - 1;
+        long intervalMs;
+        if (next >= known.size() || Duration.between(now, known.get(next)).toMillis() >= maxIntervalMs) {
+            intervalMs = maxIntervalMs;
+            lastReason = "idle";
+            idlePolls.increment();
+        } else {
+            intervalMs = Math.max(minIntervalMs, Duration.between(now, known.get(next)).toMillis());
+            lastReason = "boundary";
+            boundaryPolls.increment();
+        }
+        lastIntervalMs = intervalMs;
+        return intervalMs;
+    }
+    
+    /**
+     * Band openings for sessions that have not ended yet and start within the horizon
+     * A failed search comes back empty, which only costs max-interval polling until the next refresh
+     */
+    void refreshHorizon(LocalDateTime now) {
+        List<SessionDto> sessions = sessionApiService.getSessionsStartingBetween(now.minusMinutes(90), now.plusHours(horizonHours));
+        List<LocalDateTime> found = new ArrayList<>(sessions.size() * 2);
+        for (SessionDto session : sessions) {
+            LocalDateTime start = session.getStartDateTime();
+            if (start == null) {
+                continue;
+            }
+            LocalDateTime bandOpens = start.minusMinutes(ReminderSchedulerService.REMINDER_WINDOW_OPENS_MINUTES);
+            if (bandOpens.isAfter(now)) {
+                found.add(bandOpens);
+            }
+            LocalDateTime end = session.getEndDateTime();
+            if (end != null && end.isAfter(now)) {
+                found.add(end);
+            }
+        }
+        Collections.sort(found);
+        boundaries = List.copyOf(found);
+        horizonFetchedAt = now;
+        horizonRefreshes.increment();
+        log.debug("Polling horizon refreshed: {} sessions, {} reminder boundaries in the next {} hours",
+                sessions.size(), found.size(), horizonHours);
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", "adaptive");
+        stats.put("minIntervalMs", minIntervalMs);
+        stats.put("maxIntervalMs", maxIntervalMs);
+        stats.put("lastIntervalMs", lastIntervalMs);
+        stats.put("lastReason", lastReason);
+        stats.put("nextPoll", nextPoll != null ? nextPoll.toString() : null);
+        stats.put("knownBoundaries", boundaries.size());
+        stats.put("horizonFetchedAt", horizonFetchedAt != null ? horizonFetchedAt.toString() : null);
+        stats.put("horizonRefreshes", horizonRefreshes.sum());
+        stats.put("boundaryPolls", boundaryPolls.sum());
+        stats.put("idlePolls", idlePolls.sum());
+        return stats;
+    }
+}
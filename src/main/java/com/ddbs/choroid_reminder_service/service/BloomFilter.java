@@ -0,0 +1,81 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter over 128-bit reminder keys
+ * 
+ * The two halves of a {@link ReminderKey} are independent hashes, so the k probe positions
+ * come from double hashing (hi + i * lo) without hashing again. Bits are set atomically so
+ * puts and lookups may run concurrently from any thread.
+ */
+public class BloomFilter {
+    
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+    
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        
+        long optimalBits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        bits = new AtomicLongArray(words);
+        bitCount = (long) words * 64;
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+    
+    public void put(ReminderKey key) {
+        long hash = key.hi();
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash, bitCount);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+            }
+            hash += key.lo();
+        }
+        insertions.increment();
+    }
+    
+    /**
+     * False means the key was definitely never put; true means it probably was
+     */
+    public boolean mightContain(ReminderKey key) {
+        long hash = key.hi();
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            hash += key.lo();
+        }
+        return true;
+    }
+    
+    /**
+     * Expected false-positive rate for the number of keys put so far
+     */
+    public double expectedFalsePositiveRate() {
+        double fill = 1 - Math.exp(-(double) hashCount * insertions.sum() / bitCount);
+        return Math.pow(fill, hashCount);
+    }
+    
+    public long getInsertions() {
+        return insertions.sum();
+    }
+    
+    public long getBitCount() {
+        return bitCount;
+    }
+    
+    public int getHashCount() {
+        return hashCount;
+    }
+}
@@ -0,0 +1,339 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Backfills reminders whose send window passed while the service was down
+ * 
+ * Every completed cycle records its time in the state file. At start-up the time left there marks
+ * the last cycle before the outage; the gap from it to now is searched in parallel, one time chunk
+ * per query, for pre-session bands and feedback windows that opened and closed inside the gap.
+ * Each missed reminder is sent only while its lateness (now minus its ideal send time) is within
+ * the cutoff for its type, and pre-session reminders never go out after the session started.
+ * Missed sessions are handed to the pipeline one at a time, most urgent first, and paced to
+ * sends-per-minute so the backlog does not trip the SMTP server's rate limits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnExpression("${reminder.scheduler.enabled:true} and ${reminder.catch-up.enabled:true}")
+public class CatchUpService {
+    
+    private final ReminderSchedulerService reminderSchedulerService;
+    private final SessionApiService sessionApiService;
+    private final Clock clock;
+    
+    @Value("${reminder.before-session.first:30}")
+    private int reminderMinutes;
+    
+    // Ideal feedback send time after the end, the base of its lateness; the window itself is FEEDBACK_WINDOW_MINUTES
+    @Value("${reminder.after-session.feedback:30}")
+    private int feedbackReminderMinutes;
+    
+    @Value("${reminder.catch-up.state-file:data/reminder-last-cycle}")
+    private String stateFile;
+    
+    // Lateness cutoffs, measured from the ideal send time
+    @Value("${reminder.catch-up.max-lateness-minutes.before-session:25}")
+    private long maxBeforeSessionLatenessMinutes;
+    
+    @Value("${reminder.catch-up.max-lateness-minutes.feedback:360}")
+    private long maxFeedbackLatenessMinutes;
+    
+    @Value("${reminder.catch-up.chunk-minutes:60}")
+    private long chunkMinutes;
+    
+    @Value("${reminder.catch-up.parallelism:4}")
+    private int parallelism;
+    
+    // Feedback is found by start time, so the search reaches back this much further than the earliest end
+    @Value("${reminder.catch-up.max-session-minutes:240}")
+    private long maxSessionMinutes;
+    
+    // 0 disables pacing
+    @Value("${reminder.catch-up.sends-per-minute:60}")
+    private int sendsPerMinute;
+    
+    // Last cycle recorded before this start; null when there is none
+    private volatile LocalDateTime lastCycleBeforeStart;
+    private volatile String state = "idle";
+    private volatile long gapMinutes;
+    private volatile int chunks;
+    
+    private final LongAdder failedChunks = new LongAdder();
+    private final LongAdder missedSessions = new LongAdder();
+    private final LongAdder dispatchedBatches = new LongAdder();
+    private final LongAdder claimedReminders = new LongAdder();
+    private final LongAdder expiredBatches = new LongAdder();
+    
+    /**
+     * One session search: a reminder type and a start-time range
+     */
+    record ScanRange(ReminderStatus.ReminderType reminderType, LocalDateTime startAfter, LocalDateTime startBefore) {
+    }
+    
+    /**
+     * A missed session and the reminder type it is owed
+     */
+    record MissedReminder(SessionDto session, ReminderStatus.ReminderType reminderType) {
+    }
+    
+    @PostConstruct
+    void readLastCycle() {
+        Path file = Path.of(stateFile);
+        try {
+            if (Files.exists(file)) {
+                lastCycleBeforeStart = LocalDateTime.parse(Files.readString(file).trim());
+            }
+        } catch (IOException | DateTimeParseException e) {
+            log.warn("Could not read the last reminder cycle from {}; no catch-up this start: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Record a completed cycle's time, written through a temporary file so a crash never truncates it
+     */
+    public void recordCycle(LocalDateTime cycleTime) {
+        Path file = Path.of(stateFile);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temporary, cycleTime.toString());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not record the reminder cycle time in {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Start the backfill off the start-up path once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCatchUp() {
+        if (lastCycleBeforeStart == null) {
+            log.info("No previous reminder cycle recorded; nothing to catch up");
+            return;
+        }
+        Thread thread = new Thread(this::catchUp, "reminder-catch-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    void catchUp() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime lastCycle = lastCycleBeforeStart;
+        gapMinutes = Duration.between(lastCycle, now).toMinutes();
+        List<ScanRange> ranges = scanRanges(lastCycle, now);
+        if (ranges.isEmpty()) {
+            log.info("Last reminder cycle ran at {} ({} minutes ago); no reminder windows missed", lastCycle, gapMinutes);
+            state = "completed";
+            return;
+        }
+        
+        state = "scanning";
+        chunks = ranges.size();
+        log.info("Catching up on reminders missed since the cycle at {} ({} minutes ago): {} searches",
+                lastCycle, gapMinutes, ranges.size());
+        List<MissedReminder> missed = scan(ranges, lastCycle, now);
+        missedSessions.add(missed.size());
+        
+        state = "dispatching";
+        try {
+            dispatch(missed);
+            state = "completed";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state = "interrupted";
+        }
+        log.info("Reminder catch-up finished: {} missed sessions, {} dispatched with {} reminders, {} past their cutoff",
+                missed.size(), dispatchedBatches.sum(), claimedReminders.sum(), expiredBatches.sum());
+    }
+    
+    /**
+     * Session searches covering what the gap hid from the regular windows, limited to what is still worth sending
+     */
+    List<ScanRange> scanRanges(LocalDateTime lastCycle, LocalDateTime now) {
+        List<ScanRange> ranges = new ArrayList<>();
+        
+        // Pre-session: the last cycle covered starts up to lastCycle + 30, the next one covers from now + 10
+        LocalDateTime startFrom = latest(lastCycle.plusMinutes(ReminderSchedulerService.REMINDER_WINDOW_OPENS_MINUTES),
+                now.plusMinutes(reminderMinutes - maxBeforeSessionLatenessMinutes));
+        addChunks(ranges, ReminderStatus.ReminderType.BEFORE_30_MIN, startFrom, now.plusMinutes(ReminderSchedulerService.REMINDER_WINDOW_CLOSES_MINUTES));
+        
+        // Feedback: sessions that ended after the last cycle and left the regular window before now
+        LocalDateTime endFrom = latest(lastCycle, now.minusMinutes(feedbackReminderMinutes + maxFeedbackLatenessMinutes));
+        LocalDateTime endTo = now.minusMinutes(ReminderSchedulerService.FEEDBACK_WINDOW_MINUTES);
+        if (endFrom.isBefore(endTo)) {
+            addChunks(ranges, ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK, endFrom.minusMinutes(maxSessionMinutes), endTo);
+        }
+        return ranges;
+    }
+    
+    private void addChunks(List<ScanRange> ranges, ReminderStatus.ReminderType reminderType, LocalDateTime from, LocalDateTime to) {
+        // Searches exclude both bounds, so each chunk reaches a minute past its neighbours; duplicates are dropped later
+        for (LocalDateTime chunkStart = from; chunkStart.isBefore(to); chunkStart = chunkStart.plusMinutes(chunkMinutes)) {
+            LocalDateTime chunkEnd = chunkStart.plusMinutes(chunkMinutes);
+            ranges.add(new ScanRange(reminderType, chunkStart.minusMinutes(1), (chunkEnd.isBefore(to) ? chunkEnd : to).plusMinutes(1)));
+        }
+    }
+    
+    /**
+     * Run the searches in parallel and keep each missed session once, most urgent first
+     */
+    private List<MissedReminder> scan(List<ScanRange> ranges, LocalDateTime lastCycle, LocalDateTime now) {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, ranges.size())), task -> {
+            Thread thread = new Thread(task, "reminder-catch-up-scan-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<String, MissedReminder> missed = new LinkedHashMap<>();
+        try {
+            List<Future<List<SessionDto>>> results = new ArrayList<>(ranges.size());
+            for (ScanRange range : ranges) {
+                results.add(executor.submit(() -> sessionApiService.findSessionsStartingBetween(range.startAfter(), range.startBefore())
+                        .orElseThrow(() -> new IllegalStateException("Session search failed"))));
+            }
+            for (int i = 0; i < ranges.size(); i++) {
+                ReminderStatus.ReminderType reminderType = ranges.get(i).reminderType();
+                try {
+                    for (SessionDto session : results.get(i).get()) {
+                        if (session.getSessionID() != null && wasMissed(session, reminderType, lastCycle, now)) {
+                            missed.putIfAbsent(session.getSessionID() + ":" + reminderType, new MissedReminder(session, reminderType));
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    failedChunks.increment();
+                    log.error("Catch-up search {} failed", ranges.get(i), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        List<MissedReminder> ordered = new ArrayList<>(missed.values());
+        ordered.sort(Comparator.comparing(reminder -> expiresAt(reminder.session(), reminder.reminderType())));
+        return ordered;
+    }
+    
+    /**
+     * The session's window fell inside the gap and its reminder is still within the cutoff
+     */
+    boolean wasMissed(SessionDto session, ReminderStatus.ReminderType reminderType, LocalDateTime lastCycle, LocalDateTime now) {
+        if (reminderType == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
+            LocalDateTime end = session.getEndDateTime();
+            if (end == null || !end.isAfter(lastCycle) || !end.isBefore(now.minusMinutes(ReminderSchedulerService.FEEDBACK_WINDOW_MINUTES))) {
+                return false;
+            }
+        } else {
+            LocalDateTime start = session.getStartDateTime();
+            if (start == null || !start.isAfter(lastCycle.plusMinutes(ReminderSchedulerService.REMINDER_WINDOW_OPENS_MINUTES))
+                    || !start.isBefore(now.plusMinutes(ReminderSchedulerService.REMINDER_WINDOW_CLOSES_MINUTES))) {
+                return false;
+            }
+        }
+        return stillWorthSending(session, reminderType, now);
+    }
+    
+    boolean stillWorthSending(SessionDto session, ReminderStatus.ReminderType reminderType, LocalDateTime now) {
+        LocalDateTime expiresAt = expiresAt(session, reminderType);
+        return expiresAt != null && now.isBefore(expiresAt);
+    }
+    
+    /**
+     * Ideal send time plus the cutoff for the type, exclusive; a pre-session reminder also expires at the start
+     */
+    private LocalDateTime expiresAt(SessionDto session, ReminderStatus.ReminderType reminderType) {
+        if (reminderType == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
+            LocalDateTime end = session.getEndDateTime();
+            return end != null ? end.plusMinutes(feedbackReminderMinutes + maxFeedbackLatenessMinutes) : null;
+        }
+        LocalDateTime start = session.getStartDateTime();
+        if (start == null) {
+            return null;
+        }
+        LocalDateTime cutoff = start.minusMinutes(reminderMinutes).plusMinutes(maxBeforeSessionLatenessMinutes);
+        return cutoff.isBefore(start) ? cutoff : start;
+    }
+    
+    /**
+     * Hand missed sessions over one at a time, re-checking the cutoff, and pause after each for its share of the send rate
+     */
+    private void dispatch(List<MissedReminder> missed) throws InterruptedException {
+        for (MissedReminder reminder : missed) {
+            if (reminderSchedulerService.isDraining()) {
+                log.info("Shutting down; reminder catch-up stopped");
+                return;
+            }
+            if (!stillWorthSending(reminder.session(), reminder.reminderType(), LocalDateTime.now(clock))) {
+                expiredBatches.increment();
+                continue;
+            }
+            int claimed;
+            try {
+                claimed = reminderSchedulerService.dispatchCatchUp(reminder.session(), reminder.reminderType());
+            } catch (Exception e) {
+                log.error("Catch-up failed for {} reminders of session {}", reminder.reminderType(), reminder.session().getSessionID(), e);
+                continue;
+            }
+            dispatchedBatches.increment();
+            claimedReminders.add(claimed);
+            if (sendsPerMinute > 0 && claimed > 0) {
+                Thread.sleep(claimed * 60_000L / sendsPerMinute);
+            }
+        }
+    }
+    
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state);
+        stats.put("lastCycleBeforeStart", lastCycleBeforeStart != null ? lastCycleBeforeStart.toString() : null);
+        stats.put("gapMinutes", gapMinutes);
+        stats.put("searches", chunks);
+        stats.put("failedSearches", failedChunks.sum());
+        stats.put("missedSessions", missedSessions.sum());
+        stats.put("dispatchedBatches", dispatchedBatches.sum());
+        stats.put("claimedReminders", claimedReminders.sum());
+        stats.put("expiredBatches", expiredBatches.sum());
+        stats.put("sendsPerMinute", sendsPerMinute);
+        return stats;
+    }
+}
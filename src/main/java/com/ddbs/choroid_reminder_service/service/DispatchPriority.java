@@ -0,0 +1,61 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderBatch;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Computes dispatch priorities for the pipeline's priority queues
+ * 
+ * Primary key is the reminder's deadline (session start for pre-session reminders, session end
+ * for feedback). Reminder type and recipient role are secondary weights added on top, so a
+ * feedback email behaves as if it were due later and a conductor goes ahead of attendees.
+ * Lower value means dispatched sooner.
+ */
+@Component
+public class DispatchPriority {
+    
+    @Value("${reminder.dispatch.feedback-weight-minutes:30}")
+    private long feedbackWeightMinutes;
+    
+    @Value("${reminder.dispatch.attendee-weight-seconds:60}")
+    private long attendeeWeightSeconds;
+    
+    /**
+     * Priority of a whole session batch (resolve stage ordering)
+     */
+    public long batchPriority(ReminderBatch batch) {
+        SessionDto session = batch.getSession();
+        LocalDateTime deadline;
+        long weightMillis = 0;
+        
+        if (batch.getReminderType() == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
+            deadline = session.getEndDateTime();
+            weightMillis = Duration.ofMinutes(feedbackWeightMinutes).toMillis();
+        } else {
+            deadline = session.getStartDateTime();
+        }
+        
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + weightMillis;
+    }
+    
+    /**
+     * Priority of a single recipient's reminder (render and send stage ordering)
+     */
+    public long taskPriority(ReminderBatch batch, boolean conductor) {
+        long priority = batch.getPriority();
+        if (conductor || priority == Long.MAX_VALUE) {
+            return priority;
+        }
+        return priority + Duration.ofSeconds(attendeeWeightSeconds).toMillis();
+    }
+}
@@ -1,7 +1,11 @@
 package com.ddbs.choroid_reminder_service.service;
 
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
 import com.ddbs.choroid_reminder_service.dto.SessionDto;
 import com.ddbs.choroid_reminder_service.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,7 +13,10 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.io.UnsupportedEncodingException;
+import java.time.Clock;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -22,6 +29,8 @@ import java.time.format.DateTimeFormatter;
 public class EmailService {
     
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
     
     @Value("${reminder.from-email}")
     private String fromEmail;
@@ -33,84 +42,110 @@ public class EmailService {
     private String gatewayBaseUrl;
     
     /**
-     * Send conductor reminder email (for session creator)
+     * Build the MIME message for a reminder task (pipeline render stage)
+     * Picks the conductor, attendee or feedback template based on the task
      */
-    public boolean sendConductorReminder(UserDto conductor, SessionDto session, int minutesBefore) {
+    public MimeMessage createReminderMessage(ReminderTask task) throws MessagingException, UnsupportedEncodingException {
+        ReminderEvents.RenderEvent event = new ReminderEvents.RenderEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail, fromName);
-            helper.setTo(conductor.getPrimaryEmail());
-            helper.setSubject("Conductor Reminder: " + session.getTitle() + " - Starting in " + minutesBefore + " minutes");
-            
-            String htmlContent = buildConductorReminderHtml(conductor, session, minutesBefore);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-            log.info("Conductor reminder sent successfully to {} for session {}", conductor.getPrimaryEmail(), session.getSessionID());
-            return true;
-            
-        } catch (Exception e) {
-            log.error("Failed to send conductor reminder to {} for session {}", conductor.getPrimaryEmail(), session.getSessionID(), e);
-            return false;
+            return renderReminderMessage(task);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sessionId = task.getSession().getSessionID();
+                event.reminderType = task.getReminderType().name();
+                event.conductor = task.isConductor();
+                event.commit();
+            }
+            sample.stop(Timer.builder("reminder.render")
+                    .description("Reminder template render time")
+                    .tag("type", task.getReminderType().name())
+                    .register(meterRegistry));
         }
     }
     
-    /**
-     * Send attendee reminder email (for registered participants)
-     */
-    public boolean sendAttendeeReminder(UserDto attendee, SessionDto session, int minutesBefore) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail, fromName);
-            helper.setTo(attendee.getPrimaryEmail());
-            helper.setSubject("Session Reminder: " + session.getTitle() + " - Starting in " + minutesBefore + " minutes");
-            
-            String htmlContent = buildAttendeeReminderHtml(attendee, session, minutesBefore);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-            log.info("Attendee reminder sent successfully to {} for session {}", attendee.getPrimaryEmail(), session.getSessionID());
-            return true;
-            
-        } catch (Exception e) {
-            log.error("Failed to send attendee reminder to {} for session {}", attendee.getPrimaryEmail(), session.getSessionID(), e);
-            return false;
+    private MimeMessage renderReminderMessage(ReminderTask task) throws MessagingException, UnsupportedEncodingException {
+        UserDto user = task.getUser();
+        SessionDto session = task.getSession();
+        
+        if (task.getReminderType() == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
+            return createMessage(user.getPrimaryEmail(),
+                    "Feedback Request: " + session.getTitle() + " - Your input matters!",
+                    buildFeedbackReminderHtml(user, session));
         }
+        
+        int minutesBefore = task.getBatch().getMinutesBefore();
+        if (task.isConductor()) {
+            return createMessage(user.getPrimaryEmail(),
+                    "Conductor Reminder: " + session.getTitle() + " - Starting in " + minutesBefore + " minutes",
+                    buildConductorReminderHtml(user, session, minutesBefore));
+        }
+        return createMessage(user.getPrimaryEmail(),
+                "Session Reminder: " + session.getTitle() + " - Starting in " + minutesBefore + " minutes",
+                buildAttendeeReminderHtml(user, session, minutesBefore));
     }
     
     /**
-     * Send feedback request email (30 minutes after session ends)
+     * Send a previously rendered reminder message (pipeline send stage)
      */
-    public boolean sendFeedbackReminder(UserDto user, SessionDto session) {
+    public boolean sendReminderMessage(ReminderTask task) {
+        String recipient = task.getUser().getPrimaryEmail();
+        String sessionId = task.getSession().getSessionID();
+        ReminderEvents.SmtpSendEvent event = new ReminderEvents.SmtpSendEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean sent = false;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail, fromName);
-            helper.setTo(user.getPrimaryEmail());
-            helper.setSubject("Feedback Request: " + session.getTitle() + " - Your input matters!");
-            
-            String htmlContent = buildFeedbackReminderHtml(user, session);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-            log.info("Feedback reminder sent successfully to {} for session {}", user.getPrimaryEmail(), session.getSessionID());
+            mailSender.send(task.getMessage());
+            task.setAcceptedAt(clock.instant());
+            sent = true;
+            log.debug("{} sent successfully to {} for session {}", describe(task), recipient, sessionId);
             return true;
             
         } catch (Exception e) {
-            log.error("Failed to send feedback reminder to {} for session {}", user.getPrimaryEmail(), session.getSessionID(), e);
+            log.error("Failed to send {} to {} for session {}", describe(task).toLowerCase(), recipient, sessionId, e);
             return false;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sessionId = sessionId;
+                event.reminderType = task.getReminderType().name();
+                event.sent = sent;
+                event.commit();
+            }
+            sample.stop(Timer.builder("reminder.smtp.send")
+                    .description("SMTP send latency by reminder type and outcome")
+                    .tag("type", task.getReminderType().name())
+                    .tag("outcome", sent ? "sent" : "failed")
+                    .register(meterRegistry));
+        }
+    }
+    
+    private MimeMessage createMessage(String to, String subject, String htmlContent)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        
+        helper.setFrom(fromEmail, fromName);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        return message;
+    }
+    
+    private static String describe(ReminderTask task) {
+        if (task.getReminderType() == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
+            return "Feedback reminder";
         }
+        return task.isConductor() ? "Conductor reminder" : "Attendee reminder";
     }
     
     /**
      * Build HTML content for conductor reminder email
      */
-    private String buildConductorReminderHtml(UserDto conductor, SessionDto session, int minutesBefore) {
+    String buildConductorReminderHtml(UserDto conductor, SessionDto session, int minutesBefore) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' hh:mm a");
         String formattedDateTime = session.getStartDateTime().format(formatter);
         
@@ -191,7 +226,7 @@ public class EmailService {
     /**
      * Build HTML content for attendee reminder email
      */
-    private String buildAttendeeReminderHtml(UserDto attendee, SessionDto session, int minutesBefore) {
+    String buildAttendeeReminderHtml(UserDto attendee, SessionDto session, int minutesBefore) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' hh:mm a");
         String formattedDateTime = session.getStartDateTime().format(formatter);
         
@@ -262,7 +297,7 @@ public class EmailService {
     /**
      * Build HTML content for feedback reminder email
      */
-    private String buildFeedbackReminderHtml(UserDto user, SessionDto session) {
+    String buildFeedbackReminderHtml(UserDto user, SessionDto session) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
         String formattedDate = session.getStartDateTime().format(formatter);
         
@@ -0,0 +1,161 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker guarding a single gateway endpoint
+ * 
+ * CLOSED    - calls flow normally, consecutive failures are counted
+ * OPEN      - calls fail fast until the open duration has elapsed
+ * HALF_OPEN - a limited number of probe calls decide whether to close or re-open
+ * 
+ * Also keeps a small window of recent latencies so callers can derive hedge delays.
+ */
+public class GatewayCircuitBreaker {
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private static final int LATENCY_WINDOW_SIZE = 256;
+    
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger probesInFlight = new AtomicInteger();
+    private volatile long openedAtNanos;
+    
+    private final LongAdder tripCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    
+    private final long[] latencyWindow = new long[LATENCY_WINDOW_SIZE];
+    private int latencyIndex;
+    private int latencySamples;
+    
+    public GatewayCircuitBreaker(String name, int failureThreshold, Duration openDuration, int halfOpenProbes) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+    
+    /**
+     * Ask for permission to make a call; returns false when the call must fail fast
+     */
+    public boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probesInFlight.set(0);
+            }
+            current = state.get();
+        }
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.HALF_OPEN) {
+            if (probesInFlight.incrementAndGet() <= halfOpenProbes) {
+                return true;
+            }
+            probesInFlight.decrementAndGet();
+        }
+        rejectedCount.increment();
+        return false;
+    }
+    
+    /**
+     * Record a successful call and its latency
+     */
+    public void onSuccess(long latencyNanos) {
+        successCount.increment();
+        recordLatency(latencyNanos);
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            probesInFlight.set(0);
+        }
+    }
+    
+    /**
+     * Record a failed call (timeout, connection error or 5xx)
+     */
+    public void onFailure() {
+        failureCount.increment();
+        if (state.get() == State.HALF_OPEN) {
+            trip(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            trip(State.CLOSED);
+        }
+    }
+    
+    private void trip(State from) {
+        if (state.compareAndSet(from, State.OPEN)) {
+            openedAtNanos = System.nanoTime();
+            consecutiveFailures.set(0);
+            tripCount.increment();
+        }
+    }
+    
+    private synchronized void recordLatency(long latencyNanos) {
+        latencyWindow[latencyIndex] = latencyNanos;
+        latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW_SIZE;
+        if (latencySamples < LATENCY_WINDOW_SIZE) {
+            latencySamples++;
+        }
+    }
+    
+    /**
+     * Latency percentile (0-100) over the recent window, or -1 with fewer than minSamples samples
+     */
+    public synchronized long latencyPercentileNanos(double percentile, int minSamples) {
+        if (latencySamples == 0 || latencySamples < minSamples) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencyWindow, latencySamples);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.min(sorted.length - 1, Math.max(0, index))];
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public State getState() {
+        return state.get();
+    }
+    
+    public long getTripCount() {
+        return tripCount.sum();
+    }
+    
+    /**
+     * Snapshot of breaker state and counters for the stats endpoint
+     */
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.get().name());
+        stats.put("tripCount", tripCount.sum());
+        stats.put("rejectedCalls", rejectedCount.sum());
+        stats.put("successfulCalls", successCount.sum());
+        stats.put("failedCalls", failureCount.sum());
+        stats.put("p50LatencyMs", toMillis(latencyPercentileNanos(50, 1)));
+        stats.put("p95LatencyMs", toMillis(latencyPercentileNanos(95, 1)));
+        return stats;
+    }
+    
+    private static long toMillis(long nanos) {
+        return nanos < 0 ? -1 : Duration.ofNanos(nanos).toMillis();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ddbs.choroid_reminder_service.service;
+
+/**
+ * Thrown when a gateway call is rejected because the endpoint's circuit breaker is open
+ */
+public class GatewayCircuitOpenException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public GatewayCircuitOpenException(String endpoint) {
+        super("Circuit breaker open for gateway endpoint: " + endpoint);
+    }
+}
@@ -0,0 +1,242 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Shared HTTP client for all gateway calls
+ * 
+ * Every call goes through a per-endpoint circuit breaker so a degraded gateway fails fast
+ * instead of making each lookup wait out the full timeout. Idempotent GETs are hedged:
+ * if the first attempt has not answered within the endpoint's recent latency percentile,
+ * a second identical request is fired and whichever answers first wins; an error from one
+ * attempt only surfaces if the other fails too. The breaker's latency window, which sets that
+ * hedge delay, takes the winning attempt's own latency, so a hedged call is not recorded as a
+ * short primary and the delay does not drift down with every hedge.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GatewayClient {
+    
+    public enum Endpoint {
+        SESSION_SEARCH("sessionSearch"),
+        RARF("rarf"),
+        USER_EMAIL("userEmail");
+        
+        private final String name;
+        
+        Endpoint(String name) {
+            this.name = name;
+        }
+        
+        public String getName() {
+            return name;
+        }
+    }
+    
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${api.gateway.base-url}")
+    private String gatewayBaseUrl;
+    
+    @Value("${api.gateway.timeout-ms:30000}")
+    private long timeoutMs;
+    
+    @Value("${api.gateway.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+    
+    @Value("${api.gateway.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+    
+    @Value("${api.gateway.circuit-breaker.half-open-probes:1}")
+    private int halfOpenProbes;
+    
+    @Value("${api.gateway.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+    
+    @Value("${api.gateway.hedge.percentile:95}")
+    private double hedgePercentile;
+    
+    @Value("${api.gateway.hedge.min-delay-ms:50}")
+    private long hedgeMinDelayMs;
+    
+    @Value("${api.gateway.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+    
+    private WebClient webClient;
+    private final Map<Endpoint, GatewayCircuitBreaker> breakers = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> hedgesFired = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> hedgesWon = new EnumMap<>(Endpoint.class);
+    
+    @PostConstruct
+    void init() {
+        webClient = webClientBuilder.baseUrl(gatewayBaseUrl).build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            breakers.put(endpoint, new GatewayCircuitBreaker(
+                    endpoint.getName(), failureThreshold, Duration.ofMillis(openDurationMs), halfOpenProbes));
+            hedgesFired.put(endpoint, new LongAdder());
+            hedgesWon.put(endpoint, new LongAdder());
+        }
+        log.info("Gateway client initialised for {} (timeout {}ms, hedging {})", gatewayBaseUrl, timeoutMs,
+                hedgeEnabled ? "p" + hedgePercentile : "disabled");
+    }
+    
+    /**
+     * Idempotent GET returning the raw response body; eligible for hedging
+     */
+    public String get(Endpoint endpoint, String uri) {
+        return execute(endpoint, uri, () -> webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(String.class), true);
+    }
+    
+    /**
+     * JSON POST returning the raw response body; never hedged
+     */
+    public String post(Endpoint endpoint, String uri, Object body) {
+        return execute(endpoint, uri, () -> webClient.post()
+                .uri(uri)
+                .header("Content-Type", "application/json")
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(String.class), false);
+    }
+    
+    private String execute(Endpoint endpoint, String uri, Supplier<Mono<String>> request, boolean idempotent) {
+        ReminderEvents.GatewayRequestEvent event = new ReminderEvents.GatewayRequestEvent();
+        event.begin();
+        event.uri = uri;
+        
+        GatewayCircuitBreaker breaker = breakers.get(endpoint);
+        if (!breaker.tryAcquirePermission()) {
+            recordOutcome(endpoint, event, "circuit_open", 0);
+            throw new GatewayCircuitOpenException(endpoint.getName());
+        }
+        
+        long startNanos = System.nanoTime();
+        try {
+            Mono<Attempt> call = timed(request);
+            if (idempotent && hedgeEnabled) {
+                long hedgeDelayNanos = breaker.latencyPercentileNanos(hedgePercentile, hedgeMinSamples);
+                if (hedgeDelayNanos >= 0) {
+                    call = hedged(endpoint, call, request,
+                            Math.max(hedgeDelayNanos, Duration.ofMillis(hedgeMinDelayMs).toNanos()));
+                }
+            }
+            
+            Attempt attempt = call.timeout(Duration.ofMillis(timeoutMs)).block();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            // The breaker's window takes the winning attempt's latency; the timer keeps what the caller waited
+            breaker.onSuccess(attempt.latencyNanos());
+            recordOutcome(endpoint, event, "success", elapsedNanos);
+            return attempt.body();
+            
+        } catch (WebClientResponseException e) {
+            // 4xx means the gateway is healthy and answered; only 5xx counts against the breaker
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (e.getStatusCode().is5xxServerError()) {
+                breaker.onFailure();
+                recordOutcome(endpoint, event, "server_error", elapsedNanos);
+            } else {
+                breaker.onSuccess(elapsedNanos);
+                recordOutcome(endpoint, event, "client_error", elapsedNanos);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.onFailure();
+            recordOutcome(endpoint, event, "error", System.nanoTime() - startNanos);
+            throw e;
+        }
+    }
+    
+    private void recordOutcome(Endpoint endpoint, ReminderEvents.GatewayRequestEvent event, String outcome, long elapsedNanos) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint.getName();
+            event.outcome = outcome;
+            event.commit();
+        }
+        
+        Timer.builder("reminder.gateway.requests")
+                .description("Gateway call latency by endpoint and outcome")
+                .tag("endpoint", endpoint.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * One request's response body and its latency from its own subscription
+     */
+    private record Attempt(String body, long latencyNanos) {
+    }
+    
+    private static Mono<Attempt> timed(Supplier<Mono<String>> request) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            // An empty body still counts as an answer, so it can win a hedged race
+            return request.get()
+                    .map(body -> new Attempt(body, System.nanoTime() - startNanos))
+                    .switchIfEmpty(Mono.fromSupplier(() -> new Attempt(null, System.nanoTime() - startNanos)));
+        });
+    }
+    
+    /**
+     * Race the primary request against a delayed duplicate; the first answer wins and the other is cancelled
+     * An attempt that fails is ignored while the other may still answer; if both fail, the primary's error surfaces
+     */
+    private Mono<Attempt> hedged(Endpoint endpoint, Mono<Attempt> primary, Supplier<Mono<String>> request, long delayNanos) {
+        Mono<Attempt> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                .then(Mono.defer(() -> {
+                    hedgesFired.get(endpoint).increment();
+                    return timed(request);
+                }))
+                .doOnNext(attempt -> hedgesWon.get(endpoint).increment());
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class, GatewayClient::firstFailure);
+    }
+    
+    /**
+     * Unwrap the error firstWithValue reports when no attempt answered
+     */
+    private static Throwable firstFailure(NoSuchElementException e) {
+        List<Throwable> failures = Exceptions.unwrapMultiple(e.getCause());
+        return failures.isEmpty() ? e : failures.get(0);
+    }
+    
+    /**
+     * Circuit breaker state, trip counts and hedging counters per endpoint
+     */
+    public Map<String, Object> getCircuitBreakerStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        breakers.forEach((endpoint, breaker) -> {
+            Map<String, Object> endpointStats = breaker.toStats();
+            endpointStats.put("hedgesFired", hedgesFired.get(endpoint).sum());
+            endpointStats.put("hedgesWon", hedgesWon.get(endpoint).sum());
+            stats.put(endpoint.getName(), endpointStats);
+        });
+        return stats;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reminder ledger in the service database (pure JDBC, MySQL)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnExpression("${reminder.ledger.enabled:false} and '${reminder.ledger.store:jdbc}' == 'jdbc'")
+public class JdbcReminderLedger implements ReminderLedger {
+    
+    // Keeps IN lists well under driver/packet limits
+    private static final int MAX_KEYS_PER_QUERY = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    
+    @PostConstruct
+    void createTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS reminder_ledger (
+                    key_hi BIGINT NOT NULL,
+                    key_lo BIGINT NOT NULL,
+                    session_id VARCHAR(64) NOT NULL,
+                    username VARCHAR(128) NOT NULL,
+                    reminder_type VARCHAR(32) NOT NULL,
+                    session_start DATETIME NULL,
+                    sent_at DATETIME NOT NULL,
+                    PRIMARY KEY (key_hi, key_lo),
+                    INDEX idx_reminder_ledger_session (session_id),
+                    INDEX idx_reminder_ledger_start (session_start)
+                )""");
+        log.info("Reminder ledger table ready");
+    }
+    
+    @Override
+    public void recordSent(ReminderKey key, ReminderStatus status, LocalDateTime sessionStart) {
+        jdbcTemplate.update("""
+                INSERT IGNORE INTO reminder_ledger
+                    (key_hi, key_lo, session_id, username, reminder_type, session_start, sent_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)""",
+                key.hi(), key.lo(), status.getSessionId(), status.getUsername(), status.getReminderType().name(),
+                sessionStart != null ? Timestamp.valueOf(sessionStart) : null,
+                Timestamp.valueOf(status.getSentAt() != null ? status.getSentAt() : LocalDateTime.now(clock)));
+    }
+    
+    @Override
+    public Set<ReminderKey> findSent(String sessionId, LocalDateTime sessionStart, Collection<ReminderKey> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        Set<ReminderKey> wanted = new HashSet<>(keys);
+        Set<ReminderKey> sent = new HashSet<>();
+        List<ReminderKey> keyList = new ArrayList<>(wanted);
+        for (int from = 0; from < keyList.size(); from += MAX_KEYS_PER_QUERY) {
+            List<ReminderKey> chunk = keyList.subList(from, Math.min(from + MAX_KEYS_PER_QUERY, keyList.size()));
+            
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(sessionId);
+            chunk.forEach(key -> args.add(key.hi()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            
+            jdbcTemplate.query("SELECT key_hi, key_lo FROM reminder_ledger WHERE session_id = ? AND key_hi IN (" + placeholders + ")",
+                    rs -> {
+                        ReminderKey key = new ReminderKey(rs.getLong("key_hi"), rs.getLong("key_lo"));
+                        if (wanted.contains(key)) {
+                            sent.add(key);
+                        }
+                    }, args.toArray());
+        }
+        return sent;
+    }
+    
+    @Override
+    public void forEachSentKey(LocalDateTime sessionsStartingFrom, Consumer<ReminderKey> consumer) {
+        jdbcTemplate.query("SELECT key_hi, key_lo FROM reminder_ledger WHERE session_start IS NULL OR session_start >= ?",
+                (RowCallbackHandler) rs -> consumer.accept(new ReminderKey(rs.getLong("key_hi"), rs.getLong("key_lo"))),
+                Timestamp.valueOf(sessionsStartingFrom));
+    }
+}
@@ -0,0 +1,160 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sessions, RARF and Users read straight from the Choroid database (pure JDBC, MySQL)
+ * 
+ * One query per window joins each session to its conductor and registrants, so a cycle costs
+ * one round trip per phase instead of a search, a RARF call per session and an email lookup
+ * per recipient. Rows arrive ordered by session and are folded into sessions as they stream.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.source.mode", havingValue = "jdbc")
+public class JdbcSessionDirectory implements SessionDirectory {
+    
+    // Range predicate on the bare column so an index on Sessions(StartDateTime) drives the scan
+    private static final String SESSIONS_WITH_RECIPIENTS = """
+            SELECT s.SessionID, s.CreatorID, s.Title, s.StartDateTime, s.Duration, s.Tags, s.MeetingLink, s.ResourcesLink,
+                   c.Name AS CreatorName, c.PersonalEmail AS CreatorPersonalEmail, c.NITKEmail AS CreatorNITKEmail,
+                   r.UserID, u.Name, u.PersonalEmail, u.NITKEmail
+            FROM Sessions s
+            LEFT JOIN Users c ON c.UserID = s.CreatorID
+            LEFT JOIN RARF r ON r.SessionID = s.SessionID
+            LEFT JOIN Users u ON u.UserID = r.UserID
+            WHERE s.StartDateTime > ? AND s.StartDateTime < ?
+            ORDER BY s.StartDateTime, s.SessionID""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    // MySQL only honours a positive fetch size with useCursorFetch=true on the URL; Integer.MIN_VALUE streams row by row
+    @Value("${reminder.source.jdbc.fetch-size:500}")
+    private int fetchSize;
+    
+    @Value("${reminder.source.jdbc.query-timeout-seconds:30}")
+    private int queryTimeoutSeconds;
+    
+    @PostConstruct
+    void checkIndexes() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                warnUnlessIndexed(metaData, connection.getCatalog(), "Sessions", "StartDateTime");
+                warnUnlessIndexed(metaData, connection.getCatalog(), "RARF", "SessionID");
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not inspect Sessions/RARF indexes: {}", e.getMessage());
+        }
+    }
+    
+    private void warnUnlessIndexed(DatabaseMetaData metaData, String catalog, String table, String column) throws SQLException {
+        try (ResultSet indexes = metaData.getIndexInfo(catalog, null, table, false, true)) {
+            while (indexes.next()) {
+                if (indexes.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                    return;
+                }
+            }
+        }
+        log.warn("No index leads with {}.{}; session window queries will scan the table", table, column);
+    }
+    
+    @Override
+    public List<SessionDto> findSessionsWithRecipients(LocalDateTime startAfter, LocalDateTime startBefore) {
+        Map<String, SessionDto> sessions = new LinkedHashMap<>();
+        long startTime = System.currentTimeMillis();
+        // A failed read propagates: an empty list would pass for a window with no sessions
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SESSIONS_WITH_RECIPIENTS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setQueryTimeout(queryTimeoutSeconds);
+            statement.setTimestamp(1, Timestamp.valueOf(startAfter));
+            statement.setTimestamp(2, Timestamp.valueOf(startBefore));
+            return statement;
+        }, (RowCallbackHandler) rs -> addRow(sessions, rs));
+        
+        log.debug("Read {} sessions starting between {} and {} in {} ms", sessions.size(), startAfter, startBefore,
+                System.currentTimeMillis() - startTime);
+        return new ArrayList<>(sessions.values());
+    }
+    
+    private static void addRow(Map<String, SessionDto> sessions, ResultSet rs) throws SQLException {
+        String sessionId = rs.getString("SessionID");
+        SessionDto session = sessions.get(sessionId);
+        if (session == null) {
+            session = new SessionDto();
+            session.setId(sessionId);
+            session.setCreatorId(rs.getString("CreatorID"));
+            session.setTitle(rs.getString("Title"));
+            Timestamp start = rs.getTimestamp("StartDateTime");
+            session.setStart(start != null ? start.toLocalDateTime() : null);
+            int duration = rs.getInt("Duration");
+            session.setDuration(rs.wasNull() ? null : duration);
+            session.setTags(parseTags(rs.getString("Tags")));
+            session.setMeetingLink(rs.getString("MeetingLink"));
+            session.setResourcesLink(rs.getString("ResourcesLink"));
+            session.setRecipients(new LinkedHashMap<>());
+            if (session.getCreatorId() != null) {
+                session.getRecipients().put(session.getCreatorId(), user(session.getCreatorId(),
+                        rs.getString("CreatorName"), rs.getString("CreatorPersonalEmail"), rs.getString("CreatorNITKEmail")));
+            }
+            sessions.put(sessionId, session);
+        }
+        
+        // LEFT JOIN: a session nobody registered for comes back as a single row without a UserID
+        String username = rs.getString("UserID");
+        if (username != null && !username.isEmpty()) {
+            session.getRecipients().putIfAbsent(username,
+                    user(username, rs.getString("Name"), rs.getString("PersonalEmail"), rs.getString("NITKEmail")));
+        }
+    }
+    
+    private static UserDto user(String username, String name, String personalEmail, String nitkEmail) {
+        return UserDto.builder()
+                .username(username)
+                .name(name != null ? name : username)
+                .personalEmail(personalEmail)
+                .nitkEmail(nitkEmail)
+                .build();
+    }
+    
+    /**
+     * Tags are stored as a comma separated (or JSON array) string
+     */
+    private static List<String> parseTags(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(tags.replaceAll("[\\[\\]\"]", "").split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,290 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Session ownership across replicas through partition leases in the service database (pure JDBC, MySQL)
+ * 
+ * Sessions hash into a fixed number of partitions, each a row in reminder_partition_lease with
+ * an owner and an expiry. Every heartbeat an instance records itself as live, renews the leases
+ * it holds, gives back any above its fair share of partitions among live instances and takes
+ * expired ones up to that share. A new instance therefore picks up partitions as the others
+ * release them, and a dead one's partitions move once their leases run out.
+ * 
+ * A partition only changes hands after its lease has expired in the database, and the holder
+ * stops working on it fence-margin seconds earlier by its own monotonic clock, so two instances
+ * never claim reminders for the same session at once. Lease expiry is judged by the database
+ * clock alone, so clock skew between replicas does not matter.
+ * 
+ * A new owner only knows what the old one sent through the shared jdbc ledger, so cluster mode
+ * refuses to start without it; a local store or none would resend everything still in its window.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.cluster.enabled", havingValue = "true")
+public class JdbcSessionOwnership implements SessionOwnership, MeterBinder {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${reminder.cluster.instance-id:}")
+    private String configuredInstanceId;
+    
+    // Must be the same on every instance; checked against the lease table at start-up
+    @Value("${reminder.cluster.partitions:64}")
+    private int partitions;
+    
+    @Value("${reminder.cluster.lease-seconds:30}")
+    private int leaseSeconds;
+    
+    // Must exceed the SMTP send timeout, so a send started just before the fence ends before the lease does
+    @Value("${reminder.cluster.fence-margin-seconds:10}")
+    private int fenceMarginSeconds;
+    
+    @Value("${reminder.ledger.enabled:false}")
+    private boolean ledgerEnabled;
+    
+    @Value("${reminder.ledger.store:jdbc}")
+    private String ledgerStore;
+    
+    private String instanceId;
+    
+    // Replaced wholesale on each heartbeat; readers never see a partially updated set
+    private volatile BitSet owned = new BitSet();
+    private volatile long ownedUntilNanos;
+    private volatile int liveInstances;
+    private volatile int targetPartitions;
+    
+    // Set once the instance has left; a late heartbeat must not rejoin
+    private volatile boolean left;
+    
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder heartbeatErrors = new LongAdder();
+    
+    @PostConstruct
+    void start() {
+        requireSharedLedger(ledgerEnabled, ledgerStore);
+        instanceId = configuredInstanceId.isBlank() ? defaultInstanceId() : configuredInstanceId;
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS reminder_partition_lease (
+                    partition_id INT NOT NULL PRIMARY KEY,
+                    owner VARCHAR(128) NULL,
+                    expires_at DATETIME(3) NOT NULL,
+                    INDEX idx_reminder_partition_owner (owner)
+                )""");
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS reminder_cluster_member (
+                    instance_id VARCHAR(128) NOT NULL PRIMARY KEY,
+                    heartbeat_at DATETIME(3) NOT NULL
+                )""");
+        
+        List<Object[]> rows = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            rows.add(new Object[] {partition});
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO reminder_partition_lease (partition_id, owner, expires_at) "
+                + "VALUES (?, NULL, '1970-01-02 00:00:00')", rows);
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reminder_partition_lease", Integer.class);
+        if (existing == null || existing != partitions) {
+            throw new IllegalStateException("reminder_partition_lease has " + existing
+                    + " partitions but reminder.cluster.partitions is " + partitions);
+        }
+        
+        log.info("Cluster mode: instance {} sharing {} session partitions", instanceId, partitions);
+        heartbeat();
+    }
+    
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "reminder";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+    
+    /**
+     * Fail start-up unless sent reminders are recorded where every instance can see them
+     */
+    static void requireSharedLedger(boolean ledgerEnabled, String ledgerStore) {
+        if (!ledgerEnabled || !"jdbc".equals(ledgerStore)) {
+            throw new IllegalStateException("reminder.cluster.enabled=true needs reminder.ledger.enabled=true and "
+                    + "reminder.ledger.store=jdbc, so a partition's new owner can see what the old one already sent");
+        }
+    }
+    
+    /**
+     * Partition a session belongs to; String.hashCode is specified, so every instance agrees
+     */
+    static int partitionOf(String sessionId, int partitions) {
+        int hash = sessionId.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), partitions);
+    }
+    
+    /**
+     * Fair share for the instance at the given position among the live instances, sorted by id
+     */
+    static int fairShare(int partitions, int instances, int position) {
+        return partitions / instances + (position < partitions % instances ? 1 : 0);
+    }
+    
+    @Override
+    public boolean owns(String sessionId) {
+        return System.nanoTime() - ownedUntilNanos < 0 && owned.get(partitionOf(sessionId, partitions));
+    }
+    
+    /**
+     * Record this instance as live, renew held leases and move towards the fair share
+     * On a database error nothing is extended, so held partitions lapse at the fence
+     */
+    @Scheduled(fixedDelayString = "${reminder.cluster.heartbeat-interval:10000}",
+            initialDelayString = "${reminder.cluster.heartbeat-interval:10000}")
+    public synchronized void heartbeat() {
+        if (left) {
+            return;
+        }
+        try {
+            rebalance();
+        } catch (DataAccessException e) {
+            heartbeatErrors.increment();
+            log.error("Cluster heartbeat failed for instance {}; {} partitions lapse unless renewed in time",
+                    instanceId, owned.cardinality(), e);
+        }
+    }
+    
+    private void rebalance() {
+        long renewStartNanos = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO reminder_cluster_member (instance_id, heartbeat_at) VALUES (?, NOW(3)) "
+                + "ON DUPLICATE KEY UPDATE heartbeat_at = NOW(3)", instanceId);
+        jdbcTemplate.update("UPDATE reminder_partition_lease SET expires_at = TIMESTAMPADD(SECOND, ?, NOW(3)) "
+                + "WHERE owner = ? AND expires_at > NOW(3)", leaseSeconds, instanceId);
+        
+        List<String> live = jdbcTemplate.queryForList("SELECT instance_id FROM reminder_cluster_member "
+                + "WHERE heartbeat_at > TIMESTAMPADD(SECOND, ?, NOW(3)) ORDER BY instance_id", String.class, -leaseSeconds);
+        int position = Math.max(0, live.indexOf(instanceId));
+        int target = fairShare(partitions, Math.max(1, live.size()), position);
+        
+        BitSet held = new BitSet(partitions);
+        jdbcTemplate.queryForList("SELECT partition_id FROM reminder_partition_lease WHERE owner = ? AND expires_at > NOW(3)",
+                Integer.class, instanceId).forEach(held::set);
+        
+        // Over the share (an instance joined): stop working the extras now, the lease lets them go at expiry
+        for (int partition = held.length() - 1; partition >= 0 && held.cardinality() > target;
+             partition = held.previousSetBit(partition - 1)) {
+            jdbcTemplate.update("UPDATE reminder_partition_lease SET owner = NULL WHERE partition_id = ? AND owner = ?",
+                    partition, instanceId);
+            held.clear(partition);
+            released.increment();
+        }
+        
+        // Under the share (start-up, or an instance died): take expired partitions, starting at our own offset
+        if (held.cardinality() < target) {
+            List<Integer> free = jdbcTemplate.queryForList(
+                    "SELECT partition_id FROM reminder_partition_lease WHERE expires_at < NOW(3) ORDER BY partition_id", Integer.class);
+            int offset = free.isEmpty() ? 0 : Math.floorMod(instanceId.hashCode(), free.size());
+            for (int i = 0; i < free.size() && held.cardinality() < target; i++) {
+                int partition = free.get((offset + i) % free.size());
+                int updated = jdbcTemplate.update("UPDATE reminder_partition_lease SET owner = ?, "
+                        + "expires_at = TIMESTAMPADD(SECOND, ?, NOW(3)) WHERE partition_id = ? AND expires_at < NOW(3)",
+                        instanceId, leaseSeconds, partition);
+                if (updated == 1) {
+                    held.set(partition);
+                    acquired.increment();
+                }
+            }
+        }
+        
+        jdbcTemplate.update("DELETE FROM reminder_cluster_member WHERE heartbeat_at < TIMESTAMPADD(SECOND, ?, NOW(3))",
+                -10L * leaseSeconds);
+        
+        // Every lease held now was renewed or taken after renewStartNanos
+        owned = held;
+        ownedUntilNanos = renewStartNanos + TimeUnit.SECONDS.toNanos(leaseSeconds - fenceMarginSeconds);
+        liveInstances = live.size();
+        targetPartitions = target;
+        log.debug("Cluster heartbeat: {} live instances, holding {} of {} partitions (share {})",
+                live.size(), held.cardinality(), partitions, target);
+    }
+    
+    /**
+     * Give up every partition on shutdown; the others take them once the leases expire
+     * The shutdown coordinator calls this before draining, so the destroy callback is then a no-op
+     */
+    @Override
+    @PreDestroy
+    public synchronized void leave() {
+        if (left) {
+            return;
+        }
+        left = true;
+        ownedUntilNanos = System.nanoTime();
+        owned = new BitSet();
+        try {
+            jdbcTemplate.update("UPDATE reminder_partition_lease SET owner = NULL WHERE owner = ?", instanceId);
+            jdbcTemplate.update("DELETE FROM reminder_cluster_member WHERE instance_id = ?", instanceId);
+            log.info("Instance {} left the cluster", instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Could not release partitions of instance {} on shutdown: {}", instanceId, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("reminder.cluster.partitions.owned", this, ownership -> ownership.owned.cardinality())
+                .description("Session partitions this instance currently holds")
+                .register(registry);
+        Gauge.builder("reminder.cluster.instances", this, ownership -> ownership.liveInstances)
+                .description("Live instances seen at the last heartbeat")
+                .register(registry);
+        FunctionCounter.builder("reminder.cluster.partition.moves", acquired, LongAdder::sum)
+                .description("Partition leases taken or given up by this instance")
+                .tag("direction", "acquired")
+                .register(registry);
+        FunctionCounter.builder("reminder.cluster.partition.moves", released, LongAdder::sum)
+                .description("Partition leases taken or given up by this instance")
+                .tag("direction", "released")
+                .register(registry);
+    }
+    
+    @Override
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", "partition-lease");
+        stats.put("instanceId", instanceId);
+        stats.put("liveInstances", liveInstances);
+        stats.put("partitions", partitions);
+        stats.put("ownedPartitions", owned.cardinality());
+        stats.put("targetPartitions", targetPartitions);
+        stats.put("ownershipValidForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(ownedUntilNanos - System.nanoTime())));
+        stats.put("acquired", acquired.sum());
+        stats.put("released", released.sum());
+        stats.put("heartbeatErrors", heartbeatErrors.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,335 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sender workers that drain the reminder outbox
+ * 
+ * Each worker claims a batch, renders and sends its reminders, and settles them every
+ * settle-every sends with one update for the sent rows and one batched update for the failures.
+ * Once half the claim timeout has passed, the claim on the rows still unsent is renewed in one
+ * update; rows already reaped by then are skipped. The batch size is capped so a whole batch
+ * fits in one claim at max-send-seconds per reminder, even if no renewal gets through. A
+ * renewal or settlement that finds a claim gone is counted as a lost claim. A full batch is
+ * followed straight away by the next claim; an empty or short one waits for the poll interval.
+ * Workers on every replica with the outbox enabled share the table, so delivery scales with
+ * the number of senders rather than with the instance that discovered the reminders.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.outbox.enabled", havingValue = "true")
+public class OutboxSender implements MeterBinder {
+    
+    private final ReminderOutbox outbox;
+    private final EmailService emailService;
+    private final ReminderLedgerFront reminderLedgerFront;
+    private final ReminderMetrics reminderMetrics;
+    private final ReminderLateness reminderLateness;
+    private final Clock clock;
+    
+    // 0 makes this instance enqueue only, leaving delivery to other replicas
+    @Value("${reminder.outbox.workers:2}")
+    private int workers;
+    
+    @Value("${reminder.outbox.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${reminder.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+    
+    @Value("${reminder.outbox.settle-every:10}")
+    private int settleEvery;
+    
+    @Value("${reminder.outbox.claim-timeout-seconds:300}")
+    private int claimTimeoutSeconds;
+    
+    // Worst case to render and hand one reminder to SMTP, for sizing batches against the claim timeout
+    @Value("${reminder.outbox.max-send-seconds:5}")
+    private int maxSendSeconds;
+    
+    @Value("${reminder.store.retention-days:7}")
+    private long retentionDays;
+    
+    private final String senderPrefix = senderPrefix();
+    private ExecutorService executor;
+    private volatile boolean running;
+    
+    private final LongAdder claimedBatches = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder reaped = new LongAdder();
+    private final LongAdder lostClaims = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    
+    private static String senderPrefix() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "reminder";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (workers <= 0) {
+            log.info("Reminder outbox enabled without sender workers; delivery is left to other instances");
+            return;
+        }
+        int bounded = boundedBatchSize(batchSize, claimTimeoutSeconds, maxSendSeconds);
+        if (bounded < batchSize) {
+            log.warn("Outbox batch size {} cannot be sent within the {} s claim timeout at {} s per reminder; using {}",
+                    batchSize, claimTimeoutSeconds, maxSendSeconds, bounded);
+            batchSize = bounded;
+        }
+        running = true;
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "outbox-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int worker = 1; worker <= workers; worker++) {
+            String senderId = senderPrefix + "-" + worker;
+            executor.execute(() -> runWorker(senderId));
+        }
+        log.info("Started {} reminder outbox senders, batches of {}", workers, batchSize);
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            // Unsettled claims of a worker cut short are reaped once their claim expires
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+    
+    private void runWorker(String senderId) {
+        while (running) {
+            try {
+                int claimed = drainBatch(senderId);
+                if (claimed < batchSize) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException e) {
+                errors.increment();
+                log.error("Outbox sender {} could not reach the outbox", senderId, e);
+                sleepQuietly();
+            }
+        }
+    }
+    
+    /**
+     * Largest batch whose sends all fit inside one claim
+     */
+    static int boundedBatchSize(int batchSize, int claimTimeoutSeconds, int maxSendSeconds) {
+        return Math.max(1, Math.min(batchSize, claimTimeoutSeconds / Math.max(1, maxSendSeconds)));
+    }
+    
+    /**
+     * Claim, send and settle one batch; returns the number of rows claimed
+     */
+    int drainBatch(String senderId) {
+        List<ReminderOutbox.Entry> entries = outbox.claim(senderId, batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        claimedBatches.increment();
+        
+        long renewIntervalMs = claimTimeoutSeconds * 1000L / 2;
+        long renewAt = clock.millis() + renewIntervalMs;
+        Set<Long> lost = new HashSet<>();
+        List<ReminderOutbox.Entry> sentEntries = new ArrayList<>();
+        Map<Long, String> failures = new LinkedHashMap<>();
+        Map<Long, ReminderTask> failedTasks = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (clock.millis() >= renewAt) {
+                settle(senderId, sentEntries, failures, failedTasks);
+                renewRemaining(senderId, entries.subList(i, entries.size()), lost);
+                renewAt = clock.millis() + renewIntervalMs;
+            }
+            ReminderOutbox.Entry entry = entries.get(i);
+            if (lost.contains(entry.id())) {
+                continue;
+            }
+            ReminderTask task = entry.task();
+            reminderMetrics.recordClaimed(task.getReminderType(), task.isConductor(), false);
+            String error = deliver(task);
+            if (error == null) {
+                sentEntries.add(entry);
+            } else {
+                failures.put(entry.id(), error);
+                failedTasks.put(entry.id(), task);
+            }
+            if (sentEntries.size() + failures.size() >= settleEvery) {
+                settle(senderId, sentEntries, failures, failedTasks);
+            }
+        }
+        settle(senderId, sentEntries, failures, failedTasks);
+        return entries.size();
+    }
+    
+    /**
+     * Renew the claim on the rows not sent yet; those already reaped are added to lost and skipped
+     */
+    private void renewRemaining(String senderId, List<ReminderOutbox.Entry> remaining, Set<Long> lost) {
+        List<Long> ids = remaining.stream().map(ReminderOutbox.Entry::id).filter(id -> !lost.contains(id)).toList();
+        Set<Long> held = outbox.renewClaims(senderId, ids);
+        int lostNow = 0;
+        for (Long id : ids) {
+            if (!held.contains(id)) {
+                lost.add(id);
+                lostNow++;
+            }
+        }
+        if (lostNow > 0) {
+            lostClaims.add(lostNow);
+            log.warn("Outbox sender {} lost its claim on {} unsent rows before renewing it; skipping them", senderId, lostNow);
+        }
+    }
+    
+    /**
+     * Settle the reminders sent and failed since the last settlement, one statement each
+     */
+    private void settle(String senderId, List<ReminderOutbox.Entry> sentEntries, Map<Long, String> failures,
+                        Map<Long, ReminderTask> failedTasks) {
+        if (sentEntries.isEmpty() && failures.isEmpty()) {
+            return;
+        }
+        int settled = outbox.markSent(senderId, sentEntries.stream().map(ReminderOutbox.Entry::id).toList())
+                + outbox.markFailed(senderId, failures);
+        int lostNow = sentEntries.size() + failures.size() - settled;
+        if (lostNow > 0) {
+            lostClaims.add(lostNow);
+            log.warn("Outbox sender {} settled {} rows after their claim expired; sent ones may be sent again", senderId, lostNow);
+        }
+        sent.add(sentEntries.size());
+        failed.add(failures.size());
+        
+        for (ReminderOutbox.Entry entry : sentEntries) {
+            ReminderTask task = entry.task();
+            reminderMetrics.recordOutcome(task.getReminderType(), task.isConductor(), true);
+            task.getStatus().markAsSent(LocalDateTime.now(clock));
+            reminderLedgerFront.recordSent(task.getReminderKey(), task.getStatus(), task.getSession().getStartDateTime());
+            reminderLateness.record(task);
+        }
+        failedTasks.values().forEach(task -> reminderMetrics.recordOutcome(task.getReminderType(), task.isConductor(), false));
+        sentEntries.clear();
+        failures.clear();
+        failedTasks.clear();
+    }
+    
+    /**
+     * Render and send one reminder; returns null on success or the failure reason
+     */
+    private String deliver(ReminderTask task) {
+        try {
+            task.setMessage(emailService.createReminderMessage(task));
+        } catch (Exception e) {
+            log.error("Error rendering outbox reminder for user {} for session {}",
+                    task.getUser().getUsername(), task.getSession().getSessionID(), e);
+            return "Email rendering failed: " + e.getMessage();
+        }
+        return emailService.sendReminderMessage(task) ? null : "Email sending failed";
+    }
+    
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Put back rows whose sender died mid-batch, and drop settled rows past the store retention
+     */
+    @Scheduled(fixedDelayString = "${reminder.outbox.reap-interval:60000}")
+    public void reapAndPurge() {
+        try {
+            int reclaimed = outbox.reapExpiredClaims();
+            reaped.add(reclaimed);
+            if (reclaimed > 0) {
+                log.warn("Reaped {} outbox reminders with expired claims (back to pending, or failed once out of attempts)", reclaimed);
+            }
+            int purged = outbox.purgeSettled(LocalDateTime.now(clock).minusDays(retentionDays));
+            if (purged > 0) {
+                log.info("Purged {} settled outbox rows older than {} days", purged, retentionDays);
+            }
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.error("Outbox reap/purge failed", e);
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("reminder.outbox.rows", sent, LongAdder::sum)
+                .description("Outbox rows settled by this instance's senders")
+                .tag("outcome", "sent")
+                .register(registry);
+        FunctionCounter.builder("reminder.outbox.rows", failed, LongAdder::sum)
+                .description("Outbox rows settled by this instance's senders")
+                .tag("outcome", "failed")
+                .register(registry);
+        FunctionCounter.builder("reminder.outbox.rows", reaped, LongAdder::sum)
+                .description("Outbox rows settled by this instance's senders")
+                .tag("outcome", "reaped")
+                .register(registry);
+        FunctionCounter.builder("reminder.outbox.lost.claims", lostClaims, LongAdder::sum)
+                .description("Outbox rows whose claim expired before this instance's sender settled them")
+                .register(registry);
+        FunctionCounter.builder("reminder.outbox.batches", claimedBatches, LongAdder::sum)
+                .description("Outbox batches claimed by this instance's senders")
+                .register(registry);
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("batchSize", batchSize);
+        stats.put("claimedBatches", claimedBatches.sum());
+        stats.put("sent", sent.sum());
+        stats.put("failed", failed.sum());
+        stats.put("reaped", reaped.sum());
+        stats.put("lostClaims", lostClaims.sum());
+        stats.put("errors", errors.sum());
+        return stats;
+    }
+}
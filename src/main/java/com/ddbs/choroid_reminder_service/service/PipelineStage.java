@@ -0,0 +1,186 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * One stage of the reminder pipeline: a fixed pool of workers fed by a bounded hand-off queue
+ * 
+ * When the queue is full, submit() blocks the producing stage instead of dropping work,
+ * so a slow downstream stage applies back-pressure all the way up to session discovery.
+ * A stage built with a comparator hands queued items to workers in priority order instead of FIFO.
+ */
+@Slf4j
+public class PipelineStage<T> {
+    
+    private final String name;
+    private final int workers;
+    private final int queueCapacity;
+    private final Consumer<T> handler;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore queueSlots;
+    
+    private final AtomicLong inFlight = new AtomicLong();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    
+    public PipelineStage(String name, int workers, int queueCapacity, Consumer<T> handler) {
+        this(name, workers, queueCapacity, handler, null);
+    }
+    
+    public PipelineStage(String name, int workers, int queueCapacity, Consumer<T> handler, Comparator<? super T> priority) {
+        this.name = name;
+        this.workers = Math.max(1, workers);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.handler = handler;
+        this.queueSlots = new Semaphore(this.queueCapacity);
+        
+        // Capacity is enforced by queueSlots, so the executor queue itself can be unbounded
+        BlockingQueue<Runnable> queue = priority != null
+                ? new PriorityBlockingQueue<>(this.queueCapacity, priorityOrder(priority))
+                : new LinkedBlockingQueue<>();
+        this.executor = new ThreadPoolExecutor(
+                this.workers, this.workers, 0L, TimeUnit.MILLISECONDS,
+                queue, namedThreadFactory(name));
+    }
+    
+    /**
+     * Queued work item; carries the payload so the priority queue can order by it
+     */
+    private final class StageItem implements Runnable {
+        
+        private final T item;
+        
+        private StageItem(T item) {
+            this.item = item;
+        }
+        
+        @Override
+        public void run() {
+            queueSlots.release();
+            process(item);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Comparator<Runnable> priorityOrder(Comparator<? super T> priority) {
+        return (a, b) -> priority.compare(((StageItem) a).item, ((StageItem) b).item);
+    }
+    
+    /**
+     * Hand an item to this stage, blocking while the queue is full
+     */
+    public void submit(T item) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Pipeline stage '" + name + "' is shut down");
+        }
+        try {
+            queueSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for pipeline queue space", e);
+        }
+        
+        inFlight.incrementAndGet();
+        submitted.increment();
+        try {
+            executor.execute(new StageItem(item));
+        } catch (RejectedExecutionException e) {
+            queueSlots.release();
+            inFlight.decrementAndGet();
+            throw e;
+        }
+        peakQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+    }
+    
+    private void process(T item) {
+        long startNanos = System.nanoTime();
+        try {
+            handler.accept(item);
+            completed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.error("Pipeline stage '{}' failed to process item", name, e);
+        } finally {
+            busyNanos.add(System.nanoTime() - startNanos);
+            inFlight.decrementAndGet();
+        }
+    }
+    
+    private static ThreadFactory namedThreadFactory(String stageName) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "reminder-" + stageName + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * True when nothing is queued or being processed in this stage
+     */
+    public boolean isIdle() {
+        return inFlight.get() == 0;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    /**
+     * Items queued or being processed in this stage
+     */
+    public long getBacklog() {
+        return inFlight.get();
+    }
+    
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Per-stage throughput and queue-depth metrics
+     */
+    public Map<String, Object> toStats() {
+        long completedCount = completed.sum();
+        long failedCount = failed.sum();
+        long processed = completedCount + failedCount;
+        double avgServiceMs = processed > 0 ? busyNanos.sum() / 1_000_000.0 / processed : 0.0;
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("peakQueueDepth", peakQueueDepth.get());
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("submitted", submitted.sum());
+        stats.put("completed", completedCount);
+        stats.put("failed", failedCount);
+        stats.put("avgServiceTimeMs", Math.round(avgServiceMs * 100) / 100.0);
+        // Upper bound on sustainable items/sec for this stage; the lowest value marks the bottleneck
+        stats.put("maxThroughputPerSecond", avgServiceMs > 0 ? Math.round(workers * 1000.0 / avgServiceMs) : 0);
+        return stats;
+    }
+}
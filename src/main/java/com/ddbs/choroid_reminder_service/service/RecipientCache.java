@@ -0,0 +1,149 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived per-session cache of pre-resolved recipient emails
+ * 
+ * Filled by the warm-up ahead of the reminder window so that at send time only the RARF list
+ * has to be re-read; emails are looked up live only for registrants added since the warm-up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecipientCache implements MeterBinder {
+    
+    private final UserApiService userApiService;
+    private final Clock clock;
+    
+    @Value("${reminder.warmup.cache-ttl-minutes:120}")
+    private long cacheTtlMinutes;
+    
+    private final Map<String, CachedRecipients> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder warmedSessions = new LongAdder();
+    
+    private record CachedRecipients(Map<String, String> emailsByUsername, long expiresAtMillis) {
+        
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+    
+    /**
+     * Store the resolved username -> email mapping for a session
+     */
+    public void put(String sessionId, Map<String, String> emailsByUsername) {
+        long expiresAt = clock.millis() + Duration.ofMinutes(cacheTtlMinutes).toMillis();
+        cache.put(sessionId, new CachedRecipients(Map.copyOf(emailsByUsername), expiresAt));
+        warmedSessions.increment();
+    }
+    
+    /**
+     * Check whether a session has a live (non-expired) warm entry
+     */
+    public boolean contains(String sessionId) {
+        return lookup(sessionId) != null;
+    }
+    
+    /**
+     * Resolve usernames to users, using the warmed emails where available
+     * Only the RARF delta (usernames not seen at warm-up) goes to the user API
+     */
+    public List<UserDto> resolveUsers(String sessionId, List<String> usernames) {
+        CachedRecipients cached = lookup(sessionId);
+        if (cached == null) {
+            misses.add(usernames.size());
+            return userApiService.getUsersByUsernames(usernames);
+        }
+        
+        List<UserDto> users = new ArrayList<>(usernames.size());
+        List<String> missing = new ArrayList<>();
+        for (String username : usernames) {
+            String email = cached.emailsByUsername().get(username);
+            if (email != null) {
+                users.add(UserApiService.buildUser(username, email));
+            } else {
+                missing.add(username);
+            }
+        }
+        
+        hits.add(users.size());
+        misses.add(missing.size());
+        if (!missing.isEmpty()) {
+            log.debug("Session {} has {} recipients not covered by warm-up, resolving live", sessionId, missing.size());
+            users.addAll(userApiService.getUsersByUsernames(missing));
+        }
+        return users;
+    }
+    
+    private CachedRecipients lookup(String sessionId) {
+        CachedRecipients cached = cache.get(sessionId);
+        if (cached != null && cached.isExpired(clock.millis())) {
+            cache.remove(sessionId, cached);
+            return null;
+        }
+        return cached;
+    }
+    
+    /**
+     * Drop expired session entries
+     */
+    public void evictExpired() {
+        long now = clock.millis();
+        cache.values().removeIf(cached -> cached.isExpired(now));
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("reminder.recipient.cache.requests", hits, LongAdder::sum)
+                .description("Recipient email lookups served from the warm cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("reminder.recipient.cache.requests", misses, LongAdder::sum)
+                .description("Recipient email lookups that went to the user API")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("reminder.recipient.cache.hit.ratio", this, cache -> {
+                    long hitCount = cache.hits.sum();
+                    long lookups = hitCount + cache.misses.sum();
+                    return lookups > 0 ? (double) hitCount / lookups : 0.0;
+                })
+                .description("Share of recipient lookups served from the warm cache")
+                .register(registry);
+        Gauge.builder("reminder.recipient.cache.sessions", cache, Map::size)
+                .description("Sessions with warmed recipients")
+                .register(registry);
+    }
+    
+    public Map<String, Object> toStats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedSessions", cache.size());
+        stats.put("warmedSessions", warmedSessions.sum());
+        stats.put("recipientHits", hitCount);
+        stats.put("recipientMisses", misses.sum());
+        stats.put("hitRatio", lookups > 0 ? Math.round(hitCount * 1000.0 / lookups) / 1000.0 : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-resolves attendee lists and recipient emails for sessions before their reminder window opens
+ * 
+ * Looks ahead from T-{reminderMinutes} to T-{leadMinutes} (e.g. T-30 to T-60) so that when a
+ * reminder becomes due the scheduler only has to re-check RARF for late registrations.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class RecipientWarmupService {
+    
+    private final SessionApiService sessionApiService;
+    private final UserApiService userApiService;
+    private final RecipientCache recipientCache;
+    private final Clock clock;
+    private final ObjectProvider<SessionOwnership> sessionOwnership;
+    
+    @Value("${reminder.before-session.first:30}")
+    private int reminderMinutes;
+    
+    @Value("${reminder.warmup.lead-minutes:60}")
+    private int leadMinutes;
+    
+    /**
+     * Warm the recipient cache for sessions entering the lead window
+     */
+    @Scheduled(fixedDelayString = "${reminder.warmup.interval:300000}")
+    public void warmUpUpcomingRecipients() {
+        recipientCache.evictExpired();
+        
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<SessionDto> sessions = sessionApiService.getSessionsStartingBetween(
+                now.plusMinutes(reminderMinutes), now.plusMinutes(leadMinutes));
+        
+        SessionOwnership ownership = sessionOwnership.getIfAvailable(() -> SessionOwnership.SINGLE_NODE);
+        int warmed = 0;
+        for (SessionDto session : sessions) {
+            // Sessions read from the database already carry their recipients
+            if (session.getSessionID() == null || session.getRecipients() != null
+                    || !ownership.owns(session.getSessionID()) || recipientCache.contains(session.getSessionID())) {
+                continue;
+            }
+            try {
+                warmUp(session);
+                warmed++;
+            } catch (Exception e) {
+                log.error("Error warming recipients for session {}", session.getSessionID(), e);
+            }
+        }
+        
+        log.info("Recipient warm-up completed: {} new of {} sessions starting in {}-{} minutes",
+                warmed, sessions.size(), reminderMinutes, leadMinutes);
+    }
+    
+    private void warmUp(SessionDto session) {
+        List<String> usernames = new ArrayList<>(sessionApiService.getRegisteredUsernamesBySession(session.getSessionID()));
+        if (session.getCreatorUsername() != null && !usernames.contains(session.getCreatorUsername())) {
+            usernames.add(session.getCreatorUsername());
+        }
+        
+        Map<String, String> emailsByUsername = new HashMap<>();
+        for (UserDto user : userApiService.getUsersByUsernames(usernames)) {
+            emailsByUsername.put(user.getUsername(), user.getPrimaryEmail());
+        }
+        
+        recipientCache.put(session.getSessionID(), emailsByUsername);
+        log.debug("Warmed {} of {} recipients for session {}", emailsByUsername.size(), usernames.size(), session.getSessionID());
+    }
+}
@@ -0,0 +1,113 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+
+/**
+ * JDK Flight Recorder events for the reminder hot paths
+ * 
+ * Each event is a duration event (begin/commit), so in a recording it lines up against GC
+ * pauses, safepoints and thread activity of the same interval. Events cost almost nothing
+ * unless a recording has them enabled; fields are only filled in when shouldCommit() says so.
+ */
+public final class ReminderEvents {
+    
+    private static final String CATEGORY = "Choroid Reminder";
+    
+    public static final List<Class<? extends Event>> ALL = List.of(
+            CycleEvent.class, SessionProcessedEvent.class, GatewayRequestEvent.class, RenderEvent.class, SmtpSendEvent.class);
+    
+    private ReminderEvents() {
+    }
+    
+    @Name("com.ddbs.reminder.Cycle")
+    @Label("Reminder Cycle")
+    @Description("One scheduled reminder check, from fetch until the pipeline drained")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class CycleEvent extends Event {
+        
+        @Label("Outcome")
+        public String outcome;
+        
+        @Label("Sessions")
+        public long sessions;
+        
+        @Label("Recipients")
+        public long recipients;
+    }
+    
+    @Name("com.ddbs.reminder.SessionProcessed")
+    @Label("Session Processed")
+    @Description("Recipients of one session resolved and claimed for a reminder type")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class SessionProcessedEvent extends Event {
+        
+        @Label("Session ID")
+        public String sessionId;
+        
+        @Label("Reminder Type")
+        public String reminderType;
+        
+        @Label("Recipients Claimed")
+        public int recipients;
+    }
+    
+    @Name("com.ddbs.reminder.GatewayRequest")
+    @Label("Gateway Request")
+    @Description("A call to the API gateway, including hedging and circuit breaker outcome")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class GatewayRequestEvent extends Event {
+        
+        @Label("Endpoint")
+        public String endpoint;
+        
+        @Label("URI")
+        public String uri;
+        
+        @Label("Outcome")
+        public String outcome;
+    }
+    
+    @Name("com.ddbs.reminder.Render")
+    @Label("Reminder Render")
+    @Description("Rendering one reminder email")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class RenderEvent extends Event {
+        
+        @Label("Session ID")
+        public String sessionId;
+        
+        @Label("Reminder Type")
+        public String reminderType;
+        
+        @Label("Conductor")
+        public boolean conductor;
+    }
+    
+    @Name("com.ddbs.reminder.SmtpSend")
+    @Label("SMTP Send")
+    @Description("Handing one reminder email to the SMTP server")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class SmtpSendEvent extends Event {
+        
+        @Label("Session ID")
+        public String sessionId;
+        
+        @Label("Reminder Type")
+        public String reminderType;
+        
+        @Label("Sent")
+        public boolean sent;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+
+/**
+ * Open-addressing hash set of 128-bit reminder keys stored in two primitive long arrays
+ * 
+ * Holds only the keys of reminders that were sent successfully, at 16 bytes per slot with no
+ * per-entry objects. Entries are never removed individually: the owning store drops whole
+ * sets when their time bucket expires. Not thread-safe; callers synchronise externally.
+ */
+public class ReminderKeySet {
+    
+    private static final float MAX_LOAD = 0.6f;
+    
+    private long[] his;
+    private long[] los;
+    private int size;
+    private boolean containsZero;
+    
+    public ReminderKeySet() {
+        this(16);
+    }
+    
+    public ReminderKeySet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        his = new long[capacity];
+        los = new long[capacity];
+    }
+    
+    public boolean add(long hi, long lo) {
+        if (hi == 0 && lo == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+        
+        int mask = his.length - 1;
+        int slot = slot(hi, lo, mask);
+        while (his[slot] != 0 || los[slot] != 0) {
+            if (his[slot] == hi && los[slot] == lo) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        his[slot] = hi;
+        los[slot] = lo;
+        if (++size > his.length * MAX_LOAD) {
+            resize();
+        }
+        return true;
+    }
+    
+    public boolean contains(long hi, long lo) {
+        if (hi == 0 && lo == 0) {
+            return containsZero;
+        }
+        
+        int mask = his.length - 1;
+        int slot = slot(hi, lo, mask);
+        while (his[slot] != 0 || los[slot] != 0) {
+            if (his[slot] == hi && los[slot] == lo) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    public boolean add(ReminderKey key) {
+        return add(key.hi(), key.lo());
+    }
+    
+    public boolean contains(ReminderKey key) {
+        return contains(key.hi(), key.lo());
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Receives the two halves of each key, so iteration allocates nothing per key
+     */
+    @FunctionalInterface
+    public interface KeyVisitor {
+        void visit(long hi, long lo);
+    }
+    
+    public void forEach(KeyVisitor visitor) {
+        if (containsZero) {
+            visitor.visit(0, 0);
+        }
+        for (int i = 0; i < his.length; i++) {
+            if (his[i] != 0 || los[i] != 0) {
+                visitor.visit(his[i], los[i]);
+            }
+        }
+    }
+    
+    /**
+     * Independent copy, two array copies regardless of size
+     */
+    public ReminderKeySet copy() {
+        ReminderKeySet copy = new ReminderKeySet();
+        copy.his = his.clone();
+        copy.los = los.clone();
+        copy.size = size;
+        copy.containsZero = containsZero;
+        return copy;
+    }
+    
+    private static int slot(long hi, long lo, int mask) {
+        // Keys are already well-mixed hashes, so folding is enough
+        return (int) (hi ^ (hi >>> 32) ^ lo) & mask;
+    }
+    
+    private void resize() {
+        long[] oldHis = his;
+        long[] oldLos = los;
+        his = new long[oldHis.length << 1];
+        los = new long[oldLos.length << 1];
+        
+        int mask = his.length - 1;
+        for (int i = 0; i < oldHis.length; i++) {
+            if (oldHis[i] != 0 || oldLos[i] != 0) {
+                int slot = slot(oldHis[i], oldLos[i], mask);
+                while (his[slot] != 0 || los[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                his[slot] = oldHis[i];
+                los[slot] = oldLos[i];
+            }
+        }
+    }
+}
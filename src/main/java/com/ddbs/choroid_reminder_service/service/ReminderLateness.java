@@ -0,0 +1,188 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reminder lateness SLI: when the SMTP server accepted a reminder vs when it was ideally due
+ * 
+ * Lateness is signed (negative means sent early). Micrometer gets the late part as a timer per
+ * reminder type for Prometheus percentiles and SLO buckets; the stats endpoint gets percentiles
+ * over the most recent sends plus a breakdown by the hour of day the reminders were due.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReminderLateness {
+    
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    
+    @Value("${reminder.lateness.target-seconds:120}")
+    private long targetSeconds;
+    
+    @Value("${reminder.lateness.sample-size:2048}")
+    private int sampleSize;
+    
+    private final Map<ReminderStatus.ReminderType, TypeLateness> byType = new EnumMap<>(ReminderStatus.ReminderType.class);
+    
+    // Per hour of day the reminder was due
+    private final LongAdder[] hourCounts = new LongAdder[24];
+    private final LongAdder[] hourLatenessMillis = new LongAdder[24];
+    private final LongAdder[] hourBreaches = new LongAdder[24];
+    private final AtomicLongArray hourMaxMillis = new AtomicLongArray(24);
+    
+    private record TypeLateness(Timer lateness, Timer dispatchDelay, Counter early, LongAdder breaches, Reservoir recent) {
+    }
+    
+    @PostConstruct
+    void init() {
+        for (ReminderStatus.ReminderType type : ReminderStatus.ReminderType.values()) {
+            byType.put(type, new TypeLateness(
+                    Timer.builder("reminder.lateness")
+                            .description("How long after its ideal due time a reminder was accepted by SMTP")
+                            .tag("type", type.name())
+                            .register(meterRegistry),
+                    Timer.builder("reminder.dispatch.delay")
+                            .description("Time from enqueue to SMTP acceptance")
+                            .tag("type", type.name())
+                            .register(meterRegistry),
+                    Counter.builder("reminder.early")
+                            .description("Reminders accepted before their ideal due time")
+                            .tag("type", type.name())
+                            .register(meterRegistry),
+                    new LongAdder(),
+                    new Reservoir(sampleSize)));
+        }
+        for (int hour = 0; hour < 24; hour++) {
+            hourCounts[hour] = new LongAdder();
+            hourLatenessMillis[hour] = new LongAdder();
+            hourBreaches[hour] = new LongAdder();
+            hourMaxMillis.set(hour, Long.MIN_VALUE);
+        }
+    }
+    
+    /**
+     * Record a reminder the SMTP server accepted
+     */
+    public void record(ReminderTask task) {
+        Instant acceptedAt = task.getAcceptedAt();
+        if (acceptedAt == null || task.getBatch().getDueAt() == null) {
+            return;
+        }
+        
+        TypeLateness type = byType.get(task.getReminderType());
+        if (task.getEnqueuedAt() != null) {
+            type.dispatchDelay().record(Duration.between(task.getEnqueuedAt(), acceptedAt));
+        }
+        
+        Instant dueAt = task.getBatch().getDueAt().atZone(clock.getZone()).toInstant();
+        long latenessMillis = Duration.between(dueAt, acceptedAt).toMillis();
+        boolean breach = latenessMillis > targetSeconds * 1000;
+        if (latenessMillis >= 0) {
+            type.lateness().record(Duration.ofMillis(latenessMillis));
+        } else {
+            type.early().increment();
+        }
+        if (breach) {
+            type.breaches().increment();
+        }
+        type.recent().add(latenessMillis);
+        
+        int hour = task.getBatch().getDueAt().getHour();
+        hourCounts[hour].increment();
+        hourLatenessMillis[hour].add(latenessMillis);
+        hourMaxMillis.accumulateAndGet(hour, latenessMillis, Math::max);
+        if (breach) {
+            hourBreaches[hour].increment();
+        }
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("targetSeconds", targetSeconds);
+        
+        Map<String, Object> types = new LinkedHashMap<>();
+        byType.forEach((type, lateness) -> {
+            long[] recent = lateness.recent().snapshot();
+            Map<String, Object> typeStats = new LinkedHashMap<>();
+            typeStats.put("sent", lateness.lateness().count() + (long) lateness.early().count());
+            typeStats.put("early", (long) lateness.early().count());
+            typeStats.put("targetBreaches", lateness.breaches().sum());
+            typeStats.put("recentSamples", recent.length);
+            typeStats.put("p50Seconds", percentileSeconds(recent, 50));
+            typeStats.put("p90Seconds", percentileSeconds(recent, 90));
+            typeStats.put("p95Seconds", percentileSeconds(recent, 95));
+            typeStats.put("p99Seconds", percentileSeconds(recent, 99));
+            typeStats.put("maxSeconds", percentileSeconds(recent, 100));
+            types.put(type.name(), typeStats);
+        });
+        stats.put("byType", types);
+        
+        Map<String, Object> hours = new LinkedHashMap<>();
+        for (int hour = 0; hour < 24; hour++) {
+            long count = hourCounts[hour].sum();
+            if (count == 0) {
+                continue;
+            }
+            Map<String, Object> hourStats = new LinkedHashMap<>();
+            hourStats.put("sent", count);
+            hourStats.put("avgSeconds", hourLatenessMillis[hour].sum() / 1000.0 / count);
+            hourStats.put("maxSeconds", hourMaxMillis.get(hour) / 1000.0);
+            hourStats.put("breachRatio", (double) hourBreaches[hour].sum() / count);
+            hours.put(String.format("%02d", hour), hourStats);
+        }
+        stats.put("byHourOfDay", hours);
+        return stats;
+    }
+    
+    private static double percentileSeconds(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+    
+    /**
+     * Ring buffer of the most recent lateness samples
+     */
+    private static final class Reservoir {
+        
+        private final long[] samples;
+        private int next;
+        private int count;
+        
+        private Reservoir(int size) {
+            samples = new long[Math.max(1, size)];
+        }
+        
+        synchronized void add(long value) {
+            samples[next] = value;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+        
+        synchronized long[] snapshot() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Durable record of sent reminders, the authority for dedup across restarts
+ */
+public interface ReminderLedger {
+    
+    /**
+     * Record a successfully sent reminder; recording the same key twice is a no-op
+     */
+    void recordSent(ReminderKey key, ReminderStatus status, LocalDateTime sessionStart);
+    
+    /**
+     * Return the subset of the given keys of one session that were already sent
+     * The session start is the one recordSent was given, so a store kept by session time can look in one place
+     */
+    Set<ReminderKey> findSent(String sessionId, LocalDateTime sessionStart, Collection<ReminderKey> keys);
+    
+    /**
+     * Stream every key sent for sessions starting at or after the given time
+     */
+    void forEachSentKey(LocalDateTime sessionsStartingFrom, Consumer<ReminderKey> consumer);
+    
+    /**
+     * Implementation specific figures for the stats endpoint
+     */
+    default Map<String, Object> toStats() {
+        return Map.of();
+    }
+}
@@ -0,0 +1,226 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Bloom filter in front of the persistent reminder ledger
+ * 
+ * The filter holds every key sent within the store retention. It is rebuilt from the ledger
+ * at startup and updated on each successful send, so a definite miss skips the ledger
+ * entirely and only possible hits are checked against it, in one query per session batch.
+ * Without a configured ledger every lookup is a miss and nothing is recorded.
+ * 
+ * In cluster mode other instances write to the same ledger, so this instance's filter misses
+ * their sends; every lookup then goes to the ledger and the filter is left out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderLedgerFront implements MeterBinder {
+    
+    private final ObjectProvider<ReminderLedger> ledgerProvider;
+    private final Clock clock;
+    
+    @Value("${reminder.ledger.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+    
+    @Value("${reminder.ledger.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Value("${reminder.store.retention-days:7}")
+    private long retentionDays;
+    
+    @Value("${reminder.cluster.enabled:false}")
+    private boolean sharedLedger;
+    
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile long filterCapacity;
+    
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder possibleHits = new LongAdder();
+    private final LongAdder confirmedHits = new LongAdder();
+    private final LongAdder ledgerQueries = new LongAdder();
+    private final LongAdder ledgerErrors = new LongAdder();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(expectedInsertions);
+    }
+    
+    private void rebuild(long capacity) {
+        ReminderLedger ledger = ledgerProvider.getIfAvailable();
+        if (ledger == null) {
+            return;
+        }
+        
+        long startTime = System.currentTimeMillis();
+        BloomFilter fresh = new BloomFilter(capacity, falsePositiveRate);
+        rebuilding = fresh;
+        try {
+            ledger.forEachSentKey(LocalDateTime.now(clock).minusDays(retentionDays), fresh::put);
+            filter = fresh;
+            filterCapacity = capacity;
+            log.info("Rebuilt reminder ledger filter sized for {} keys with {} keys in {}ms (expected false-positive rate {})",
+                    capacity, fresh.getInsertions(), System.currentTimeMillis() - startTime,
+                    String.format("%.4f", fresh.expectedFalsePositiveRate()));
+        } catch (Exception e) {
+            ledgerErrors.increment();
+            log.error("Failed to rebuild reminder ledger filter; every lookup goes to the ledger until the next rebuild", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+    
+    /**
+     * Rebuild once the filter has filled past twice its configured false-positive rate
+     * The new filter is sized for twice the keys it held, so it does not saturate again straight away
+     */
+    public void rebuildIfSaturated() {
+        BloomFilter current = filter;
+        if (current != null && current.expectedFalsePositiveRate() > 2 * falsePositiveRate) {
+            long capacity = Math.max(expectedInsertions, 2 * current.getInsertions());
+            log.info("Reminder ledger filter saturated ({} keys), rebuilding sized for {}", current.getInsertions(), capacity);
+            rebuild(capacity);
+        }
+    }
+    
+    /**
+     * Return the keys of one session that the ledger says were already sent
+     * Keys the filter rules out never reach the ledger; the rest go in a single batched query.
+     */
+    public Set<ReminderKey> findSent(String sessionId, LocalDateTime sessionStart, Collection<ReminderKey> keys) {
+        ReminderLedger ledger = ledgerProvider.getIfAvailable();
+        if (ledger == null || keys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        // Until the filter is (re)built, or when other instances also write the ledger, every key is a possible hit
+        BloomFilter current = sharedLedger ? null : filter;
+        List<ReminderKey> candidates = new ArrayList<>();
+        for (ReminderKey key : keys) {
+            if (current == null || current.mightContain(key)) {
+                candidates.add(key);
+            }
+        }
+        lookups.add(keys.size());
+        definiteMisses.add(keys.size() - candidates.size());
+        possibleHits.add(candidates.size());
+        if (candidates.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        try {
+            ledgerQueries.increment();
+            Set<ReminderKey> sent = ledger.findSent(sessionId, sessionStart, candidates);
+            confirmedHits.add(sent.size());
+            return sent;
+        } catch (Exception e) {
+            // The in-memory store still dedups within this process, so carry on without the ledger
+            ledgerErrors.increment();
+            log.error("Reminder ledger lookup failed for session {}", sessionId, e);
+            return Collections.emptySet();
+        }
+    }
+    
+    /**
+     * Record a successfully sent reminder in the ledger and the filter
+     */
+    public void recordSent(ReminderKey key, ReminderStatus status, LocalDateTime sessionStart) {
+        ReminderLedger ledger = ledgerProvider.getIfAvailable();
+        if (ledger == null) {
+            return;
+        }
+        
+        try {
+            ledger.recordSent(key, status, sessionStart);
+        } catch (Exception e) {
+            ledgerErrors.increment();
+            log.error("Failed to record reminder {} in the ledger", key, e);
+        }
+        
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("reminder.ledger.lookups", definiteMisses, LongAdder::sum)
+                .description("Dedup lookups against the ledger filter")
+                .tag("result", "definite_miss")
+                .register(registry);
+        FunctionCounter.builder("reminder.ledger.lookups", possibleHits, LongAdder::sum)
+                .description("Dedup lookups against the ledger filter")
+                .tag("result", "possible_hit")
+                .register(registry);
+        FunctionCounter.builder("reminder.ledger.lookups", confirmedHits, LongAdder::sum)
+                .description("Dedup lookups against the ledger filter")
+                .tag("result", "confirmed_hit")
+                .register(registry);
+        Gauge.builder("reminder.ledger.filter.expected.fpr", this, front -> {
+                    BloomFilter current = front.filter;
+                    return current != null ? current.expectedFalsePositiveRate() : 0.0;
+                })
+                .description("Expected false-positive rate of the ledger filter at its current fill")
+                .register(registry);
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        BloomFilter current = filter;
+        ReminderLedger ledger = ledgerProvider.getIfAvailable();
+        stats.put("enabled", ledger != null);
+        stats.put("configuredFalsePositiveRate", falsePositiveRate);
+        stats.put("expectedFalsePositiveRate", current != null ? current.expectedFalsePositiveRate() : 0.0);
+        
+        // Possible hits the ledger did not confirm are the filter's false positives
+        long falsePositives = possibleHits.sum() - confirmedHits.sum();
+        long negatives = definiteMisses.sum() + falsePositives;
+        stats.put("observedFalsePositiveRate", negatives > 0 ? (double) falsePositives / negatives : 0.0);
+        
+        stats.put("filterKeys", current != null ? current.getInsertions() : 0);
+        stats.put("filterCapacity", current != null ? filterCapacity : 0);
+        stats.put("filterBits", current != null ? current.getBitCount() : 0);
+        stats.put("filterHashes", current != null ? current.getHashCount() : 0);
+        stats.put("lookups", lookups.sum());
+        stats.put("definiteMisses", definiteMisses.sum());
+        stats.put("possibleHits", possibleHits.sum());
+        stats.put("confirmedHits", confirmedHits.sum());
+        stats.put("ledgerQueries", ledgerQueries.sum());
+        stats.put("ledgerErrors", ledgerErrors.sum());
+        if (ledger != null && !ledger.toStats().isEmpty()) {
+            stats.put("store", ledger.toStats());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,192 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live reminder counters, updated as reminders change state
+ * 
+ * Everything here is a striped {@link LongAdder} or a fixed-size {@link RollingWindow}, so the
+ * stats endpoint reads them in constant time instead of scanning the reminder store.
+ */
+@Component
+public class ReminderMetrics implements MeterBinder {
+    
+    public enum Role {
+        CONDUCTOR, ATTENDEE
+    }
+    
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final Map<ReminderStatus.ReminderType, Counters> byType = new EnumMap<>(ReminderStatus.ReminderType.class);
+    private final Map<Role, Counters> byRole = new EnumMap<>(Role.class);
+    private final Clock clock;
+    
+    // 1m in 5s slots, 5m in 15s slots, 1h in 1m slots
+    private final Map<String, RollingWindow[]> windows = new LinkedHashMap<>();
+    
+    private record Counters(LongAdder claimed, LongAdder sent, LongAdder failed) {
+        
+        Counters() {
+            this(new LongAdder(), new LongAdder(), new LongAdder());
+        }
+        
+        Map<String, Object> toStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("claimed", claimed.sum());
+            stats.put("sent", sent.sum());
+            stats.put("failed", failed.sum());
+            return stats;
+        }
+    }
+    
+    public ReminderMetrics(Clock clock) {
+        this.clock = clock;
+        for (ReminderStatus.ReminderType type : ReminderStatus.ReminderType.values()) {
+            byType.put(type, new Counters());
+        }
+        for (Role role : Role.values()) {
+            byRole.put(role, new Counters());
+        }
+        windows.put("1m", newWindows(TimeUnit.MINUTES.toMillis(1), 12));
+        windows.put("5m", newWindows(TimeUnit.MINUTES.toMillis(5), 20));
+        windows.put("1h", newWindows(TimeUnit.HOURS.toMillis(1), 60));
+    }
+    
+    // [0] sent, [1] failed
+    private static RollingWindow[] newWindows(long windowMillis, int slots) {
+        return new RollingWindow[] {new RollingWindow(windowMillis, slots), new RollingWindow(windowMillis, slots)};
+    }
+    
+    /**
+     * A reminder was claimed and handed to the pipeline
+     */
+    public void recordClaimed(ReminderStatus.ReminderType type, boolean conductor, boolean retry) {
+        claimed.increment();
+        byType.get(type).claimed().increment();
+        byRole.get(role(conductor)).claimed().increment();
+        if (retry) {
+            retries.increment();
+        }
+    }
+    
+    /**
+     * A claimed reminder finished, either sent or failed
+     */
+    public void recordOutcome(ReminderStatus.ReminderType type, boolean conductor, boolean wasSent) {
+        long now = clock.millis();
+        Counters typeCounters = byType.get(type);
+        Counters roleCounters = byRole.get(role(conductor));
+        if (wasSent) {
+            sent.increment();
+            typeCounters.sent().increment();
+            roleCounters.sent().increment();
+        } else {
+            failed.increment();
+            typeCounters.failed().increment();
+            roleCounters.failed().increment();
+        }
+        
+        int slot = wasSent ? 0 : 1;
+        windows.values().forEach(window -> window[slot].add(now, 1));
+    }
+    
+    /**
+     * A claimed reminder was handed back unsent (its session moved to another instance)
+     */
+    public void recordReleased() {
+        released.increment();
+    }
+    
+    private static Role role(boolean conductor) {
+        return conductor ? Role.CONDUCTOR : Role.ATTENDEE;
+    }
+    
+    /**
+     * Claimed reminders that have not yet been sent, failed or been released
+     */
+    public long inFlight() {
+        return Math.max(0, claimed.sum() - sent.sum() - failed.sum() - released.sum());
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        byType.forEach((type, counters) -> {
+            bindOutcome(registry, type, "claimed", counters.claimed());
+            bindOutcome(registry, type, "sent", counters.sent());
+            bindOutcome(registry, type, "failed", counters.failed());
+        });
+        FunctionCounter.builder("reminder.retries", retries, LongAdder::sum)
+                .description("Reminders claimed again after a failed attempt")
+                .register(registry);
+        Gauge.builder("reminder.inflight", this, ReminderMetrics::inFlight)
+                .description("Claimed reminders not yet sent or failed")
+                .register(registry);
+    }
+    
+    private static void bindOutcome(MeterRegistry registry, ReminderStatus.ReminderType type, String outcome, LongAdder counter) {
+        FunctionCounter.builder("reminder.reminders", counter, LongAdder::sum)
+                .description("Reminders by type and lifecycle outcome")
+                .tag("type", type.name())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+    
+    /**
+     * Reminders claimed so far per type
+     */
+    public Map<String, Long> claimedByType() {
+        Map<String, Long> claimedByType = new LinkedHashMap<>();
+        byType.forEach((type, counters) -> claimedByType.put(type.name(), counters.claimed().sum()));
+        return claimedByType;
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("claimed", claimed.sum());
+        stats.put("sent", sent.sum());
+        stats.put("failed", failed.sum());
+        stats.put("released", released.sum());
+        stats.put("retries", retries.sum());
+        stats.put("inFlight", inFlight());
+        
+        Map<String, Object> types = new LinkedHashMap<>();
+        byType.forEach((type, counters) -> types.put(type.name(), counters.toStats()));
+        stats.put("byType", types);
+        
+        Map<String, Object> roles = new LinkedHashMap<>();
+        byRole.forEach((role, counters) -> roles.put(role.name().toLowerCase(), counters.toStats()));
+        stats.put("byRole", roles);
+        
+        long now = clock.millis();
+        Map<String, Object> rates = new LinkedHashMap<>();
+        windows.forEach((name, window) -> {
+            long windowSent = window[0].sum(now);
+            long windowFailed = window[1].sum(now);
+            double minutes = window[0].getWindowMillis() / 60_000.0;
+            
+            Map<String, Object> rate = new LinkedHashMap<>();
+            rate.put("sent", windowSent);
+            rate.put("failed", windowFailed);
+            rate.put("sentPerMinute", windowSent / minutes);
+            rate.put("failureRatio", windowSent + windowFailed > 0 ? (double) windowFailed / (windowSent + windowFailed) : 0.0);
+            rates.put(name, rate);
+        });
+        stats.put("rates", rates);
+        return stats;
+    }
+}
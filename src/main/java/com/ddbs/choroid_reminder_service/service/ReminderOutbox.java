@@ -0,0 +1,305 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderBatch;
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transactional outbox of reminders waiting for delivery, in the service database (pure JDBC, MySQL 8)
+ * 
+ * Discovery inserts one row per reminder, ignoring keys already present, so any number of
+ * scheduler replicas can enqueue the same session safely. Senders claim batches with
+ * SELECT ... FOR UPDATE SKIP LOCKED in deadline order and mark them claimed in the same
+ * transaction, so concurrent senders never see each other's rows. A claim carries a deadline;
+ * rows whose sender died are put back by the next reap. Senders settle their batch in chunks as
+ * it goes and renew the claim on the rest halfway to its deadline, one statement each, so a slow
+ * batch never has its sent rows put back. Each row keeps everything needed to render its email,
+ * so a sender needs no gateway or session lookups.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.outbox.enabled", havingValue = "true")
+public class ReminderOutbox {
+    
+    private static final String COLUMNS = """
+            id, key_hi, key_lo, session_id, session_title, creator_id, session_start, duration_minutes, meeting_link,
+            resources_link, tags, username, display_name, email, reminder_type, conductor, minutes_before, due_at, priority""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${reminder.outbox.claim-timeout-seconds:300}")
+    private int claimTimeoutSeconds;
+    
+    @Value("${reminder.outbox.max-attempts:3}")
+    private int maxAttempts;
+    
+    @Value("${reminder.outbox.retry-backoff-seconds:60}")
+    private int retryBackoffSeconds;
+    
+    /**
+     * A claimed outbox row rebuilt as a pipeline task
+     */
+    public record Entry(long id, ReminderTask task) {
+    }
+    
+    @PostConstruct
+    void createTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS reminder_outbox (
+                    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    key_hi BIGINT NOT NULL,
+                    key_lo BIGINT NOT NULL,
+                    session_id VARCHAR(64) NOT NULL,
+                    session_title VARCHAR(512) NULL,
+                    creator_id VARCHAR(128) NULL,
+                    session_start DATETIME NULL,
+                    duration_minutes INT NULL,
+                    meeting_link VARCHAR(1024) NULL,
+                    resources_link VARCHAR(1024) NULL,
+                    tags VARCHAR(1024) NULL,
+                    username VARCHAR(128) NOT NULL,
+                    display_name VARCHAR(256) NULL,
+                    email VARCHAR(320) NOT NULL,
+                    reminder_type VARCHAR(32) NOT NULL,
+                    conductor BOOLEAN NOT NULL,
+                    minutes_before INT NOT NULL,
+                    due_at DATETIME NULL,
+                    priority BIGINT NOT NULL,
+                    status VARCHAR(16) NOT NULL,
+                    attempts INT NOT NULL DEFAULT 0,
+                    available_at DATETIME(3) NOT NULL,
+                    claimed_by VARCHAR(128) NULL,
+                    claimed_until DATETIME(3) NULL,
+                    created_at DATETIME(3) NOT NULL,
+                    sent_at DATETIME(3) NULL,
+                    last_error VARCHAR(512) NULL,
+                    UNIQUE KEY uk_reminder_outbox_key (key_hi, key_lo),
+                    INDEX idx_reminder_outbox_claim (status, priority, available_at),
+                    INDEX idx_reminder_outbox_created (created_at)
+                )""");
+        log.info("Reminder outbox table ready");
+    }
+    
+    /**
+     * Insert pending rows for claimed reminders, one batched statement; keys already in the outbox are skipped
+     * Returns how many rows were new
+     */
+    public int enqueue(List<ReminderTask> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate("INSERT IGNORE INTO reminder_outbox (key_hi, key_lo, session_id, "
+                        + "session_title, creator_id, session_start, duration_minutes, meeting_link, resources_link, tags, "
+                        + "username, display_name, email, reminder_type, conductor, minutes_before, due_at, priority, "
+                        + "status, available_at, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', NOW(3), NOW(3))",
+                tasks, tasks.size(), (statement, task) -> {
+                    SessionDto session = task.getSession();
+                    UserDto user = task.getUser();
+                    statement.setLong(1, task.getReminderKey().hi());
+                    statement.setLong(2, task.getReminderKey().lo());
+                    statement.setString(3, session.getSessionID());
+                    statement.setString(4, session.getTitle());
+                    statement.setString(5, session.getCreatorId());
+                    statement.setTimestamp(6, timestamp(session.getStartDateTime()));
+                    statement.setObject(7, session.getDuration());
+                    statement.setString(8, session.getMeetingLink());
+                    statement.setString(9, session.getResourcesLink());
+                    statement.setString(10, session.getTags() != null ? String.join(",", session.getTags()) : null);
+                    statement.setString(11, user.getUsername());
+                    statement.setString(12, user.getName());
+                    statement.setString(13, user.getPrimaryEmail());
+                    statement.setString(14, task.getReminderType().name());
+                    statement.setBoolean(15, task.isConductor());
+                    statement.setInt(16, task.getBatch().getMinutesBefore());
+                    statement.setTimestamp(17, timestamp(task.getBatch().getDueAt()));
+                    statement.setLong(18, task.getPriority());
+                });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).map(count -> count > 0 ? 1 : 0).sum();
+    }
+    
+    /**
+     * Claim up to limit due rows for one sender, soonest deadline first, skipping rows other senders hold
+     */
+    public List<Entry> claim(String senderId, int limit) {
+        List<Entry> entries = transactionTemplate.execute(status -> {
+            List<Entry> claimed = jdbcTemplate.query("SELECT " + COLUMNS + " FROM reminder_outbox "
+                            + "WHERE status = 'PENDING' AND available_at <= NOW(3) "
+                            + "ORDER BY priority, id LIMIT ? FOR UPDATE SKIP LOCKED",
+                    (rs, row) -> toEntry(rs), limit);
+            if (!claimed.isEmpty()) {
+                List<Object> args = new ArrayList<>(claimed.size() + 2);
+                args.add(senderId);
+                args.add(claimTimeoutSeconds);
+                claimed.forEach(entry -> args.add(entry.id()));
+                jdbcTemplate.update("UPDATE reminder_outbox SET status = 'CLAIMED', claimed_by = ?, "
+                        + "claimed_until = TIMESTAMPADD(SECOND, ?, NOW(3)), attempts = attempts + 1 "
+                        + "WHERE id IN (" + placeholders(claimed.size()) + ")", args.toArray());
+            }
+            return claimed;
+        });
+        return entries != null ? entries : Collections.emptyList();
+    }
+    
+    /**
+     * Push the claim deadline of the given rows a full claim timeout ahead, in one statement
+     * Returns the ids this sender still holds; the others were reaped and must not be sent
+     */
+    public Set<Long> renewClaims(String senderId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 2);
+        args.add(claimTimeoutSeconds);
+        args.add(senderId);
+        args.addAll(ids);
+        int renewed = jdbcTemplate.update("UPDATE reminder_outbox SET claimed_until = TIMESTAMPADD(SECOND, ?, NOW(3)) "
+                + "WHERE status = 'CLAIMED' AND claimed_by = ? AND id IN (" + placeholders(ids.size()) + ")", args.toArray());
+        if (renewed == ids.size()) {
+            return new HashSet<>(ids);
+        }
+        // Only a partial renewal pays for finding out which rows were lost
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM reminder_outbox "
+                + "WHERE status = 'CLAIMED' AND claimed_by = ? AND id IN (" + placeholders(ids.size()) + ")",
+                Long.class, args.subList(1, args.size()).toArray()));
+    }
+    
+    /**
+     * Mark delivered rows in one statement; rows whose claim this sender lost are left alone
+     * Returns how many rows were settled
+     */
+    public int markSent(String senderId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(senderId);
+        args.addAll(ids);
+        return jdbcTemplate.update("UPDATE reminder_outbox SET status = 'SENT', sent_at = NOW(3), claimed_by = NULL "
+                + "WHERE claimed_by = ? AND id IN (" + placeholders(ids.size()) + ")", args.toArray());
+    }
+    
+    /**
+     * Put failed rows back for a later attempt, or park them as FAILED once out of attempts, in one batch
+     * Returns how many rows were settled; rows whose claim this sender lost are left alone
+     */
+    public int markFailed(String senderId, Map<Long, String> errorsById) {
+        if (errorsById.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(errorsById.size());
+        errorsById.forEach((id, error) -> rows.add(new Object[] {maxAttempts, retryBackoffSeconds, truncate(error), id, senderId}));
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE reminder_outbox SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END, "
+                + "available_at = TIMESTAMPADD(SECOND, ?, NOW(3)), last_error = ?, claimed_by = NULL "
+                + "WHERE id = ? AND claimed_by = ?", rows);
+        return Arrays.stream(counts).map(count -> count > 0 ? 1 : 0).sum();
+    }
+    
+    /**
+     * Return rows whose sender's claim ran out (it crashed or stalled) to the pending pool
+     * The expired claim already counted as an attempt, so a row out of attempts is parked as FAILED
+     * like any other failure rather than handed to yet another sender it might crash as well.
+     */
+    public int reapExpiredClaims() {
+        return jdbcTemplate.update("UPDATE reminder_outbox SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END, "
+                + "last_error = 'Claim expired before the row was settled', claimed_by = NULL "
+                + "WHERE status = 'CLAIMED' AND claimed_until < NOW(3)", maxAttempts);
+    }
+    
+    /**
+     * Delete settled rows created before the cutoff
+     */
+    public int purgeSettled(LocalDateTime createdBefore) {
+        return jdbcTemplate.update("DELETE FROM reminder_outbox WHERE created_at < ? AND status IN ('SENT', 'FAILED')",
+                Timestamp.valueOf(createdBefore));
+    }
+    
+    /**
+     * Row counts by status; a grouped scan, so for the stats endpoint only
+     */
+    public Map<String, Long> countByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT status, COUNT(*) AS row_count FROM reminder_outbox GROUP BY status",
+                (ResultSet rs) -> {
+                    while (rs.next()) {
+                        counts.put(rs.getString("status"), rs.getLong("row_count"));
+                    }
+                    return null;
+                });
+        return counts;
+    }
+    
+    private static Entry toEntry(ResultSet rs) throws SQLException {
+        SessionDto session = new SessionDto();
+        session.setId(rs.getString("session_id"));
+        session.setTitle(rs.getString("session_title"));
+        session.setCreatorId(rs.getString("creator_id"));
+        Timestamp start = rs.getTimestamp("session_start");
+        session.setStart(start != null ? start.toLocalDateTime() : null);
+        int duration = rs.getInt("duration_minutes");
+        session.setDuration(rs.wasNull() ? null : duration);
+        session.setMeetingLink(rs.getString("meeting_link"));
+        session.setResourcesLink(rs.getString("resources_link"));
+        String tags = rs.getString("tags");
+        session.setTags(tags == null || tags.isEmpty() ? Collections.emptyList() : List.of(tags.split(",")));
+        
+        ReminderStatus.ReminderType type = ReminderStatus.ReminderType.valueOf(rs.getString("reminder_type"));
+        ReminderBatch batch = new ReminderBatch(session, type, rs.getInt("minutes_before"));
+        Timestamp dueAt = rs.getTimestamp("due_at");
+        batch.setDueAt(dueAt != null ? dueAt.toLocalDateTime() : null);
+        batch.setPriority(rs.getLong("priority"));
+        batch.addRecipient();
+        
+        String username = rs.getString("username");
+        String email = rs.getString("email");
+        UserDto user = UserApiService.buildUser(username, email);
+        if (rs.getString("display_name") != null) {
+            user.setName(rs.getString("display_name"));
+        }
+        
+        ReminderTask task = ReminderTask.create(batch, user, rs.getBoolean("conductor"),
+                new ReminderKey(rs.getLong("key_hi"), rs.getLong("key_lo")),
+                ReminderStatus.create(session.getSessionID(), username, type, email));
+        task.setPriority(rs.getLong("priority"));
+        return new Entry(rs.getLong("id"), task);
+    }
+    
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    private static String truncate(String error) {
+        return error != null && error.length() > 512 ? error.substring(0, 512) : error;
+    }
+}
@@ -1,95 +1,517 @@
 package com.ddbs.choroid_reminder_service.service;
 
+import com.ddbs.choroid_reminder_service.dto.PendingReminderBatch;
+import com.ddbs.choroid_reminder_service.dto.ReminderBatch;
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
 import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
 import com.ddbs.choroid_reminder_service.dto.SessionDto;
 import com.ddbs.choroid_reminder_service.dto.UserDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Service;
 
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Main scheduler service that coordinates all reminder functionality
  * 
  * This service:
- * - Checks for upcoming sessions every 5 minutes
+ * - Checks for upcoming sessions every 5 minutes, or adaptively from the session schedule
  * - Sends 30-minute reminders before sessions start
  * - Sends feedback reminders for sessions completed within past 30 minutes
  * - Prevents duplicate reminder sending
+ * 
+ * Work flows through a staged pipeline, each stage with its own workers and bounded queue:
+ * fetch (session search) -> resolve (RARF + emails) -> render (HTML/MIME) -> send (SMTP)
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @ConditionalOnProperty(name = "reminder.scheduler.enabled", havingValue = "true", matchIfMissing = true)
-public class ReminderSchedulerService {
+public class ReminderSchedulerService implements SchedulingConfigurer {
+    
+    // Regular send windows: pre-session reminders go out 30 to 10 minutes before the start, feedback
+    // up to 30 minutes after the end. Catch-up backfills exactly what falls outside these.
+    static final int REMINDER_WINDOW_OPENS_MINUTES = 30;
+    static final int REMINDER_WINDOW_CLOSES_MINUTES = 10;
+    static final int FEEDBACK_WINDOW_MINUTES = 30;
     
     private final SessionApiService sessionApiService;
-    private final UserApiService userApiService;
+    private final RecipientCache recipientCache;
+    private final DispatchPriority dispatchPriority;
+    private final ReminderStatusStore reminderStatusStore;
+    private final ReminderLedgerFront reminderLedgerFront;
+    private final ReminderMetrics reminderMetrics;
+    private final ReminderLateness reminderLateness;
+    private final TaskScheduler taskScheduler;
     private final EmailService emailService;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ObjectProvider<SessionOwnership> sessionOwnershipProvider;
+    private final ObjectProvider<ReminderOutbox> reminderOutboxProvider;
+    private final ObjectProvider<OutboxSender> outboxSenderProvider;
+    private final ObjectProvider<CatchUpService> catchUpServiceProvider;
+    private final ObjectProvider<AdaptivePollingCadence> pollingCadenceProvider;
     
     @Value("${reminder.before-session.first:30}")
     private int reminderMinutes;
     
+    // Fixed cadence; the adaptive one (reminder.scheduler.polling=adaptive) plans each cycle from the session schedule
+    @Value("${reminder.scheduler.session-check-interval:300000}")
+    private long sessionCheckIntervalMs;
+    
     @Value("${reminder.after-session.feedback:30}")
     private int feedbackReminderMinutes;
     
-    // In-memory storage for tracking sent reminders (in production, consider using a database)
-    private final Map<String, ReminderStatus> sentReminders = new ConcurrentHashMap<>();
+    // Two fetch workers let the upcoming and feedback phases of a cycle run concurrently
+    @Value("${reminder.pipeline.fetch.workers:2}")
+    private int fetchWorkers;
+    
+    @Value("${reminder.pipeline.fetch.queue-capacity:16}")
+    private int fetchQueueCapacity;
+    
+    @Value("${reminder.pipeline.resolve.workers:4}")
+    private int resolveWorkers;
+    
+    @Value("${reminder.pipeline.resolve.queue-capacity:256}")
+    private int resolveQueueCapacity;
+    
+    @Value("${reminder.pipeline.render.workers:2}")
+    private int renderWorkers;
+    
+    @Value("${reminder.pipeline.render.queue-capacity:1024}")
+    private int renderQueueCapacity;
+    
+    @Value("${reminder.pipeline.send.workers:4}")
+    private int sendWorkers;
+    
+    @Value("${reminder.pipeline.send.queue-capacity:1024}")
+    private int sendQueueCapacity;
+    
+    @Value("${reminder.pipeline.cycle-drain-timeout-ms:240000}")
+    private long cycleDrainTimeoutMs;
+    
+    @Value("${reminder.dispatch.load-shedding.enabled:false}")
+    private boolean loadSheddingEnabled;
+    
+    @Value("${reminder.dispatch.load-shedding.backlog-threshold:500}")
+    private long loadSheddingBacklogThreshold;
+    
+    // Every session unless cluster mode partitions them across instances
+    private SessionOwnership sessionOwnership;
+    
+    // In outbox mode discovery ends at the outbox insert and sender workers deliver
+    private ReminderOutbox reminderOutbox;
+    
+    private PipelineStage<CycleFetch> fetchStage;
+    private PipelineStage<ReminderBatch> resolveStage;
+    private PipelineStage<ReminderTask> renderStage;
+    private PipelineStage<ReminderTask> sendStage;
+    
+    private final LongAdder deferredFeedbackBatches = new LongAdder();
+    private final LongAdder unownedSessions = new LongAdder();
+    private final LongAdder releasedReminders = new LongAdder();
+    private final LongAdder outboxEnqueued = new LongAdder();
+    private final LongAdder outboxErrors = new LongAdder();
+    
+    private final AtomicBoolean cycleRunning = new AtomicBoolean();
+    private final LongAdder completedCycles = new LongAdder();
+    
+    // JVM uptime when the first cycle finished: the start-up cost a rolling deploy pays per replica
+    private volatile long firstCycleUptimeMs = -1;
+    private final LongAdder skippedCycles = new LongAdder();
+    
+    // Shutdown: draining refuses new discovery, checkpointing diverts whatever reaches a stage worker
+    private volatile boolean draining;
+    private volatile boolean checkpointing;
+    private final Queue<ReminderBatch> checkpointedBatches = new ConcurrentLinkedQueue<>();
+    private final Map<ReminderBatch, Queue<UserDto>> checkpointedRecipients = new ConcurrentHashMap<>();
+    
+    // Checkpoint left by the previous shutdown, resumed by the first cycle
+    private final AtomicReference<List<PendingReminderBatch>> resumable = new AtomicReference<>(List.of());
+    private final LongAdder resumedBatches = new LongAdder();
+    private final LongAdder expiredCheckpointBatches = new LongAdder();
+    
+    // Sessions and recipients handed on during the current cycle
+    private final LongAdder cycleSessions = new LongAdder();
+    private final LongAdder cycleRecipients = new LongAdder();
+    // Session searches of the current cycle that succeeded; a cycle only counts for catch-up with both
+    private final LongAdder cycleSearches = new LongAdder();
+    
+    // Fetch stage work item: which phase to search and the cycle's time snapshot
+    private record CycleFetch(ReminderStatus.ReminderType reminderType, LocalDateTime now) {
+    }
+    
+    @PostConstruct
+    void startPipeline() {
+        sessionOwnership = sessionOwnershipProvider.getIfAvailable(() -> SessionOwnership.SINGLE_NODE);
+        reminderOutbox = reminderOutboxProvider.getIfAvailable();
+        fetchStage = new PipelineStage<>("fetch", fetchWorkers, fetchQueueCapacity, this::fetchSessions);
+        // Downstream stages dispatch by deadline so the soonest sessions and conductors go first under backlog
+        resolveStage = new PipelineStage<>("resolve", resolveWorkers, resolveQueueCapacity, this::resolveRecipients,
+                Comparator.comparingLong(ReminderBatch::getPriority));
+        renderStage = new PipelineStage<>("render", renderWorkers, renderQueueCapacity, this::renderReminder,
+                Comparator.comparingLong(ReminderTask::getPriority));
+        sendStage = new PipelineStage<>("send", sendWorkers, sendQueueCapacity, this::deliverReminder,
+                Comparator.comparingLong(ReminderTask::getPriority));
+        
+        for (PipelineStage<?> stage : pipelineStages()) {
+            Gauge.builder("reminder.pipeline.queue.depth", stage, PipelineStage::getQueueDepth)
+                    .description("Items waiting in a pipeline stage queue")
+                    .tag("stage", stage.getName())
+                    .register(meterRegistry);
+            Gauge.builder("reminder.pipeline.backlog", stage, PipelineStage::getBacklog)
+                    .description("Items queued or being processed by a pipeline stage")
+                    .tag("stage", stage.getName())
+                    .register(meterRegistry);
+        }
+    }
+    
+    @PreDestroy
+    void stopPipeline() {
+        pipelineStages().forEach(PipelineStage::shutdown);
+    }
     
     /**
-     * Main scheduler method - runs every 5 minutes
+     * Register the reminder cycle on the fixed or the adaptive cadence
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        AdaptivePollingCadence cadence = pollingCadenceProvider.getIfAvailable();
+        if (cadence != null) {
+            taskRegistrar.addTriggerTask(this::checkAndSendReminders, cadence);
+            log.info("Reminder cycles follow the adaptive polling cadence");
+        } else {
+            taskRegistrar.addFixedDelayTask(this::checkAndSendReminders, Duration.ofMillis(sessionCheckIntervalMs));
+        }
+    }
+    
+    private List<PipelineStage<?>> pipelineStages() {
+        return List.of(fetchStage, resolveStage, renderStage, sendStage);
+    }
+    
+    /**
+     * Main scheduler method - runs every 5 minutes, or on the adaptive cadence
      * Checks for sessions that need reminders
      */
-    @Scheduled(fixedDelayString = "${reminder.scheduler.session-check-interval:300000}")
     public void checkAndSendReminders() {
-        log.info("Starting scheduled reminder check at {}", LocalDateTime.now());
+        if (draining) {
+            log.debug("Reminder service is shutting down - no new reminder check");
+            return;
+        }
+        // Never queue a second cycle behind one that is still running
+        if (!cycleRunning.compareAndSet(false, true)) {
+            skippedCycles.increment();
+            log.warn("Previous reminder check still in progress - skipping this run ({} skipped so far)", skippedCycles.sum());
+            return;
+        }
         
+        // One time snapshot for the whole cycle, so every session is judged against the same "now"
+        LocalDateTime now = LocalDateTime.now(clock);
+        log.info("Starting scheduled reminder check at {}", now);
+        
+        ReminderEvents.CycleEvent cycleEvent = new ReminderEvents.CycleEvent();
+        cycleEvent.begin();
+        Timer.Sample cycleSample = Timer.start(meterRegistry);
+        String cycleOutcome = "error";
+        cycleSessions.reset();
+        cycleRecipients.reset();
+        cycleSearches.reset();
         try {
-            // Process upcoming sessions for pre-session reminders
-            processUpcomingSessions();
+            resumeCheckpoint(now);
             
-            // Process completed sessions for feedback reminders
-            processCompletedSessions();
+            // Upcoming (pre-session) and completed (feedback) phases run concurrently on the fetch stage
+            fetchStage.submit(new CycleFetch(ReminderStatus.ReminderType.BEFORE_30_MIN, now));
+            fetchStage.submit(new CycleFetch(ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK, now));
             
-            // Clean up old reminder statuses
-            cleanupOldReminders();
+            // Wait for this cycle's work to drain so cycles never overlap
+            if (awaitPipelineIdle(cycleDrainTimeoutMs)) {
+                cycleOutcome = "completed";
+            } else {
+                cycleOutcome = "timeout";
+                log.warn("Reminder pipeline did not drain within {} ms; remaining work carries over", cycleDrainTimeoutMs);
+            }
+            completedCycles.increment();
+            // A failed search or an unfinished cycle may have missed windows; leave them to catch-up after a restart
+            if ("completed".equals(cycleOutcome) && cycleSearches.sum() == 2) {
+                catchUpServiceProvider.ifAvailable(catchUp -> catchUp.recordCycle(now));
+            }
+            if (firstCycleUptimeMs < 0) {
+                firstCycleUptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+                log.info("First reminder cycle finished {} ms after JVM start", firstCycleUptimeMs);
+            }
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Scheduled reminder check interrupted");
         } catch (Exception e) {
             log.error("Error during scheduled reminder check", e);
+        } finally {
+            cycleSample.stop(Timer.builder("reminder.cycle.duration")
+                    .description("Duration of a scheduled reminder check, including pipeline drain")
+                    .tag("outcome", cycleOutcome)
+                    .register(meterRegistry));
+            DistributionSummary.builder("reminder.cycle.sessions")
+                    .description("Sessions due for reminders per cycle")
+                    .register(meterRegistry)
+                    .record(cycleSessions.sum());
+            DistributionSummary.builder("reminder.cycle.recipients")
+                    .description("Reminders claimed per cycle")
+                    .register(meterRegistry)
+                    .record(cycleRecipients.sum());
+            cycleEvent.end();
+            if (cycleEvent.shouldCommit()) {
+                cycleEvent.outcome = cycleOutcome;
+                cycleEvent.sessions = cycleSessions.sum();
+                cycleEvent.recipients = cycleRecipients.sum();
+                cycleEvent.commit();
+            }
+            cycleRunning.set(false);
         }
         
-        log.info("Completed scheduled reminder check at {}", LocalDateTime.now());
+        log.info("Completed scheduled reminder check at {}: {} sessions due, {} reminders queued", 
+                LocalDateTime.now(clock), cycleSessions.sum(), cycleRecipients.sum());
+    }
+    
+    /**
+     * Start a reminder check on the scheduling executor without waiting for it
+     * Returns false (and counts a skipped run) if a check is already in progress
+     */
+    public boolean triggerCheckNow() {
+        if (draining || cycleRunning.get()) {
+            skippedCycles.increment();
+            return false;
+        }
+        // The scheduler measures start times against its own clock, not the application one
+        taskScheduler.schedule(this::checkAndSendReminders, taskScheduler.getClock().instant());
+        return true;
+    }
+    
+    /**
+     * Stop discovery and wait for the work already in the pipeline to finish
+     * Returns false when the timeout elapsed with reminders still queued or in flight
+     */
+    public boolean drain(long timeoutMs) throws InterruptedException {
+        draining = true;
+        return awaitPipelineIdle(timeoutMs);
+    }
+    
+    /**
+     * Take every reminder still in the pipeline out of it unsent, for the shutdown checkpoint
+     * Queued items are diverted as workers pick them up; work already under way gets the timeout to finish
+     */
+    public List<PendingReminderBatch> checkpoint(long timeoutMs) throws InterruptedException {
+        draining = true;
+        checkpointing = true;
+        if (!awaitPipelineIdle(timeoutMs)) {
+            long abandoned = pipelineStages().stream().mapToLong(PipelineStage::getBacklog).sum();
+            log.warn("{} pipeline items still in progress after {} ms are abandoned; their reminders may be sent again or not at all",
+                    abandoned, timeoutMs);
+        }
+        
+        List<PendingReminderBatch> pending = new ArrayList<>();
+        for (ReminderBatch batch : checkpointedBatches) {
+            SessionDto session = batch.getSession();
+            List<UserDto> known = session.getRecipients() != null ? new ArrayList<>(session.getRecipients().values()) : null;
+            pending.add(new PendingReminderBatch(session, batch.getReminderType(), batch.getMinutesBefore(), false, known));
+        }
+        checkpointedRecipients.forEach((batch, users) -> pending.add(new PendingReminderBatch(
+                batch.getSession(), batch.getReminderType(), batch.getMinutesBefore(), true, new ArrayList<>(users))));
+        return pending;
+    }
+    
+    public boolean isDraining() {
+        return draining;
+    }
+    
+    /**
+     * Catch-up: resolve and enqueue reminders for one missed session on the caller's thread
+     * The caller paces these calls; returns the number of reminders claimed
+     */
+    public int dispatchCatchUp(SessionDto session, ReminderStatus.ReminderType reminderType) {
+        if (draining || !sessionOwnership.owns(session.getSessionID())) {
+            return 0;
+        }
+        ReminderBatch batch = newBatch(session, reminderType,
+                reminderType == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK ? 0 : reminderMinutes);
+        return reminderType == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK
+                ? resolveFeedbackRecipients(batch)
+                : resolveSessionRecipients(batch);
+    }
+    
+    /**
+     * Hand the previous shutdown's checkpoint to the next cycle
+     */
+    public void resumeOnNextCycle(List<PendingReminderBatch> pending) {
+        resumable.set(List.copyOf(pending));
+    }
+    
+    /**
+     * Put checkpointed work back into the pipeline ahead of this cycle's discovery
+     * Claims and the ledger still apply, so anything sent in the meantime is skipped; reminders
+     * whose moment has passed, and sessions now owned by another instance, are dropped
+     */
+    private void resumeCheckpoint(LocalDateTime now) {
+        List<PendingReminderBatch> pending = resumable.getAndSet(List.of());
+        if (pending.isEmpty()) {
+            return;
+        }
+        int resumed = 0;
+        for (PendingReminderBatch entry : pending) {
+            SessionDto session = entry.getSession();
+            if (session == null || session.getSessionID() == null || !stillDue(entry, now)) {
+                expiredCheckpointBatches.increment();
+                continue;
+            }
+            if (!sessionOwnership.owns(session.getSessionID())) {
+                unownedSessions.increment();
+                continue;
+            }
+            ReminderBatch batch = newBatch(session, entry.getReminderType(), entry.getMinutesBefore());
+            cycleSessions.increment();
+            resumed++;
+            if (entry.isResolved()) {
+                enqueueReminders(batch, entry.getRecipients() != null ? entry.getRecipients() : List.of());
+            } else {
+                if (entry.getRecipients() != null) {
+                    Map<String, UserDto> recipients = new LinkedHashMap<>();
+                    entry.getRecipients().forEach(user -> recipients.put(user.getUsername(), user));
+                    session.setRecipients(recipients);
+                }
+                resolveStage.submit(batch);
+            }
+        }
+        resumedBatches.add(resumed);
+        log.info("Resumed {} of {} reminder batches checkpointed at the last shutdown", resumed, pending.size());
+    }
+    
+    /**
+     * Pre-session reminders are still worth sending until the session starts, feedback until its window closes
+     */
+    private boolean stillDue(PendingReminderBatch entry, LocalDateTime now) {
+        if (entry.getReminderType() == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
+            return entry.getSession().getEndDateTime() != null
+                    && shouldSendFeedbackReminder(entry.getSession().getMinutesSinceEnd(now), feedbackReminderMinutes);
+        }
+        return entry.getSession().getStartDateTime() != null && now.isBefore(entry.getSession().getStartDateTime());
+    }
+    
+    /**
+     * Fetch stage: search one session window and hand due sessions to the resolve stage
+     */
+    private void fetchSessions(CycleFetch fetch) {
+        if (checkpointing) {
+            // Nothing is claimed yet; the next start discovers these sessions again
+            return;
+        }
+        boolean searched = fetch.reminderType() == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK
+                ? processCompletedSessions(fetch.now())
+                : processUpcomingSessions(fetch.now());
+        if (searched) {
+            cycleSearches.increment();
+        }
+    }
+    
+    /**
+     * Create a batch with its dispatch priority assigned
+     */
+    private ReminderBatch newBatch(SessionDto session, ReminderStatus.ReminderType reminderType, int minutesBefore) {
+        ReminderBatch batch = new ReminderBatch(session, reminderType, minutesBefore);
+        batch.setPriority(dispatchPriority.batchPriority(batch));
+        batch.setDueAt(idealDueTime(session, reminderType));
+        return batch;
+    }
+    
+    /**
+     * When a reminder would ideally go out, independent of when the cycle happens to pick it up
+     */
+    private LocalDateTime idealDueTime(SessionDto session, ReminderStatus.ReminderType reminderType) {
+        if (reminderType == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
+            LocalDateTime end = session.getEndDateTime();
+            return end != null ? end.plusMinutes(feedbackReminderMinutes) : null;
+        }
+        LocalDateTime start = session.getStartDateTime();
+        return start != null ? start.minusMinutes(reminderMinutes) : null;
+    }
+    
+    /**
+     * Recipients rendered or waiting for SMTP
+     */
+    private long dispatchBacklog() {
+        return renderStage.getBacklog() + sendStage.getBacklog();
+    }
+    
+    /**
+     * Wait until every pipeline stage is idle, or the timeout elapses
+     */
+    private boolean awaitPipelineIdle(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!pipelineStages().stream().allMatch(PipelineStage::isIdle)) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
     }
     
     /**
      * Process upcoming sessions and send pre-session reminders
      * UPDATED LOGIC: Use filtered endpoint to get only sessions starting within ~30-35 minutes
+     * Returns false when the session search failed
      */
-    private void processUpcomingSessions() {
-        log.info("Processing upcoming sessions for reminders");
+    private boolean processUpcomingSessions(LocalDateTime now) {
+        log.debug("Processing upcoming sessions for reminders");
         
         // Get pre-filtered upcoming sessions from the API
-        List<SessionDto> upcomingSessions = sessionApiService.getUpcomingSessions();
+        Optional<List<SessionDto>> found = sessionApiService.findUpcomingSessions(now);
+        List<SessionDto> upcomingSessions = found.orElse(Collections.emptyList());
         
         log.info("Found {} upcoming sessions from filtered endpoint", upcomingSessions.size());
         
+        int due = 0;
         for (SessionDto session : upcomingSessions) {
             try {
-                long minutesUntilStart = session.getMinutesUntilStart();
-                log.info("Session '{}' (ID: {}) starts in {} minutes", session.getTitle(), session.getSessionID(), minutesUntilStart);
+                if (!sessionOwnership.owns(session.getSessionID())) {
+                    unownedSessions.increment();
+                    continue;
+                }
+                long minutesUntilStart = session.getMinutesUntilStart(now);
+                log.debug("Session '{}' (ID: {}) starts in {} minutes", session.getTitle(), session.getSessionID(), minutesUntilStart);
                 
                 // Check if we need to send reminder (30 minutes)
                 if (shouldSendReminder(minutesUntilStart, reminderMinutes)) {
-                    log.info("✓ Timing criteria met - sending reminders for session {}", session.getSessionID());
-                    sendSessionReminders(session, reminderMinutes, ReminderStatus.ReminderType.BEFORE_30_MIN);
+                    log.debug("✓ Timing criteria met - sending reminders for session {}", session.getSessionID());
+                    cycleSessions.increment();
+                    due++;
+                    resolveStage.submit(newBatch(session, ReminderStatus.ReminderType.BEFORE_30_MIN, reminderMinutes));
                 } else {
-                    log.info("✗ Timing criteria NOT met (need 10-30 mins, got {} mins) - skipping session {}", 
+                    log.debug("✗ Timing criteria NOT met (need 10-30 mins, got {} mins) - skipping session {}", 
                             minutesUntilStart, session.getSessionID());
                 }
                 
@@ -97,44 +519,89 @@ public class ReminderSchedulerService {
                 log.error("Error processing session {} for reminders", session.getSessionID(), e);
             }
         }
+        log.info("{} of {} upcoming sessions due for reminders", due, upcomingSessions.size());
+        return found.isPresent();
     }
     
     /**
      * Process completed sessions and send feedback reminders
      * UPDATED LOGIC: Use filtered endpoint to get sessions completed within past 30 minutes
+     * Returns false when the session search failed
      */
-    private void processCompletedSessions() {
-        log.info("Processing completed sessions for feedback reminders");
+    private boolean processCompletedSessions(LocalDateTime now) {
+        log.debug("Processing completed sessions for feedback reminders");
         
         // Get pre-filtered recently completed sessions from the API
-        List<SessionDto> completedSessions = sessionApiService.getRecentlyCompletedSessions();
+        Optional<List<SessionDto>> found = sessionApiService.findRecentlyCompletedSessions(now);
+        List<SessionDto> completedSessions = found.orElse(Collections.emptyList());
         
         log.info("Found {} recently completed sessions from filtered endpoint", completedSessions.size());
         
+        int due = 0;
         for (SessionDto session : completedSessions) {
             try {
-                long minutesSinceEnd = session.getMinutesSinceEnd();
+                if (!sessionOwnership.owns(session.getSessionID())) {
+                    unownedSessions.increment();
+                    continue;
+                }
+                long minutesSinceEnd = session.getMinutesSinceEnd(now);
                 
                 // Check if we need to send feedback reminder (30 minutes after end)
                 if (shouldSendFeedbackReminder(minutesSinceEnd, feedbackReminderMinutes)) {
-                    sendFeedbackReminders(session);
+                    cycleSessions.increment();
+                    due++;
+                    resolveStage.submit(newBatch(session, ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK, 0));
                 }
                 
             } catch (Exception e) {
                 log.error("Error processing completed session {} for feedback reminders", session.getSessionID(), e);
             }
         }
+        log.info("{} of {} completed sessions due for feedback reminders", due, completedSessions.size());
+        return found.isPresent();
     }
     
     /**
-     * Send session reminders: conductor reminder to creator, attendee reminders to registered users
+     * Resolve stage: look up recipients for a session and hand one task per recipient to the render stage
+     */
+    private void resolveRecipients(ReminderBatch batch) {
+        if (checkpointing) {
+            checkpointedBatches.add(batch);
+            return;
+        }
+        if (batch.getReminderType() == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK
+                && loadSheddingEnabled && dispatchBacklog() > loadSheddingBacklogThreshold) {
+            // Shed feedback under backlog; nothing is claimed, so a later cycle picks the session up again
+            deferredFeedbackBatches.increment();
+            log.warn("Dispatch backlog {} exceeds {} - deferring feedback reminders for session {}", 
+                    dispatchBacklog(), loadSheddingBacklogThreshold, batch.getSession().getSessionID());
+            return;
+        }
+        
+        ReminderEvents.SessionProcessedEvent event = new ReminderEvents.SessionProcessedEvent();
+        event.begin();
+        int claimed = batch.getReminderType() == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK
+                ? resolveFeedbackRecipients(batch)
+                : resolveSessionRecipients(batch);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sessionId = batch.getSession().getSessionID();
+            event.reminderType = batch.getReminderType().name();
+            event.recipients = claimed;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Session reminders: conductor reminder to creator, attendee reminders to registered users
      * UPDATED LOGIC: Works with usernames from RARF table, fetches emails individually
      */
-    private void sendSessionReminders(SessionDto session, int minutesBefore, ReminderStatus.ReminderType reminderType) {
-        log.info("Sending {} reminders for session {}: {}", reminderType, session.getSessionID(), session.getTitle());
+    private int resolveSessionRecipients(ReminderBatch batch) {
+        SessionDto session = batch.getSession();
+        log.debug("Resolving {} reminders for session {}: {}", batch.getReminderType(), session.getSessionID(), session.getTitle());
         
         // Step 1: Get registered usernames from RARF table
-        List<String> registeredUsernames = sessionApiService.getRegisteredUsernamesBySession(session.getSessionID());
+        List<String> registeredUsernames = registeredUsernames(session);
         
         // Step 2: Add the session creator username to the list (they should also get a reminder)
         List<String> allUsernames = new ArrayList<>(registeredUsernames);
@@ -144,82 +611,26 @@ public class ReminderSchedulerService {
         
         if (allUsernames.isEmpty()) {
             log.warn("No usernames found for session {}, skipping reminders", session.getSessionID());
-            return;
+            return 0;
         }
         
         // Step 3: Get user details (with emails) for all usernames
-        List<UserDto> allUsers = userApiService.getUsersByUsernames(allUsernames);
-        
-        int successCount = 0;
-        int failureCount = 0;
-        
-        for (UserDto user : allUsers) {
-            try {
-                String reminderKey = generateReminderKey(session.getSessionID(), user.getUsername(), reminderType);
-                
-                // Check if reminder already sent
-                if (sentReminders.containsKey(reminderKey)) {
-                    log.debug("Reminder already sent: {}", reminderKey);
-                    continue;
-                }
-                
-                // Validate user has email
-                if (!user.hasValidEmail()) {
-                    log.warn("User {} has invalid email, skipping reminder", user.getUsername());
-                    continue;
-                }
-                
-                // Create reminder status
-                ReminderStatus reminderStatus = ReminderStatus.create(
-                    session.getSessionID(), 
-                    user.getUsername(), 
-                    reminderType, 
-                    user.getPrimaryEmail()
-                );
-                
-                // Send appropriate email based on role (conductor vs attendee)
-                boolean emailSent;
-                if (user.getUsername().equals(session.getCreatorUsername())) {
-                    // This is the session creator - send conductor reminder
-                    emailSent = emailService.sendConductorReminder(user, session, minutesBefore);
-                    log.info("Conductor reminder sent to {} for session {}", user.getPrimaryEmail(), session.getSessionID());
-                } else {
-                    // This is a registered participant - send attendee reminder
-                    emailSent = emailService.sendAttendeeReminder(user, session, minutesBefore);
-                    log.info("Attendee reminder sent to {} for session {}", user.getPrimaryEmail(), session.getSessionID());
-                }
-                
-                if (emailSent) {
-                    reminderStatus.markAsSent();
-                    successCount++;
-                } else {
-                    reminderStatus.markAsFailed("Email sending failed");
-                    failureCount++;
-                    log.warn("Failed to send reminder to {} for session {}", user.getPrimaryEmail(), session.getSessionID());
-                }
-                
-                // Store reminder status
-                sentReminders.put(reminderKey, reminderStatus);
-                
-            } catch (Exception e) {
-                failureCount++;
-                log.error("Error sending reminder to user {} for session {}", user.getUsername(), session.getSessionID(), e);
-            }
-        }
+        // Warmed sessions only need a lookup for registrants added since the warm-up
+        List<UserDto> allUsers = resolveUsers(session, allUsernames);
         
-        log.info("Session reminder batch completed for session {}: {} sent, {} failed", 
-                session.getSessionID(), successCount, failureCount);
+        return enqueueReminders(batch, allUsers);
     }
     
     /**
-     * Send feedback reminders only to attendees (registered users, excluding the conductor)
+     * Feedback reminders go only to attendees (registered users, excluding the conductor)
      * UPDATED LOGIC: Works with usernames, excludes conductor from feedback
      */
-    private void sendFeedbackReminders(SessionDto session) {
-        log.info("Sending feedback reminders for session {}: {}", session.getSessionID(), session.getTitle());
+    private int resolveFeedbackRecipients(ReminderBatch batch) {
+        SessionDto session = batch.getSession();
+        log.debug("Resolving feedback reminders for session {}: {}", session.getSessionID(), session.getTitle());
         
         // Step 1: Get registered usernames from RARF table
-        List<String> registeredUsernames = sessionApiService.getRegisteredUsernamesBySession(session.getSessionID());
+        List<String> registeredUsernames = registeredUsernames(session);
         
         // Step 2: Remove the session creator/conductor from feedback recipients
         List<String> feedbackUsernames = new ArrayList<>(registeredUsernames);
@@ -228,64 +639,217 @@ public class ReminderSchedulerService {
         }
         
         if (feedbackUsernames.isEmpty()) {
-            log.info("No attendees found for session {} (excluding conductor), skipping feedback reminders", session.getSessionID());
-            return;
+            log.debug("No attendees found for session {} (excluding conductor), skipping feedback reminders", session.getSessionID());
+            return 0;
         }
         
         // Step 3: Get user details (with emails) for attendees only
-        List<UserDto> attendeeUsers = userApiService.getUsersByUsernames(feedbackUsernames);
+        List<UserDto> attendeeUsers = resolveUsers(session, feedbackUsernames);
         
-        int successCount = 0;
-        int failureCount = 0;
+        return enqueueReminders(batch, attendeeUsers);
+    }
+    
+    /**
+     * Registered usernames, from the session itself when it was read from the database with its recipients
+     * (those include the conductor, whom both callers add or remove anyway)
+     */
+    private List<String> registeredUsernames(SessionDto session) {
+        if (session.getRecipients() != null) {
+            return new ArrayList<>(session.getRecipients().keySet());
+        }
+        return sessionApiService.getRegisteredUsernamesBySession(session.getSessionID());
+    }
+    
+    private List<UserDto> resolveUsers(SessionDto session, List<String> usernames) {
+        if (session.getRecipients() != null) {
+            return usernames.stream()
+                    .map(session.getRecipients()::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+        return recipientCache.resolveUsers(session.getSessionID(), usernames);
+    }
+    
+    /**
+     * Claim a dedup slot for each recipient and pass new reminders on to the render stage
+     * Returns the number of reminders claimed
+     */
+    private int enqueueReminders(ReminderBatch batch, List<UserDto> users) {
+        SessionDto session = batch.getSession();
+        List<ReminderTask> tasks = new ArrayList<>();
         
-        for (UserDto user : attendeeUsers) {
-            try {
-                String reminderKey = generateReminderKey(session.getSessionID(), user.getUsername(), ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK);
-                
-                // Check if reminder already sent
-                if (sentReminders.containsKey(reminderKey)) {
-                    log.debug("Feedback reminder already sent: {}", reminderKey);
-                    continue;
-                }
-                
-                // Validate user has email
-                if (!user.hasValidEmail()) {
-                    log.warn("User {} has invalid email, skipping feedback reminder", user.getUsername());
-                    continue;
-                }
-                
-                // Create reminder status
-                ReminderStatus reminderStatus = ReminderStatus.create(
-                    session.getSessionID(), 
-                    user.getUsername(), 
-                    ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK, 
-                    user.getPrimaryEmail()
-                );
-                
-                // Send feedback reminder
-                boolean emailSent = emailService.sendFeedbackReminder(user, session);
-                
-                if (emailSent) {
-                    reminderStatus.markAsSent();
-                    successCount++;
-                    log.info("Feedback reminder sent to {} for session {}", user.getPrimaryEmail(), session.getSessionID());
-                } else {
-                    reminderStatus.markAsFailed("Email sending failed");
-                    failureCount++;
-                    log.warn("Failed to send feedback reminder to {} for session {}", user.getPrimaryEmail(), session.getSessionID());
-                }
-                
-                // Store reminder status
-                sentReminders.put(reminderKey, reminderStatus);
-                
-            } catch (Exception e) {
-                failureCount++;
-                log.error("Error sending feedback reminder to user {} for session {}", user.getUsername(), session.getSessionID(), e);
+        for (UserDto user : users) {
+            ReminderKey reminderKey = generateReminderKey(session.getSessionID(), user.getUsername(), batch.getReminderType());
+            
+            // Validate user has email
+            if (!user.hasValidEmail()) {
+                log.warn("User {} has invalid email, skipping reminder", user.getUsername());
+                continue;
+            }
+            
+            ReminderStatus reminderStatus = ReminderStatus.create(
+                session.getSessionID(), 
+                user.getUsername(), 
+                batch.getReminderType(), 
+                user.getPrimaryEmail()
+            );
+            
+            // Claim the reminder; skip if already sent, in flight, or out of retries
+            if (!reminderStatusStore.claim(reminderKey, session.getStartDateTime(), reminderStatus)) {
+                log.debug("Reminder already sent or pending: {}", reminderKey);
+                continue;
+            }
+            
+            boolean conductor = user.getUsername().equals(session.getCreatorUsername());
+            ReminderTask task = ReminderTask.create(batch, user, conductor, reminderKey, reminderStatus);
+            task.setPriority(dispatchPriority.taskPriority(batch, conductor));
+            tasks.add(task);
+        }
+        
+        // Reminders this process has not seen may still have been sent before a restart
+        if (!tasks.isEmpty()) {
+            Set<ReminderKey> alreadySent = reminderLedgerFront.findSent(session.getSessionID(), session.getStartDateTime(),
+                    tasks.stream().map(ReminderTask::getReminderKey).toList());
+            if (!alreadySent.isEmpty()) {
+                tasks.removeIf(task -> {
+                    if (!alreadySent.contains(task.getReminderKey())) {
+                        return false;
+                    }
+                    task.getStatus().markAsSent(LocalDateTime.now(clock));
+                    reminderStatusStore.markSent(task.getReminderKey(), session.getStartDateTime(), task.getStatus());
+                    return true;
+                });
+                log.info("Skipped {} {} reminders for session {} already recorded in the ledger",
+                        alreadySent.size(), batch.getReminderType(), session.getSessionID());
             }
         }
         
-        log.info("Feedback reminder batch completed for session {}: {} sent, {} failed", 
-                session.getSessionID(), successCount, failureCount);
+        if (tasks.isEmpty()) {
+            log.debug("No new {} reminders to send for session {}", batch.getReminderType(), session.getSessionID());
+            return 0;
+        }
+        
+        if (reminderOutbox != null) {
+            return handToOutbox(batch, tasks);
+        }
+        
+        // Register every recipient before the first hand-off so the batch cannot complete early
+        cycleRecipients.add(tasks.size());
+        Instant enqueuedAt = clock.instant();
+        tasks.forEach(task -> {
+            task.setEnqueuedAt(enqueuedAt);
+            batch.addRecipient();
+            reminderMetrics.recordClaimed(batch.getReminderType(), task.isConductor(), task.getStatus().getRetryCount() > 0);
+        });
+        tasks.forEach(renderStage::submit);
+        return tasks.size();
+    }
+    
+    /**
+     * Outbox mode: insert the claimed reminders as pending rows in one batch instead of rendering them here
+     * Once inserted the outbox owns delivery and retries, so the store only has to stop them being enqueued again;
+     * they are recorded as queued, and counted as sent by the outbox sender that delivers them
+     */
+    private int handToOutbox(ReminderBatch batch, List<ReminderTask> tasks) {
+        SessionDto session = batch.getSession();
+        Instant enqueuedAt = clock.instant();
+        tasks.forEach(task -> task.setEnqueuedAt(enqueuedAt));
+        try {
+            int inserted = reminderOutbox.enqueue(tasks);
+            tasks.forEach(task -> reminderStatusStore.markQueued(task.getReminderKey(), session.getStartDateTime(), task.getStatus()));
+            cycleRecipients.add(tasks.size());
+            outboxEnqueued.add(inserted);
+            log.debug("Enqueued {} {} reminders for session {} in the outbox ({} already there)",
+                    inserted, batch.getReminderType(), session.getSessionID(), tasks.size() - inserted);
+            return tasks.size();
+        } catch (DataAccessException e) {
+            // Nothing was handed over; release the claims so the next cycle tries again
+            tasks.forEach(task -> reminderStatusStore.release(task.getReminderKey(), session.getStartDateTime(), task.getStatus()));
+            outboxErrors.increment();
+            log.error("Could not enqueue {} {} reminders for session {} in the outbox",
+                    tasks.size(), batch.getReminderType(), session.getSessionID(), e);
+            return 0;
+        }
+    }
+    
+    /**
+     * Render stage: build the MIME message for a reminder
+     */
+    private void renderReminder(ReminderTask task) {
+        if (checkpointing) {
+            checkpointReminder(task);
+            return;
+        }
+        try {
+            task.setMessage(emailService.createReminderMessage(task));
+        } catch (Exception e) {
+            log.error("Error rendering reminder for user {} for session {}", 
+                    task.getUser().getUsername(), task.getSession().getSessionID(), e);
+            completeReminder(task, false, "Email rendering failed: " + e.getMessage());
+            return;
+        }
+        sendStage.submit(task);
+    }
+    
+    /**
+     * Send stage: hand the rendered message to SMTP and record the outcome
+     */
+    private void deliverReminder(ReminderTask task) {
+        // Fence: the session's partition may have moved since it was claimed; its new owner sends it instead
+        if (!sessionOwnership.owns(task.getSession().getSessionID())) {
+            releaseReminder(task);
+            return;
+        }
+        if (checkpointing) {
+            checkpointReminder(task);
+            return;
+        }
+        boolean emailSent = emailService.sendReminderMessage(task);
+        completeReminder(task, emailSent, "Email sending failed");
+    }
+    
+    private void releaseReminder(ReminderTask task) {
+        reminderStatusStore.release(task.getReminderKey(), task.getSession().getStartDateTime(), task.getStatus());
+        reminderMetrics.recordReleased();
+        releasedReminders.increment();
+        task.getBatch().complete(false);
+        log.debug("Released {} reminder for {} - session {} is no longer owned by this instance",
+                task.getReminderType(), task.getUser().getUsername(), task.getSession().getSessionID());
+    }
+    
+    /**
+     * Give up the claim on an unsent reminder and keep its recipient for the shutdown checkpoint
+     */
+    private void checkpointReminder(ReminderTask task) {
+        reminderStatusStore.release(task.getReminderKey(), task.getSession().getStartDateTime(), task.getStatus());
+        reminderMetrics.recordReleased();
+        task.getBatch().complete(false);
+        checkpointedRecipients.computeIfAbsent(task.getBatch(), batch -> new ConcurrentLinkedQueue<>()).add(task.getUser());
+    }
+    
+    private void completeReminder(ReminderTask task, boolean sent, String error) {
+        if (sent) {
+            task.getStatus().markAsSent(LocalDateTime.now(clock));
+            reminderStatusStore.markSent(task.getReminderKey(), task.getSession().getStartDateTime(), task.getStatus());
+            reminderLedgerFront.recordSent(task.getReminderKey(), task.getStatus(), task.getSession().getStartDateTime());
+        } else {
+            task.getStatus().markAsFailed(error);
+            reminderStatusStore.recordFailure(task.getReminderKey(), task.getSession().getStartDateTime(), task.getStatus());
+            log.warn("Failed to send {} reminder to {} for session {}", 
+                    task.getReminderType(), task.getUser().getPrimaryEmail(), task.getSession().getSessionID());
+        }
+        
+        reminderMetrics.recordOutcome(task.getReminderType(), task.isConductor(), sent);
+        if (sent) {
+            reminderLateness.record(task);
+        }
+        
+        ReminderBatch batch = task.getBatch();
+        if (batch.complete(sent)) {
+            log.info("{} reminder batch completed for session {}: {} sent, {} failed", 
+                    batch.getReminderType(), batch.getSession().getSessionID(), 
+                    batch.getSentCount().get(), batch.getFailedCount().get());
+        }
     }
     
     /**
@@ -293,7 +857,7 @@ public class ReminderSchedulerService {
      */
     private boolean shouldSendReminder(long minutesUntilStart, int targetMinutes) {
         // Send reminder if session is 10-30 minutes away (relaxed timing criteria)
-        return minutesUntilStart <= 30 && minutesUntilStart >= 10;
+        return minutesUntilStart <= REMINDER_WINDOW_OPENS_MINUTES && minutesUntilStart >= REMINDER_WINDOW_CLOSES_MINUTES;
     }
     
     /**
@@ -302,32 +866,29 @@ public class ReminderSchedulerService {
      */
     private boolean shouldSendFeedbackReminder(long minutesSinceEnd, int targetMinutes) {
         // Send reminder if session ended within the past 30 minutes
-        return minutesSinceEnd >= 0 && minutesSinceEnd <= 30;
+        return minutesSinceEnd >= 0 && minutesSinceEnd <= FEEDBACK_WINDOW_MINUTES;
     }
     
     /**
      * Generate unique key for reminder tracking
      * Uses username instead of user ID
      */
-    private String generateReminderKey(String sessionId, String username, ReminderStatus.ReminderType reminderType) {
-        return String.format("%s_%s_%s", sessionId, username, reminderType.name());
+    private ReminderKey generateReminderKey(String sessionId, String username, ReminderStatus.ReminderType reminderType) {
+        return ReminderKey.of(sessionId, username, reminderType);
     }
     
     /**
-     * Clean up old reminder statuses (older than 7 days)
+     * Clean up old reminder statuses
+     * Drops whole hourly buckets older than the retention period and releases stale pending/failed entries
      */
     @Scheduled(fixedDelayString = "${reminder.scheduler.cleanup-interval:3600000}")
     public void cleanupOldReminders() {
         log.info("Cleaning up old reminder statuses");
         
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7);
-        
-        sentReminders.entrySet().removeIf(entry -> {
-            ReminderStatus status = entry.getValue();
-            return status.getSentAt() != null && status.getSentAt().isBefore(cutoffDate);
-        });
+        reminderStatusStore.expire();
+        reminderLedgerFront.rebuildIfSaturated();
         
-        log.info("Cleanup completed. Current reminder cache size: {}", sentReminders.size());
+        log.info("Cleanup completed. Current reminder cache size: {}", reminderStatusStore.size());
     }
     
     /**
@@ -335,13 +896,17 @@ public class ReminderSchedulerService {
      */
     public String triggerManualReminder(String sessionId, ReminderStatus.ReminderType reminderType) {
         log.info("Manual trigger requested for session {} with reminder type {}", sessionId, reminderType);
+        if (draining) {
+            return "Reminder service is shutting down; trigger not accepted for session " + sessionId;
+        }
         
         try {
             // For manual triggers, we need to check both upcoming and completed sessions
             SessionDto targetSession = null;
+            LocalDateTime now = LocalDateTime.now(clock);
             
             // First check upcoming sessions
-            List<SessionDto> upcomingSessions = sessionApiService.getUpcomingSessions();
+            List<SessionDto> upcomingSessions = sessionApiService.getUpcomingSessions(now);
             targetSession = upcomingSessions.stream()
                     .filter(s -> s.getSessionID().equals(sessionId))
                     .findFirst()
@@ -349,7 +914,7 @@ public class ReminderSchedulerService {
             
             // If not found in upcoming, check completed sessions (for feedback reminders)
             if (targetSession == null && reminderType == ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK) {
-                List<SessionDto> completedSessions = sessionApiService.getRecentlyCompletedSessions();
+                List<SessionDto> completedSessions = sessionApiService.getRecentlyCompletedSessions(now);
                 targetSession = completedSessions.stream()
                         .filter(s -> s.getSessionID().equals(sessionId))
                         .findFirst()
@@ -363,10 +928,10 @@ public class ReminderSchedulerService {
             // Send appropriate reminder type
             switch (reminderType) {
                 case BEFORE_30_MIN:
-                    sendSessionReminders(targetSession, 30, reminderType);
+                    resolveStage.submit(newBatch(targetSession, reminderType, 30));
                     break;
                 case AFTER_30_MIN_FEEDBACK:
-                    sendFeedbackReminders(targetSession);
+                    resolveStage.submit(newBatch(targetSession, reminderType, 0));
                     break;
                 default:
                     return "Invalid reminder type: " + reminderType;
@@ -386,24 +951,68 @@ public class ReminderSchedulerService {
     public Map<String, Object> getReminderStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        long totalReminders = sentReminders.size();
-        long successfulReminders = sentReminders.values().stream()
-                .mapToLong(status -> status.isSent() ? 1 : 0)
-                .sum();
-        long failedReminders = totalReminders - successfulReminders;
+        // Held counts come from the store, in-flight from live counters; nothing here scans reminders
+        long totalReminders = reminderStatusStore.size();
+        long successfulReminders = reminderStatusStore.sentCount();
+        long queuedReminders = reminderStatusStore.queuedCount();
+        long pendingReminders = Math.min(reminderMetrics.inFlight(), totalReminders - successfulReminders - queuedReminders);
+        long failedReminders = totalReminders - successfulReminders - queuedReminders - pendingReminders;
         
         stats.put("totalReminders", totalReminders);
         stats.put("successfulReminders", successfulReminders);
+        stats.put("queuedReminders", queuedReminders);
+        stats.put("pendingReminders", pendingReminders);
         stats.put("failedReminders", failedReminders);
-        stats.put("cacheSize", sentReminders.size());
+        stats.put("cacheSize", reminderStatusStore.size());
+        stats.put("reminderStore", reminderStatusStore.toStats());
         
         // Count by type
-        Map<String, Long> byType = new HashMap<>();
-        sentReminders.values().forEach(status -> {
-            String type = status.getReminderType().name();
-            byType.put(type, byType.getOrDefault(type, 0L) + 1);
-        });
-        stats.put("remindersByType", byType);
+        stats.put("remindersByType", reminderMetrics.claimedByType());
+        stats.put("metrics", reminderMetrics.toStats());
+        stats.put("lateness", reminderLateness.toStats());
+        
+        Map<String, Object> pipeline = new LinkedHashMap<>();
+        pipelineStages().forEach(stage -> pipeline.put(stage.getName(), stage.toStats()));
+        stats.put("pipeline", pipeline);
+        
+        Map<String, Object> dispatch = new LinkedHashMap<>();
+        dispatch.put("backlog", dispatchBacklog());
+        dispatch.put("loadSheddingEnabled", loadSheddingEnabled);
+        dispatch.put("backlogThreshold", loadSheddingBacklogThreshold);
+        dispatch.put("deferredFeedbackBatches", deferredFeedbackBatches.sum());
+        stats.put("dispatch", dispatch);
+        
+        Map<String, Object> scheduler = new LinkedHashMap<>();
+        scheduler.put("cycleInProgress", cycleRunning.get());
+        scheduler.put("completedCycles", completedCycles.sum());
+        scheduler.put("firstCycleUptimeMs", firstCycleUptimeMs);
+        scheduler.put("skippedCycles", skippedCycles.sum());
+        AdaptivePollingCadence cadence = pollingCadenceProvider.getIfAvailable();
+        scheduler.put("polling", cadence != null ? cadence.toStats() : Map.of("mode", "fixed", "intervalMs", sessionCheckIntervalMs));
+        scheduler.put("draining", draining);
+        scheduler.put("resumedCheckpointBatches", resumedBatches.sum());
+        scheduler.put("expiredCheckpointBatches", expiredCheckpointBatches.sum());
+        stats.put("scheduler", scheduler);
+        stats.put("recipientCache", recipientCache.toStats());
+        stats.put("ledger", reminderLedgerFront.toStats());
+        
+        Map<String, Object> cluster = new LinkedHashMap<>(sessionOwnership.toStats());
+        cluster.put("unownedSessionsSkipped", unownedSessions.sum());
+        cluster.put("releasedReminders", releasedReminders.sum());
+        stats.put("cluster", cluster);
+        
+        catchUpServiceProvider.ifAvailable(catchUp -> stats.put("catchUp", catchUp.toStats()));
+        
+        if (reminderOutbox != null) {
+            Map<String, Object> outbox = new LinkedHashMap<>();
+            outbox.put("enqueued", outboxEnqueued.sum());
+            outbox.put("enqueueErrors", outboxErrors.sum());
+            OutboxSender sender = outboxSenderProvider.getIfAvailable();
+            if (sender != null) {
+                outbox.put("sender", sender.toStats());
+            }
+            stats.put("outbox", outbox);
+        }
         
         return stats;
     }
@@ -0,0 +1,292 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Dedup store for reminder statuses, bucketed by the hour the session starts
+ * 
+ * A reminder key always belongs to one session, so lookups go straight to that session's
+ * bucket. Expiry drops whole buckets older than the retention period instead of scanning
+ * every entry. Pending and failed statuses are additionally tracked in time-ordered queues
+ * so they are released after a much shorter retention without touching sent entries.
+ * 
+ * Only unsettled (pending or failed) reminders keep their full status object. Once a reminder
+ * is sent its key moves into a primitive {@link ReminderKeySet}, which is all the dedup check
+ * needs, so the bulk of the store costs 16 bytes per reminder rather than a string key plus a
+ * status object and its map entry.
+ * 
+ * In outbox mode a reminder handed to the outbox is only queued: its key moves into a separate
+ * set that blocks re-enqueueing just the same, but it is not counted as sent, since delivery
+ * happens later and possibly on another instance.
+ */
+@Component
+@Slf4j
+public class ReminderStatusStore implements MeterBinder {
+    
+    private final Clock clock;
+    
+    @Value("${reminder.store.retention-days:7}")
+    private long retentionDays;
+    
+    @Value("${reminder.store.pending-retention-minutes:120}")
+    private long pendingRetentionMinutes;
+    
+    @Value("${reminder.store.failed-retention-minutes:360}")
+    private long failedRetentionMinutes;
+    
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    
+    private final Queue<TrackedStatus> pendingQueue = new ConcurrentLinkedQueue<>();
+    private final Queue<TrackedStatus> failedQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong trackedPending = new AtomicLong();
+    private final AtomicLong trackedFailed = new AtomicLong();
+    
+    private final LongAdder expiredBuckets = new LongAdder();
+    private final LongAdder expiredPending = new LongAdder();
+    private final LongAdder expiredFailed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    
+    public ReminderStatusStore(Clock clock) {
+        this.clock = clock;
+    }
+    
+    private record TrackedStatus(ReminderKey key, long bucket, ReminderStatus status, long recordedAtMillis) {
+    }
+    
+    /**
+     * One hour of reminders; mutations synchronise on the bucket
+     */
+    private static final class Bucket {
+        private final ReminderKeySet sent = new ReminderKeySet();
+        private final ReminderKeySet queued = new ReminderKeySet();
+        private final Map<ReminderKey, ReminderStatus> unsettled = new ConcurrentHashMap<>();
+        
+        private long size() {
+            return sent.size() + queued.size() + unsettled.size();
+        }
+    }
+    
+    /**
+     * Claim a reminder for sending
+     * Succeeds if the key is new, or if a previous attempt failed and may still be retried.
+     */
+    public boolean claim(ReminderKey key, LocalDateTime sessionStart, ReminderStatus status) {
+        long bucketHour = bucketHour(sessionStart);
+        Bucket bucket = buckets.computeIfAbsent(bucketHour, hour -> new Bucket());
+        
+        synchronized (bucket) {
+            if (bucket.sent.contains(key) || bucket.queued.contains(key)) {
+                return false;
+            }
+            
+            ReminderStatus existing = bucket.unsettled.get(key);
+            if (existing == null) {
+                size.incrementAndGet();
+            } else if (isRetryable(existing)) {
+                status.setRetryCount(existing.getRetryCount());
+                retries.increment();
+            } else {
+                return false;
+            }
+            bucket.unsettled.put(key, status);
+        }
+        
+        pendingQueue.add(new TrackedStatus(key, bucketHour, status, clock.millis()));
+        trackedPending.incrementAndGet();
+        return true;
+    }
+    
+    /**
+     * Record that a claimed reminder was sent, keeping only its key from now on
+     */
+    public void markSent(ReminderKey key, LocalDateTime sessionStart, ReminderStatus status) {
+        Bucket bucket = buckets.get(bucketHour(sessionStart));
+        if (bucket == null) {
+            return;
+        }
+        
+        synchronized (bucket) {
+            boolean tracked = bucket.unsettled.remove(key, status);
+            if (bucket.sent.add(key)) {
+                sent.incrementAndGet();
+                if (!tracked) {
+                    size.incrementAndGet();
+                }
+            } else if (tracked) {
+                size.decrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Record that a claimed reminder was handed to the outbox, keeping only its key from now on
+     */
+    public void markQueued(ReminderKey key, LocalDateTime sessionStart, ReminderStatus status) {
+        Bucket bucket = buckets.get(bucketHour(sessionStart));
+        if (bucket == null) {
+            return;
+        }
+        
+        synchronized (bucket) {
+            boolean tracked = bucket.unsettled.remove(key, status);
+            if (bucket.queued.add(key)) {
+                queued.incrementAndGet();
+                if (!tracked) {
+                    size.incrementAndGet();
+                }
+            } else if (tracked) {
+                size.decrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Drop a claimed reminder that was never attempted, so a later claim starts afresh
+     */
+    public void release(ReminderKey key, LocalDateTime sessionStart, ReminderStatus status) {
+        Bucket bucket = buckets.get(bucketHour(sessionStart));
+        if (bucket == null) {
+            return;
+        }
+        
+        synchronized (bucket) {
+            if (bucket.unsettled.remove(key, status)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Record that a claimed reminder failed, so it is released after the failed retention
+     */
+    public void recordFailure(ReminderKey key, LocalDateTime sessionStart, ReminderStatus status) {
+        failedQueue.add(new TrackedStatus(key, bucketHour(sessionStart), status, clock.millis()));
+        trackedFailed.incrementAndGet();
+    }
+    
+    private static boolean isRetryable(ReminderStatus status) {
+        return !status.isPending() && status.shouldRetry();
+    }
+    
+    /**
+     * Drop buckets past the retention period and release stale pending/failed statuses
+     */
+    public void expire() {
+        long now = clock.millis();
+        long cutoffHour = bucketHour(LocalDateTime.now(clock).minusDays(retentionDays));
+        
+        Map.Entry<Long, Bucket> oldest;
+        while ((oldest = buckets.firstEntry()) != null && oldest.getKey() < cutoffHour) {
+            Bucket bucket = oldest.getValue();
+            if (buckets.remove(oldest.getKey(), bucket)) {
+                synchronized (bucket) {
+                    size.addAndGet(-bucket.size());
+                    sent.addAndGet(-bucket.sent.size());
+                    queued.addAndGet(-bucket.queued.size());
+                }
+                expiredBuckets.increment();
+            }
+        }
+        
+        long pendingCutoff = now - Duration.ofMinutes(pendingRetentionMinutes).toMillis();
+        drain(pendingQueue, trackedPending, pendingCutoff, ReminderStatus::isPending, expiredPending);
+        
+        long failedCutoff = now - Duration.ofMinutes(failedRetentionMinutes).toMillis();
+        drain(failedQueue, trackedFailed, failedCutoff, status -> !status.isSent() && !status.isPending(), expiredFailed);
+    }
+    
+    private void drain(Queue<TrackedStatus> queue, AtomicLong tracked, long cutoffMillis,
+                       Predicate<ReminderStatus> stillUnsettled, LongAdder counter) {
+        TrackedStatus head;
+        while ((head = queue.peek()) != null && head.recordedAtMillis() <= cutoffMillis) {
+            if (queue.poll() != null) {
+                tracked.decrementAndGet();
+            }
+            Bucket bucket = buckets.get(head.bucket());
+            if (bucket == null) {
+                continue;
+            }
+            synchronized (bucket) {
+                if (stillUnsettled.test(head.status()) && bucket.unsettled.remove(head.key(), head.status())) {
+                    size.decrementAndGet();
+                    counter.increment();
+                }
+            }
+        }
+    }
+    
+    private long bucketHour(LocalDateTime time) {
+        LocalDateTime bucketTime = time != null ? time : LocalDateTime.now(clock);
+        return bucketTime.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+    
+    /**
+     * Number of reminder statuses currently held
+     */
+    public long size() {
+        return size.get();
+    }
+    
+    /**
+     * Number of sent reminders currently held
+     */
+    public long sentCount() {
+        return sent.get();
+    }
+    
+    /**
+     * Number of reminders handed to the outbox currently held
+     */
+    public long queuedCount() {
+        return queued.get();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("reminder.store.size", size, AtomicLong::get)
+                .description("Reminders held for dedup, sent and unsettled")
+                .register(registry);
+        Gauge.builder("reminder.store.sent", sent, AtomicLong::get)
+                .description("Sent reminders held for dedup")
+                .register(registry);
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size.get());
+        stats.put("sent", sent.get());
+        stats.put("queued", queued.get());
+        stats.put("buckets", buckets.size());
+        stats.put("trackedPending", trackedPending.get());
+        stats.put("trackedFailed", trackedFailed.get());
+        stats.put("expiredBuckets", expiredBuckets.sum());
+        stats.put("expiredPending", expiredPending.sum());
+        stats.put("expiredFailed", expiredFailed.sum());
+        stats.put("retries", retries.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event count over a sliding time window, kept in a fixed ring of time slots
+ * 
+ * Recording touches one slot and reading sums a fixed number of slots, so both are constant
+ * time regardless of event volume. The window slides one slot at a time.
+ */
+public class RollingWindow {
+    
+    private final long slotMillis;
+    private final int slots;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray slotIds;
+    
+    public RollingWindow(long windowMillis, int slots) {
+        this.slots = slots;
+        this.slotMillis = Math.max(1, windowMillis / slots);
+        this.counts = new AtomicLongArray(slots);
+        this.slotIds = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            slotIds.set(i, -1);
+        }
+    }
+    
+    public void add(long nowMillis, long amount) {
+        long slotId = nowMillis / slotMillis;
+        int index = (int) (slotId % slots);
+        
+        long current = slotIds.get(index);
+        if (current != slotId && slotIds.compareAndSet(index, current, slotId)) {
+            // First writer into a recycled slot clears the stale count; an add racing the reset may be lost, fine for rates
+            counts.set(index, 0);
+        }
+        counts.addAndGet(index, amount);
+    }
+    
+    public long sum(long nowMillis) {
+        long oldestSlot = nowMillis / slotMillis - slots + 1;
+        long total = 0;
+        for (int i = 0; i < slots; i++) {
+            if (slotIds.get(i) >= oldestSlot) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+    
+    public long getWindowMillis() {
+        return slotMillis * slots;
+    }
+}
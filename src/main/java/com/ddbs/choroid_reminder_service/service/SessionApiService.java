@@ -7,18 +7,15 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import reactor.core.publisher.Mono;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -30,14 +27,19 @@ import java.util.stream.Collectors;
  * 
  * PLACEHOLDER ENDPOINTS - Replace these with actual endpoints
  * TODO: Update these URLs when actual microservice endpoints are available
+ * 
+ * With reminder.source.mode=jdbc the session searches go to the database instead and return
+ * sessions with their recipients attached, so no RARF or email calls follow. With push they are
+ * answered from the event-fed SessionEventStore the same way.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SessionApiService {
     
-    private final WebClient.Builder webClientBuilder;
+    private final GatewayClient gatewayClient;
     private final ObjectMapper objectMapper;
+    private final ObjectProvider<SessionDirectory> sessionDirectory;
     
     @Value("${api.gateway.base-url}")
     private String gatewayBaseUrl;
@@ -49,106 +51,93 @@ public class SessionApiService {
     private String rarfSessionRecordsEndpoint;
     
     /**
-     * Get upcoming sessions (starting within the next ~30-35 minutes)
+     * Get upcoming sessions (starting within ~30-35 minutes of the given time)
      * Uses POST /choroid/sessions/search with search criteria
      * 
      * Expected response format: { "success": true, "data": [SessionDto...] }
      */
-    public List<SessionDto> getUpcomingSessions() {
-        log.info("Searching for upcoming sessions using: {}{}", gatewayBaseUrl, sessionSearchEndpoint);
-        
+    public List<SessionDto> getUpcomingSessions(LocalDateTime now) {
+        return findUpcomingSessions(now).orElse(Collections.emptyList());
+    }
+    
+    /**
+     * Upcoming sessions, or empty when the search failed rather than found none
+     */
+    public Optional<List<SessionDto>> findUpcomingSessions(LocalDateTime now) {
+        return findSessionsStartingBetween(now, now.plusMinutes(35));
+    }
+    
+    /**
+     * Get recently completed sessions (ended within 30 minutes before the given time)
+     * Looks for sessions that started up to 90 minutes ago, which covers 60-minute sessions that
+     * ended 30 minutes ago as well as short ones that just ended
+     */
+    public List<SessionDto> getRecentlyCompletedSessions(LocalDateTime now) {
+        return findRecentlyCompletedSessions(now).orElse(Collections.emptyList());
+    }
+    
+    /**
+     * Recently completed sessions, or empty when the search failed rather than found none
+     */
+    public Optional<List<SessionDto>> findRecentlyCompletedSessions(LocalDateTime now) {
+        return findSessionsStartingBetween(now.minusMinutes(90), now);
+    }
+    
+    /**
+     * Get sessions starting within an arbitrary window
+     * Used by the recipient warm-up to find sessions ahead of their reminder window
+     */
+    public List<SessionDto> getSessionsStartingBetween(LocalDateTime from, LocalDateTime to) {
+        return findSessionsStartingBetween(from, to).orElse(Collections.emptyList());
+    }
+    
+    /**
+     * Sessions starting within the window, or empty when the search failed, whether against the gateway or the session directory
+     */
+    public Optional<List<SessionDto>> findSessionsStartingBetween(LocalDateTime from, LocalDateTime to) {
+        SessionDirectory directory = sessionDirectory.getIfAvailable();
+        if (directory == null) {
+            return findGatewaySessions(from, to);
+        }
         try {
-            WebClient webClient = webClientBuilder.baseUrl(gatewayBaseUrl).build();
-            
-            // Calculate time range for upcoming sessions (now to now + 35 minutes)
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime futureTime = now.plusMinutes(35);
-            
-            // Build search criteria for upcoming sessions
-            var searchCriteria = java.util.Map.of(
-                "startAfter", now.toString(),
-                "startBefore", futureTime.toString()
-            );
-            
-            String response = webClient.post()
-                    .uri(sessionSearchEndpoint)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(searchCriteria)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
-            
-            // Parse the API response
-            TypeReference<ApiResponse<List<SessionDto>>> typeRef = new TypeReference<>() {};
-            ApiResponse<List<SessionDto>> apiResponse = objectMapper.readValue(response, typeRef);
-            
-            // Get data from either 'data' or 'items' field (API may not have 'success' field)
-            List<SessionDto> sessions = apiResponse.getActualData();
-            log.info("Successfully fetched {} upcoming sessions", sessions != null ? sessions.size() : 0);
-            return sessions != null ? sessions : Collections.emptyList();
-            
-        } catch (WebClientResponseException e) {
-            log.error("HTTP error searching upcoming sessions - Status: {}, Body: {}", 
-                     e.getStatusCode(), e.getResponseBodyAsString());
-            return Collections.emptyList();
+            return Optional.of(directory.findSessionsWithRecipients(from, to));
         } catch (Exception e) {
-            log.error("Error searching upcoming sessions", e);
-            return Collections.emptyList();
+            log.error("Error reading sessions starting between {} and {} from the session directory", from, to, e);
+            return Optional.empty();
         }
     }
     
     /**
-     * Get recently completed sessions (ended within the last 30 minutes)
-     * Uses POST /choroid/sessions/search with search criteria for completed sessions
-     * 
-     * Expected response format: { "success": true, "data": [SessionDto...] }
+     * Session search against the gateway whatever the source mode, or empty when the search failed
+     * Used by the push-mode reconciliation pass, which must not read back its own store
      */
-    public List<SessionDto> getRecentlyCompletedSessions() {
-        log.info("Searching for recently completed sessions using: {}{}", gatewayBaseUrl, sessionSearchEndpoint);
+    public Optional<List<SessionDto>> findGatewaySessions(LocalDateTime from, LocalDateTime to) {
+        log.debug("Searching for sessions starting between {} and {}", from, to);
         
         try {
-            WebClient webClient = webClientBuilder.baseUrl(gatewayBaseUrl).build();
-            
-            // Calculate time range for completed sessions
-            // We want sessions that ended within the past 30 minutes
-            // Look for sessions that started up to 90 minutes ago (covers 60-min sessions that ended 30 min ago)
-            // and as recently as now (covers short sessions that just ended)
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime from = now.minusMinutes(90);   // Started up to 90 minutes ago
-            LocalDateTime to = now;                       // Up to right now
-            
-            // Build search criteria for completed sessions (sessions that started and should have ended)
             var searchCriteria = java.util.Map.of(
                 "startAfter", from.toString(),
                 "startBefore", to.toString()
             );
             
-            String response = webClient.post()
-                    .uri(sessionSearchEndpoint)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(searchCriteria)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+            String response = gatewayClient.post(GatewayClient.Endpoint.SESSION_SEARCH, sessionSearchEndpoint, searchCriteria);
             
-            // Parse the API response
             TypeReference<ApiResponse<List<SessionDto>>> typeRef = new TypeReference<>() {};
             ApiResponse<List<SessionDto>> apiResponse = objectMapper.readValue(response, typeRef);
             
-            // Get data from either 'data' or 'items' field (API may not have 'success' field)
             List<SessionDto> sessions = apiResponse.getActualData();
-            log.info("Successfully fetched {} recently completed sessions", sessions != null ? sessions.size() : 0);
-            return sessions != null ? sessions : Collections.emptyList();
+            return Optional.of(sessions != null ? sessions : Collections.emptyList());
             
+        } catch (GatewayCircuitOpenException e) {
+            log.warn("Skipping session search between {} and {}: {}", from, to, e.getMessage());
+            return Optional.empty();
         } catch (WebClientResponseException e) {
-            log.error("HTTP error searching completed sessions - Status: {}, Body: {}", 
-                     e.getStatusCode(), e.getResponseBodyAsString());
-            return Collections.emptyList();
+            log.error("HTTP error searching sessions between {} and {} - Status: {}, Body: {}", 
+                     from, to, e.getStatusCode(), e.getResponseBodyAsString());
+            return Optional.empty();
         } catch (Exception e) {
-            log.error("Error searching completed sessions", e);
-            return Collections.emptyList();
+            log.error("Error searching sessions between {} and {}", from, to, e);
+            return Optional.empty();
         }
     }
     
@@ -161,19 +150,19 @@ public class SessionApiService {
      * Returns array of RARF objects directly (not wrapped in ApiResponse)
      */
     public List<String> getRegisteredUsernamesBySession(String sessionID) {
-        log.info("Fetching RARF usernames for session {} from: {}{}", sessionID, gatewayBaseUrl, rarfSessionRecordsEndpoint);
+        return findRegisteredUsernamesBySession(sessionID).orElse(Collections.emptyList());
+    }
+    
+    /**
+     * Usernames registered for the session, or empty when the RARF lookup failed
+     */
+    public Optional<List<String>> findRegisteredUsernamesBySession(String sessionID) {
+        log.debug("Fetching RARF usernames for session {} from: {}{}", sessionID, gatewayBaseUrl, rarfSessionRecordsEndpoint);
         
         try {
-            WebClient webClient = webClientBuilder.baseUrl(gatewayBaseUrl).build();
-            
             String endpoint = rarfSessionRecordsEndpoint.replace("{sessionId}", sessionID);
             
-            String response = webClient.get()
-                    .uri(endpoint)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+            String response = gatewayClient.get(GatewayClient.Endpoint.RARF, endpoint);
             
             // Parse response - expecting direct array of RARF objects
             TypeReference<List<RarfDto>> typeRef = new TypeReference<>() {};
@@ -185,16 +174,19 @@ public class SessionApiService {
                     .filter(userId -> userId != null && !userId.isEmpty())
                     .collect(Collectors.toList());
             
-            log.info("Successfully fetched {} usernames (RARF records) for session {}", usernames.size(), sessionID);
-            return usernames;
+            log.debug("Successfully fetched {} usernames (RARF records) for session {}", usernames.size(), sessionID);
+            return Optional.of(usernames);
             
+        } catch (GatewayCircuitOpenException e) {
+            log.warn("Skipping RARF lookup for session {}: {}", sessionID, e.getMessage());
+            return Optional.empty();
         } catch (WebClientResponseException e) {
             log.error("HTTP error fetching RARF usernames for session {} - Status: {}, Body: {}", 
                      sessionID, e.getStatusCode(), e.getResponseBodyAsString());
-            return Collections.emptyList();
+            return Optional.empty();
         } catch (Exception e) {
             log.error("Error fetching RARF usernames for session {}", sessionID, e);
-            return Collections.emptyList();
+            return Optional.empty();
         }
     }
 }
\ No newline at end of file
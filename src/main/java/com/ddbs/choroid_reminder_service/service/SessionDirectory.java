@@ -0,0 +1,18 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Direct read of sessions together with their recipients, replacing the per-session gateway calls
+ */
+public interface SessionDirectory {
+    
+    /**
+     * Sessions starting strictly inside the window, each with its recipients map filled in
+     * A failed read throws rather than returning an empty list
+     */
+    List<SessionDto> findSessionsWithRecipients(LocalDateTime startAfter, LocalDateTime startBefore);
+}
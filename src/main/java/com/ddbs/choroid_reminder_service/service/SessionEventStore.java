@@ -0,0 +1,296 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.RegistrationEventDto;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local copy of sessions and registrations, kept current by change events (reminder.source.mode=push)
+ * 
+ * Session created/updated/cancelled and registration added/removed events arrive through
+ * SessionEventController and are applied here, so a scheduler cycle reads its windows from
+ * memory with recipients attached, the same shape the jdbc source returns. Emails missing
+ * from an event are looked up once when it arrives rather than on every cycle.
+ * 
+ * The gateway is only polled by a slow reconciliation pass that repairs missed events. A
+ * successful search also drops stored sessions in its window that the gateway no longer
+ * returns, and a successful RARF lookup drops registrants it no longer lists; when a call
+ * fails, nothing it would have covered is removed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.source.mode", havingValue = "push")
+public class SessionEventStore implements SessionDirectory {
+    
+    private final SessionApiService sessionApiService;
+    private final UserApiService userApiService;
+    private final Clock clock;
+    
+    // Reconciliation covers the feedback window behind now and this far ahead
+    @Value("${reminder.source.push.reconcile-lookahead-hours:24}")
+    private long reconcileLookaheadHours;
+    
+    // Sessions are dropped once they started this long ago, well after their feedback reminders
+    @Value("${reminder.source.push.retain-hours:3}")
+    private long retainHours;
+    
+    private final Map<String, StoredSession> sessions = new ConcurrentHashMap<>();
+    
+    private final LongAdder sessionEvents = new LongAdder();
+    private final LongAdder cancelEvents = new LongAdder();
+    private final LongAdder registrationEvents = new LongAdder();
+    private final LongAdder unregistrationEvents = new LongAdder();
+    private final LongAdder unresolvedUsers = new LongAdder();
+    private final LongAdder reconcileRuns = new LongAdder();
+    private final LongAdder reconcileRepairs = new LongAdder();
+    private final LongAdder reconcileFailures = new LongAdder();
+    private volatile LocalDateTime lastReconcile;
+    
+    /**
+     * A session as last announced, with its conductor and registrants in registration order
+     * The session is null while only registrations for it have arrived; entries are replaced, never mutated
+     */
+    private record StoredSession(SessionDto session, UserDto conductor, Map<String, UserDto> registrants) {
+        
+        static final StoredSession EMPTY = new StoredSession(null, null, Map.of());
+        
+        StoredSession withSession(SessionDto session, UserDto conductor) {
+            return new StoredSession(session, conductor, registrants);
+        }
+        
+        StoredSession withRegistrant(UserDto user) {
+            Map<String, UserDto> updated = new LinkedHashMap<>(registrants);
+            updated.put(user.getUsername(), user);
+            return new StoredSession(session, conductor, updated);
+        }
+        
+        StoredSession withoutRegistrant(String username) {
+            Map<String, UserDto> updated = new LinkedHashMap<>(registrants);
+            updated.remove(username);
+            return new StoredSession(session, conductor, updated);
+        }
+    }
+    
+    /**
+     * Session created or updated; registrations already stored for it are kept
+     */
+    public void upsertSession(SessionDto session) {
+        if (session.getSessionID() == null || session.getStartDateTime() == null) {
+            throw new IllegalArgumentException("A session event needs an id and a start time");
+        }
+        StoredSession current = sessions.get(session.getSessionID());
+        UserDto conductor = current != null && current.conductor() != null
+                && Objects.equals(current.conductor().getUsername(), session.getCreatorId())
+                ? current.conductor()
+                : resolveUser(session.getCreatorId(), null, null);
+        SessionDto copy = copyOf(session, null);
+        sessions.compute(session.getSessionID(),
+                (id, stored) -> (stored != null ? stored : StoredSession.EMPTY).withSession(copy, conductor));
+        sessionEvents.increment();
+        log.debug("Session {} stored for reminders, starting {}", session.getSessionID(), session.getStartDateTime());
+    }
+    
+    /**
+     * Session cancelled; returns false when it was not known
+     */
+    public boolean cancelSession(String sessionId) {
+        cancelEvents.increment();
+        boolean removed = sessions.remove(sessionId) != null;
+        log.debug("Session {} cancelled ({})", sessionId, removed ? "removed" : "not stored");
+        return removed;
+    }
+    
+    /**
+     * Registration added; returns false when no email could be found for the user
+     */
+    public boolean addRegistration(String sessionId, String username, RegistrationEventDto event) {
+        registrationEvents.increment();
+        UserDto user = resolveUser(username, event != null ? event.getEmail() : null, event != null ? event.getName() : null);
+        if (user == null) {
+            return false;
+        }
+        sessions.compute(sessionId, (id, stored) -> (stored != null ? stored : StoredSession.EMPTY).withRegistrant(user));
+        return true;
+    }
+    
+    /**
+     * Registration removed; returns false when it was not known
+     */
+    public boolean removeRegistration(String sessionId, String username) {
+        unregistrationEvents.increment();
+        StoredSession before = sessions.get(sessionId);
+        if (before == null || !before.registrants().containsKey(username)) {
+            return false;
+        }
+        sessions.computeIfPresent(sessionId, (id, stored) -> stored.withoutRegistrant(username));
+        return true;
+    }
+    
+    @Override
+    public List<SessionDto> findSessionsWithRecipients(LocalDateTime startAfter, LocalDateTime startBefore) {
+        return sessions.values().stream()
+                .filter(stored -> stored.session() != null)
+                .filter(stored -> stored.session().getStartDateTime().isAfter(startAfter)
+                        && stored.session().getStartDateTime().isBefore(startBefore))
+                .sorted(Comparator.comparing((StoredSession stored) -> stored.session().getStartDateTime())
+                        .thenComparing(stored -> stored.session().getSessionID()))
+                .map(SessionEventStore::withRecipients)
+                .toList();
+    }
+    
+    /**
+     * A fresh session and recipients map per read, conductor first, so callers cannot change the store
+     */
+    private static SessionDto withRecipients(StoredSession stored) {
+        Map<String, UserDto> recipients = new LinkedHashMap<>();
+        if (stored.conductor() != null) {
+            recipients.put(stored.conductor().getUsername(), stored.conductor());
+        }
+        stored.registrants().forEach(recipients::putIfAbsent);
+        return copyOf(stored.session(), recipients);
+    }
+    
+    private static SessionDto copyOf(SessionDto session, Map<String, UserDto> recipients) {
+        return new SessionDto(session.getId(), session.getCreatorId(), session.getTitle(), session.getStart(),
+                session.getDuration(), session.getTags() != null ? List.copyOf(session.getTags()) : null,
+                session.getMeetingLink(), session.getResourcesLink(), recipients);
+    }
+    
+    private UserDto resolveUser(String username, String email, String name) {
+        if (username == null || username.isBlank()) {
+            return null;
+        }
+        String resolved = email != null && !email.isBlank() ? email : userApiService.getEmailByUsername(username).orElse(null);
+        if (resolved == null) {
+            unresolvedUsers.increment();
+            log.warn("No email for user {}; left for the next reconciliation pass", username);
+            return null;
+        }
+        UserDto user = UserApiService.buildUser(username, resolved);
+        if (name != null && !name.isBlank()) {
+            user.setName(name);
+        }
+        return user;
+    }
+    
+    /**
+     * Slow pass over the gateway that repairs missed events, then drops finished sessions
+     * Runs at start-up too, which fills the store before the first events arrive
+     */
+    @Scheduled(fixedDelayString = "${reminder.source.push.reconcile-interval:3600000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime from = now.minusMinutes(90);
+        LocalDateTime to = now.plusHours(reconcileLookaheadHours);
+        long repairs = 0;
+        
+        // Entries an event changes while the search runs differ from this snapshot and are left alone
+        Map<String, StoredSession> snapshot = Map.copyOf(sessions);
+        Optional<List<SessionDto>> search = sessionApiService.findGatewaySessions(from, to);
+        List<SessionDto> found = search.orElse(List.of());
+        Set<String> foundIds = new HashSet<>();
+        for (SessionDto session : found) {
+            if (session.getSessionID() == null || session.getStartDateTime() == null) {
+                continue;
+            }
+            foundIds.add(session.getSessionID());
+            StoredSession stored = sessions.get(session.getSessionID());
+            if (stored == null || !Objects.equals(stored.session(), copyOf(session, null))) {
+                upsertSession(session);
+                repairs++;
+            }
+            repairs += reconcileRegistrants(session.getSessionID());
+        }
+        
+        if (search.isPresent()) {
+            for (Map.Entry<String, StoredSession> entry : snapshot.entrySet()) {
+                SessionDto session = entry.getValue().session();
+                if (session != null && !foundIds.contains(entry.getKey())
+                        && session.getStartDateTime().isAfter(from) && session.getStartDateTime().isBefore(to)
+                        && sessions.remove(entry.getKey(), entry.getValue())) {
+                    repairs++;
+                }
+            }
+        } else {
+            reconcileFailures.increment();
+            log.warn("Session search failed during reconciliation; keeping every stored session");
+        }
+        
+        // Registrations whose session never arrived, and sessions past their feedback window
+        LocalDateTime retainAfter = now.minusHours(retainHours);
+        int before = sessions.size();
+        sessions.values().removeIf(stored -> stored.session() == null || stored.session().getStartDateTime().isBefore(retainAfter));
+        
+        reconcileRuns.increment();
+        reconcileRepairs.add(repairs);
+        lastReconcile = now;
+        if (repairs > 0) {
+            log.warn("Reconciliation repaired {} missed session/registration events over {} gateway sessions", repairs, found.size());
+        }
+        log.info("Reconciled session store: {} sessions from the gateway, {} repairs, {} entries dropped, {} stored",
+                found.size(), repairs, before - sessions.size(), sessions.size());
+    }
+    
+    /**
+     * Bring a session's registrants in line with RARF; returns the number added or dropped
+     * Registrants added by an event while the lookup runs are not in the snapshot, so they are kept
+     */
+    private long reconcileRegistrants(String sessionId) {
+        Map<String, UserDto> registrants = sessions.getOrDefault(sessionId, StoredSession.EMPTY).registrants();
+        Optional<List<String>> lookup = sessionApiService.findRegisteredUsernamesBySession(sessionId);
+        if (lookup.isEmpty()) {
+            reconcileFailures.increment();
+            return 0;
+        }
+        long repairs = 0;
+        Set<String> listed = new HashSet<>(lookup.get());
+        for (String username : listed) {
+            if (!registrants.containsKey(username) && addRegistration(sessionId, username, null)) {
+                repairs++;
+            }
+        }
+        for (String username : registrants.keySet()) {
+            if (!listed.contains(username)) {
+                sessions.computeIfPresent(sessionId, (id, stored) -> stored.withoutRegistrant(username));
+                repairs++;
+            }
+        }
+        return repairs;
+    }
+    
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("registrations", sessions.values().stream().mapToInt(stored -> stored.registrants().size()).sum());
+        stats.put("sessionEvents", sessionEvents.sum());
+        stats.put("cancelEvents", cancelEvents.sum());
+        stats.put("registrationEvents", registrationEvents.sum());
+        stats.put("unregistrationEvents", unregistrationEvents.sum());
+        stats.put("unresolvedUsers", unresolvedUsers.sum());
+        stats.put("reconcileRuns", reconcileRuns.sum());
+        stats.put("reconcileRepairs", reconcileRepairs.sum());
+        stats.put("reconcileFailures", reconcileFailures.sum());
+        stats.put("lastReconcile", lastReconcile != null ? lastReconcile.toString() : null);
+        return stats;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import java.util.Map;
+
+/**
+ * Which sessions this instance is responsible for when several replicas share the workload
+ */
+public interface SessionOwnership {
+    
+    /**
+     * A single instance owns every session
+     */
+    SessionOwnership SINGLE_NODE = sessionId -> true;
+    
+    /**
+     * Whether this instance may claim and send reminders for the session right now
+     */
+    boolean owns(String sessionId);
+    
+    /**
+     * Stop working on any session and let the other instances take over, ahead of shutdown
+     */
+    default void leave() {
+    }
+    
+    default Map<String, Object> toStats() {
+        return Map.of("mode", "single-node");
+    }
+}
@@ -0,0 +1,135 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.PendingReminderBatch;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Orderly start and stop of reminder dispatch around a restart
+ * 
+ * On shutdown this is the first lifecycle bean stopped, ahead of the web server, and it:
+ * - sets readiness to REFUSING_TRAFFIC, so load balancers stop routing to the instance
+ * - leaves the cluster, so other instances take its partitions and its queued sends are released at the fence
+ * - stops discovery: no new cycles, manual triggers or resumed work
+ * - gives the pipeline drain-timeout-ms to finish the reminders already queued and in flight
+ * - takes anything still unsent out of the pipeline and writes it to the checkpoint file
+ * 
+ * On start the checkpoint is read back and handed to the first cycle, which resumes what is still due.
+ * The file is local to the instance; reminders it does not cover are found again by discovery.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "reminder.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class ShutdownCoordinator implements SmartLifecycle {
+    
+    private final ReminderSchedulerService reminderSchedulerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<SessionOwnership> sessionOwnershipProvider;
+    
+    @Value("${reminder.shutdown.drain-timeout-ms:20000}")
+    private long drainTimeoutMs;
+    
+    // How long diverting the leftovers may take; sends still running after it are abandoned
+    @Value("${reminder.shutdown.checkpoint-timeout-ms:5000}")
+    private long checkpointTimeoutMs;
+    
+    @Value("${reminder.shutdown.checkpoint-file:data/reminder-checkpoint.json}")
+    private String checkpointFile;
+    
+    private volatile boolean running;
+    
+    @Override
+    public void start() {
+        running = true;
+        Path file = Path.of(checkpointFile);
+        try {
+            List<PendingReminderBatch> pending = readCheckpoint(objectMapper, file);
+            if (!pending.isEmpty()) {
+                reminderSchedulerService.resumeOnNextCycle(pending);
+                log.info("Loaded {} unsent reminder batches from the shutdown checkpoint {}", pending.size(), file);
+            }
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Could not read the shutdown checkpoint {}; leaving it for inspection and relying on discovery", file, e);
+        }
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        long startedAt = System.currentTimeMillis();
+        log.info("Shutting down reminder dispatch: refusing traffic and draining the pipeline for up to {} ms", drainTimeoutMs);
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        sessionOwnershipProvider.ifAvailable(SessionOwnership::leave);
+        
+        try {
+            if (reminderSchedulerService.drain(drainTimeoutMs)) {
+                log.info("Reminder pipeline drained in {} ms", System.currentTimeMillis() - startedAt);
+                return;
+            }
+            List<PendingReminderBatch> pending = reminderSchedulerService.checkpoint(checkpointTimeoutMs);
+            if (pending.isEmpty()) {
+                return;
+            }
+            int recipients = pending.stream().mapToInt(entry -> entry.getRecipients() != null ? entry.getRecipients().size() : 0).sum();
+            writeCheckpoint(objectMapper, Path.of(checkpointFile), pending);
+            log.warn("Reminder pipeline did not drain within {} ms; checkpointed {} batches ({} known recipients) to {}",
+                    drainTimeoutMs, pending.size(), recipients, checkpointFile);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while draining the reminder pipeline; unsent reminders are left to discovery after restart");
+        } catch (IOException e) {
+            log.error("Could not write the shutdown checkpoint {}; unsent reminders are left to discovery after restart", checkpointFile, e);
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Write through a temporary file and rename, so a crash mid-write never leaves a truncated checkpoint
+     */
+    static void writeCheckpoint(ObjectMapper objectMapper, Path file, List<PendingReminderBatch> pending) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(temporary.toFile(), pending);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Checkpointed batches, or none when no checkpoint was left
+     */
+    static List<PendingReminderBatch> readCheckpoint(ObjectMapper objectMapper, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        // The DTOs serialise derived getters too; those are not properties to read back
+        return objectMapper.copy()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(file.toFile(), new TypeReference<List<PendingReminderBatch>>() { });
+    }
+}
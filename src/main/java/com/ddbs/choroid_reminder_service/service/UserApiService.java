@@ -8,10 +8,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +25,7 @@ import java.util.Optional;
 @Slf4j
 public class UserApiService {
     
-    private final WebClient.Builder webClientBuilder;
+    private final GatewayClient gatewayClient;
     private final ObjectMapper objectMapper;
     
     @Value("${api.gateway.base-url}")
@@ -48,29 +46,25 @@ public class UserApiService {
             return Optional.empty();
         }
         
-        log.info("Fetching email for username: {}", username);
+        log.debug("Fetching email for username: {}", username);
         
         try {
-            WebClient webClient = webClientBuilder.baseUrl(gatewayBaseUrl).build();
-            
             String endpoint = findEmailEndpoint.replace("{username}", username);
             
-            String email = webClient.get()
-                    .uri(endpoint)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+            String email = gatewayClient.get(GatewayClient.Endpoint.USER_EMAIL, endpoint);
             
             // Response is plain text email address
             if (email != null && !email.trim().isEmpty() && email.contains("@")) {
-                log.info("Successfully fetched email for username {}: {}", username, email.trim());
+                log.debug("Successfully fetched email for username {}: {}", username, email.trim());
                 return Optional.of(email.trim());
             } else {
                 log.warn("No valid email found for username: {} (received: {})", username, email);
                 return Optional.empty();
             }
             
+        } catch (GatewayCircuitOpenException e) {
+            log.warn("Skipping email lookup for username {}: {}", username, e.getMessage());
+            return Optional.empty();
         } catch (WebClientResponseException e) {
             log.error("HTTP error fetching email for username {} - Status: {}, Body: {}", 
                      username, e.getStatusCode(), e.getResponseBodyAsString());
@@ -90,7 +84,7 @@ public class UserApiService {
             return Collections.emptyList();
         }
         
-        log.info("Fetching user details for {} usernames", usernames.size());
+        log.debug("Fetching user details for {} usernames", usernames.size());
         
         List<UserDto> users = new java.util.ArrayList<>();
         
@@ -98,19 +92,24 @@ public class UserApiService {
             Optional<String> emailOpt = getEmailByUsername(username);
             
             if (emailOpt.isPresent()) {
-                // Create UserDto with available information
-                UserDto user = UserDto.builder()
-                        .username(username)
-                        .personalEmail(emailOpt.get())
-                        .name(username) // Using username as display name
-                        .build();
-                users.add(user);
+                users.add(buildUser(username, emailOpt.get()));
             } else {
                 log.warn("Skipping username {} - no email found", username);
             }
         }
         
-        log.info("Successfully created {} user objects from {} usernames", users.size(), usernames.size());
+        log.debug("Successfully created {} user objects from {} usernames", users.size(), usernames.size());
         return users;
     }
+    
+    /**
+     * Create UserDto with available information (username and email only)
+     */
+    public static UserDto buildUser(String username, String email) {
+        return UserDto.builder()
+                .username(username)
+                .personalEmail(email)
+                .name(username) // Using username as display name
+                .build();
+    }
 }
@@ -0,0 +1,506 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reminder ledger in local memory-mapped log files, for deployments without the service database
+ * 
+ * Each sent reminder appends one fixed 32-byte record (session start hour, key, CRC) to the
+ * active segment, a preallocated file mapped into memory, and its key goes into an hourly
+ * ReminderKeySet bucket the way the in-memory store keeps them, so a lookup for a session
+ * probes only the bucket of its start hour. Appends are made durable by
+ * group commit: with sync-interval-ms=0 a send waits until a force covers its record, and one
+ * force covers everything appended before it; a positive interval forces in the background
+ * instead, so a crash can lose that last interval and resend those reminders once.
+ * 
+ * A periodic snapshot rolls to a new segment, writes the buckets still inside the store
+ * retention to one checksummed file and deletes the segments it covers, which also compacts
+ * away expired keys. Start-up loads the newest valid snapshot and replays the segments after
+ * it, stopping at the first torn record of a segment.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnExpression("${reminder.ledger.enabled:false} and '${reminder.ledger.store:jdbc}' == 'wal'")
+public class WalReminderLedger implements ReminderLedger {
+    
+    // magic(4) crc(4) hour(8) hi(8) lo(8); the CRC covers hour, hi and lo
+    static final int RECORD_SIZE = 32;
+    private static final int RECORD_MAGIC = 0x524C5731;
+    private static final int SNAPSHOT_MAGIC = 0x524C5331;
+    
+    private final Clock clock;
+    
+    @Value("${reminder.ledger.wal.dir:data/reminder-wal}")
+    private String dir;
+    
+    @Value("${reminder.ledger.wal.segment-size-mb:64}")
+    private int segmentSizeMb;
+    
+    // 0 = group commit before each send returns; >0 = background force at this interval
+    @Value("${reminder.ledger.wal.sync-interval-ms:0}")
+    private long syncIntervalMs;
+    
+    @Value("${reminder.store.retention-days:7}")
+    private long retentionDays;
+    
+    // Buckets, the active segment and the append counters are guarded by lock; forces by syncLock
+    private final Object lock = new Object();
+    private final Object syncLock = new Object();
+    private final TreeMap<Long, ReminderKeySet> buckets = new TreeMap<>();
+    private final byte[] record = new byte[RECORD_SIZE];
+    private final ByteBuffer recordBuffer = ByteBuffer.wrap(record);
+    private final CRC32C crc = new CRC32C();
+    
+    private Path directory;
+    private Segment active;
+    private long appendedBytes;
+    private long syncedBytes;
+    private ScheduledExecutorService syncer;
+    
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    private volatile long recoveredRecords;
+    private volatile long recoveryMillis;
+    private volatile LocalDateTime lastSnapshot;
+    
+    private static final class Segment {
+        private final long seq;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int syncedPosition;
+        
+        private Segment(long seq, FileChannel channel, MappedByteBuffer buffer) {
+            this.seq = seq;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+    
+    @PostConstruct
+    void open() throws IOException {
+        long startTime = System.nanoTime();
+        directory = Path.of(dir);
+        Files.createDirectories(directory);
+        
+        // Older snapshots are only deleted after a newer one is in place, so fall back if the newest is damaged
+        long replayFrom = 0;
+        long snapshotKeys = 0;
+        List<Long> snapshotSeqs = sequences("snapshot-", ".bin");
+        for (int i = snapshotSeqs.size() - 1; i >= 0; i--) {
+            try {
+                snapshotKeys = loadSnapshot(snapshotPath(snapshotSeqs.get(i)));
+                replayFrom = snapshotSeqs.get(i);
+                break;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable reminder ledger snapshot {}", snapshotPath(snapshotSeqs.get(i)), e);
+                buckets.clear();
+            }
+        }
+        
+        long records = 0;
+        int replayedSegments = 0;
+        List<Long> segmentSeqs = sequences("wal-", ".log");
+        for (long seq : segmentSeqs) {
+            if (seq >= replayFrom) {
+                records += replaySegment(segmentPath(seq));
+                replayedSegments++;
+            }
+        }
+        dropExpired();
+        
+        // Appends always start a fresh segment, so a torn tail is never written over
+        long nextSeq = Math.max(replayFrom, segmentSeqs.isEmpty() ? 0 : segmentSeqs.get(segmentSeqs.size() - 1) + 1);
+        synchronized (lock) {
+            active = openSegment(nextSeq);
+        }
+        if (syncIntervalMs > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "reminder-wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(() -> sync(Long.MAX_VALUE), syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        
+        recoveredRecords = records;
+        recoveryMillis = (System.nanoTime() - startTime) / 1_000_000;
+        log.info("Reminder ledger recovered from {}: {} keys from snapshot, {} records from {} segments, {} keys retained in {} ms",
+                directory.toAbsolutePath(), snapshotKeys, records, replayedSegments, keyCount(), recoveryMillis);
+    }
+    
+    @PreDestroy
+    void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        synchronized (lock) {
+            if (active != null) {
+                active.buffer.force();
+                active.channel.close();
+                active = null;
+            }
+        }
+    }
+    
+    @Override
+    public void recordSent(ReminderKey key, ReminderStatus status, LocalDateTime sessionStart) {
+        long hour = hourOf(sessionStart != null ? sessionStart : LocalDateTime.now(clock));
+        long end;
+        synchronized (lock) {
+            ensureOpen();
+            if (!buckets.computeIfAbsent(hour, h -> new ReminderKeySet()).add(key)) {
+                return;
+            }
+            append(hour, key);
+            end = appendedBytes;
+        }
+        appends.increment();
+        if (syncIntervalMs <= 0) {
+            sync(end);
+        }
+    }
+    
+    @Override
+    public Set<ReminderKey> findSent(String sessionId, LocalDateTime sessionStart, Collection<ReminderKey> keys) {
+        Set<ReminderKey> sent = new HashSet<>();
+        synchronized (lock) {
+            // Keys are bucketed by the session start they were recorded with; without one, every bucket is a candidate
+            Collection<ReminderKeySet> candidates = sessionStart != null
+                    ? Collections.singletonList(buckets.get(hourOf(sessionStart)))
+                    : buckets.values();
+            for (ReminderKey key : keys) {
+                for (ReminderKeySet bucket : candidates) {
+                    if (bucket != null && bucket.contains(key)) {
+                        sent.add(key);
+                        break;
+                    }
+                }
+            }
+        }
+        return sent;
+    }
+    
+    @Override
+    public void forEachSentKey(LocalDateTime sessionsStartingFrom, Consumer<ReminderKey> consumer) {
+        // Whole hours, so a few keys just before the cut-off may be included
+        List<ReminderKeySet> copies;
+        synchronized (lock) {
+            copies = buckets.tailMap(hourOf(sessionsStartingFrom), true).values().stream().map(ReminderKeySet::copy).toList();
+        }
+        copies.forEach(keys -> keys.forEach((hi, lo) -> consumer.accept(new ReminderKey(hi, lo))));
+    }
+    
+    /**
+     * Reject writes once close() has released the active segment; caller holds lock
+     */
+    private void ensureOpen() {
+        if (active == null) {
+            throw new IllegalStateException("Reminder ledger in " + directory + " is closed");
+        }
+    }
+    
+    /**
+     * Append one record to the active segment, rolling to a new one when it is full; caller holds lock
+     */
+    private void append(long hour, ReminderKey key) {
+        try {
+            if (active.position + RECORD_SIZE > active.buffer.capacity()) {
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll reminder ledger segment", e);
+        }
+        recordBuffer.putLong(8, hour).putLong(16, key.hi()).putLong(24, key.lo());
+        crc.reset();
+        crc.update(record, 8, RECORD_SIZE - 8);
+        recordBuffer.putInt(0, RECORD_MAGIC).putInt(4, (int) crc.getValue());
+        active.buffer.put(active.position, record, 0, RECORD_SIZE);
+        active.position += RECORD_SIZE;
+        appendedBytes += RECORD_SIZE;
+    }
+    
+    /**
+     * Group commit: force everything appended so far unless a concurrent force already covered target
+     */
+    private void sync(long target) {
+        synchronized (syncLock) {
+            Segment segment;
+            int from;
+            int to;
+            long upTo;
+            synchronized (lock) {
+                if (syncedBytes >= target || active == null) {
+                    return;
+                }
+                segment = active;
+                from = segment.syncedPosition;
+                to = segment.position;
+                upTo = appendedBytes;
+            }
+            // Records in segments rolled since were forced by the roll itself
+            if (to > from) {
+                segment.buffer.force(from, to - from);
+                syncs.increment();
+            }
+            synchronized (lock) {
+                segment.syncedPosition = Math.max(segment.syncedPosition, to);
+                syncedBytes = Math.max(syncedBytes, upTo);
+            }
+        }
+    }
+    
+    /**
+     * Seal the active segment and start the next one; caller holds lock
+     */
+    private void roll() throws IOException {
+        Segment previous = active;
+        previous.buffer.force();
+        previous.channel.close();
+        active = openSegment(previous.seq + 1);
+        syncedBytes = appendedBytes;
+    }
+    
+    private Segment openSegment(long seq) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentSizeMb << 20);
+        syncDirectory();
+        return new Segment(seq, channel, buffer);
+    }
+    
+    /**
+     * Replay one segment into the buckets; returns the number of intact records
+     */
+    private long replaySegment(Path path) throws IOException {
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] bytes = new byte[RECORD_SIZE];
+            ByteBuffer view = ByteBuffer.wrap(bytes);
+            CRC32C check = new CRC32C();
+            for (int position = 0; position + RECORD_SIZE <= buffer.capacity(); position += RECORD_SIZE) {
+                buffer.get(position, bytes, 0, RECORD_SIZE);
+                int magic = view.getInt(0);
+                if (magic == 0) {
+                    break;
+                }
+                check.reset();
+                check.update(bytes, 8, RECORD_SIZE - 8);
+                if (magic != RECORD_MAGIC || view.getInt(4) != (int) check.getValue()) {
+                    log.warn("Torn reminder ledger record at offset {} of {}; ignoring the rest of the segment", position, path);
+                    break;
+                }
+                buckets.computeIfAbsent(view.getLong(8), h -> new ReminderKeySet()).add(view.getLong(16), view.getLong(24));
+                records++;
+            }
+        }
+        return records;
+    }
+    
+    /**
+     * Write the retained buckets to a snapshot and delete the segments it covers
+     */
+    @Scheduled(fixedDelayString = "${reminder.ledger.wal.snapshot-interval:3600000}",
+            initialDelayString = "${reminder.ledger.wal.snapshot-interval:3600000}")
+    public void snapshot() {
+        long startTime = System.currentTimeMillis();
+        long coveredSeq;
+        Map<Long, ReminderKeySet> copies = new TreeMap<>();
+        try {
+            synchronized (lock) {
+                ensureOpen();
+                dropExpired();
+                // Everything appended so far now lies in segments below coveredSeq
+                roll();
+                coveredSeq = active.seq;
+                buckets.forEach((hour, keys) -> copies.put(hour, keys.copy()));
+            }
+            
+            long keys = writeSnapshot(coveredSeq, copies);
+            for (long seq : sequences("wal-", ".log")) {
+                if (seq < coveredSeq) {
+                    Files.deleteIfExists(segmentPath(seq));
+                }
+            }
+            for (long seq : sequences("snapshot-", ".bin")) {
+                if (seq < coveredSeq) {
+                    Files.deleteIfExists(snapshotPath(seq));
+                }
+            }
+            snapshots.increment();
+            lastSnapshot = LocalDateTime.now(clock);
+            log.info("Reminder ledger snapshot of {} keys in {} hourly buckets written in {} ms",
+                    keys, copies.size(), System.currentTimeMillis() - startTime);
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            log.error("Reminder ledger snapshot failed; segments are kept until the next one", e);
+        }
+    }
+    
+    private long writeSnapshot(long coveredSeq, Map<Long, ReminderKeySet> copies) throws IOException {
+        Path target = snapshotPath(coveredSeq);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long[] keys = new long[1];
+        CRC32C checksum = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), checksum))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(coveredSeq);
+            out.writeInt(copies.size());
+            for (Map.Entry<Long, ReminderKeySet> bucket : copies.entrySet()) {
+                out.writeLong(bucket.getKey());
+                out.writeInt(bucket.getValue().size());
+                bucket.getValue().forEach((hi, lo) -> {
+                    try {
+                        out.writeLong(hi);
+                        out.writeLong(lo);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                keys[0] += bucket.getValue().size();
+            }
+            out.writeInt((int) checksum.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        return keys[0];
+    }
+    
+    /**
+     * Load a snapshot into the buckets; returns the number of keys
+     */
+    private long loadSnapshot(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < 20) {
+            throw new IOException("Truncated snapshot");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - 4);
+        if (buffer.getInt(0) != SNAPSHOT_MAGIC || buffer.getInt(bytes.length - 4) != (int) checksum.getValue()) {
+            throw new IOException("Bad magic or checksum");
+        }
+        buffer.position(12);
+        int bucketCount = buffer.getInt();
+        long keys = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long hour = buffer.getLong();
+            int size = buffer.getInt();
+            ReminderKeySet bucket = new ReminderKeySet(size);
+            for (int k = 0; k < size; k++) {
+                bucket.add(buffer.getLong(), buffer.getLong());
+            }
+            buckets.put(hour, bucket);
+            keys += size;
+        }
+        return keys;
+    }
+    
+    private void dropExpired() {
+        buckets.headMap(hourOf(LocalDateTime.now(clock).minusDays(retentionDays))).clear();
+    }
+    
+    /**
+     * Make new and renamed files in the ledger directory durable; not every platform allows it
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.trace("Directory sync not supported for {}", directory, e);
+        }
+    }
+    
+    private List<Long> sequences(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("wal-%016d.log", seq));
+    }
+    
+    private Path snapshotPath(long seq) {
+        return directory.resolve(String.format("snapshot-%016d.bin", seq));
+    }
+    
+    private static long hourOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+    
+    private long keyCount() {
+        synchronized (lock) {
+            return buckets.values().stream().mapToLong(ReminderKeySet::size).sum();
+        }
+    }
+    
+    @Override
+    public Map<String, Object> toStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", "wal");
+        stats.put("keys", keyCount());
+        synchronized (lock) {
+            stats.put("buckets", buckets.size());
+            stats.put("activeSegment", active != null ? active.seq : null);
+            stats.put("appendedBytes", appendedBytes);
+        }
+        stats.put("appends", appends.sum());
+        stats.put("syncs", syncs.sum());
+        stats.put("snapshots", snapshots.sum());
+        stats.put("lastSnapshot", lastSnapshot != null ? lastSnapshot.toString() : null);
+        stats.put("recoveredRecords", recoveredRecords);
+        stats.put("recoveryMillis", recoveryMillis);
+        return stats;
+    }
+}
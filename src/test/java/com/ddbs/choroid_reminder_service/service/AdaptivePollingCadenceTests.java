@@ -0,0 +1,75 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptivePollingCadenceTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+	private final List<SessionDto> schedule = new ArrayList<>();
+
+	private final SessionApiService sessions = new SessionApiService(null, null, null) {
+		@Override
+		public List<SessionDto> getSessionsStartingBetween(LocalDateTime from, LocalDateTime to) {
+			return schedule;
+		}
+	};
+
+	private final AdaptivePollingCadence cadence = cadence();
+
+	private AdaptivePollingCadence cadence() {
+		AdaptivePollingCadence cadence = new AdaptivePollingCadence(sessions, Clock.systemDefaultZone());
+		ReflectionTestUtils.setField(cadence, "minIntervalMs", 60_000L);
+		ReflectionTestUtils.setField(cadence, "maxIntervalMs", 900_000L);
+		ReflectionTestUtils.setField(cadence, "horizonHours", 24L);
+		return cadence;
+	}
+
+	@Test
+	void emptyHorizonPollsAtTheMaximumInterval() {
+		cadence.refreshHorizon(NOW);
+
+		assertEquals(900_000L, cadence.nextIntervalMs(NOW));
+	}
+
+	@Test
+	void nextPollLandsOnTheNextBandOpening() {
+		schedule.add(session(NOW.plusMinutes(37), 60));
+		cadence.refreshHorizon(NOW);
+
+		// Pre-session band opens at start - 30
+		assertEquals(7 * 60_000L, cadence.nextIntervalMs(NOW));
+		// Then the feedback window opens at the end, more than the maximum away
+		assertEquals(900_000L, cadence.nextIntervalMs(NOW.plusMinutes(7)));
+	}
+
+	@Test
+	void clusteredBoundariesAreBoundByTheMinimumInterval() {
+		schedule.add(session(NOW.plusMinutes(30).plusSeconds(10), 60));
+		schedule.add(session(NOW.plusMinutes(30).plusSeconds(40), 60));
+		cadence.refreshHorizon(NOW);
+
+		assertEquals(60_000L, cadence.nextIntervalMs(NOW));
+	}
+
+	@Test
+	void runningSessionsContributeTheirFeedbackWindow() {
+		schedule.add(session(NOW.minusMinutes(50), 60));
+		cadence.refreshHorizon(NOW);
+
+		assertEquals(10 * 60_000L, cadence.nextIntervalMs(NOW));
+	}
+
+	private static SessionDto session(LocalDateTime start, int duration) {
+		return new SessionDto("s-" + start, "carol", "Graphs", start, duration, null, null, null, null);
+	}
+}
@@ -0,0 +1,35 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+	private static final ReminderStatus.ReminderType TYPE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+
+	@Test
+	void noFalseNegativesAndFalsePositivesNearConfiguredRate() {
+		BloomFilter filter = new BloomFilter(50_000, 0.01);
+		for (int i = 0; i < 50_000; i++) {
+			filter.put(ReminderKey.of("session-" + (i / 20), "user-" + i, TYPE));
+		}
+		for (int i = 0; i < 50_000; i++) {
+			assertTrue(filter.mightContain(ReminderKey.of("session-" + (i / 20), "user-" + i, TYPE)));
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 50_000; i++) {
+			if (filter.mightContain(ReminderKey.of("other-" + (i / 20), "user-" + i, TYPE))) {
+				falsePositives++;
+			}
+		}
+		double observed = falsePositives / 50_000.0;
+		assertTrue(observed < 0.02, "observed false-positive rate " + observed);
+		assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatchUpServiceTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+	private static final ReminderStatus.ReminderType BEFORE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+	private static final ReminderStatus.ReminderType FEEDBACK = ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK;
+
+	// application.properties with its defaults (30 minute lead, feedback ideally 2 minutes after the end,
+	// 25 and 360 minute cutoffs, 60 minute chunks, sessions up to 240 minutes)
+	private static final PropertyResolver CONFIG = productionConfig();
+
+	private final CatchUpService catchUp = catchUp();
+
+	private static PropertyResolver productionConfig() {
+		try {
+			MutablePropertySources sources = new MutablePropertySources();
+			sources.addLast(new ResourcePropertySource("classpath:application.properties"));
+			return new PropertySourcesPropertyResolver(sources);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static CatchUpService catchUp() {
+		CatchUpService catchUp = new CatchUpService(null, null, Clock.systemDefaultZone());
+		ReflectionTestUtils.setField(catchUp, "reminderMinutes", config("reminder.before-session.first"));
+		ReflectionTestUtils.setField(catchUp, "feedbackReminderMinutes", config("reminder.after-session.feedback"));
+		ReflectionTestUtils.setField(catchUp, "maxBeforeSessionLatenessMinutes", (long) config("reminder.catch-up.max-lateness-minutes.before-session"));
+		ReflectionTestUtils.setField(catchUp, "maxFeedbackLatenessMinutes", (long) config("reminder.catch-up.max-lateness-minutes.feedback"));
+		ReflectionTestUtils.setField(catchUp, "chunkMinutes", (long) config("reminder.catch-up.chunk-minutes"));
+		ReflectionTestUtils.setField(catchUp, "maxSessionMinutes", (long) config("reminder.catch-up.max-session-minutes"));
+		return catchUp;
+	}
+
+	private static int config(String key) {
+		return CONFIG.getRequiredProperty(key, Integer.class);
+	}
+
+	@Test
+	void shortGapsMissNothing() {
+		assertTrue(catchUp.scanRanges(NOW.minusMinutes(5), NOW).isEmpty());
+	}
+
+	@Test
+	void longGapIsSearchedInChunksBoundedByTheCutoffs() {
+		List<CatchUpService.ScanRange> ranges = catchUp.scanRanges(NOW.minusHours(5), NOW);
+
+		// Pre-session: starts from now + 5 (30 - 25 lateness) to now + 10, one chunk padded a minute each side
+		assertEquals(new CatchUpService.ScanRange(BEFORE, NOW.plusMinutes(4), NOW.plusMinutes(11)), ranges.get(0));
+		// Feedback: ends from the last cycle (now - 300) to now - 30, searched by start 240 minutes further back
+		List<CatchUpService.ScanRange> feedback = ranges.subList(1, ranges.size());
+		assertEquals(9, feedback.size());
+		assertEquals(NOW.minusMinutes(541), feedback.get(0).startAfter());
+		assertEquals(NOW.minusMinutes(29), feedback.get(8).startBefore());
+		assertTrue(feedback.stream().allMatch(range -> range.reminderType() == FEEDBACK));
+	}
+
+	@Test
+	void onlyWindowsInsideTheGapAndUnderTheCutoffCount() {
+		LocalDateTime lastCycle = NOW.minusMinutes(40);
+
+		// Last cycle saw starts up to lastCycle + 30; this start's band fell in the gap and it is 8 minutes out
+		assertTrue(catchUp.wasMissed(session(NOW.plusMinutes(8), 60), BEFORE, lastCycle, NOW));
+		assertFalse(catchUp.wasMissed(session(lastCycle.plusMinutes(20), 60), BEFORE, lastCycle, NOW));
+		// Five minutes before the start is past the 25-minute lateness cutoff
+		assertFalse(catchUp.wasMissed(session(NOW.plusMinutes(4), 60), BEFORE, lastCycle, NOW));
+		// Still in the regular window
+		assertFalse(catchUp.wasMissed(session(NOW.plusMinutes(20), 60), BEFORE, lastCycle, NOW));
+
+		// Ended 35 minutes ago, after the last cycle: missed, and well inside the cutoff
+		assertTrue(catchUp.wasMissed(session(NOW.minusMinutes(95), 60), FEEDBACK, lastCycle, NOW));
+		// The regular feedback window still covers anything that ended up to 30 minutes ago
+		assertFalse(catchUp.wasMissed(session(NOW.minusMinutes(70), 60), FEEDBACK, lastCycle, NOW));
+		assertFalse(catchUp.wasMissed(session(NOW.minusMinutes(60 + ReminderSchedulerService.FEEDBACK_WINDOW_MINUTES), 60), FEEDBACK, lastCycle, NOW));
+		assertTrue(catchUp.wasMissed(session(NOW.minusMinutes(61 + ReminderSchedulerService.FEEDBACK_WINDOW_MINUTES), 60), FEEDBACK, lastCycle, NOW));
+	}
+
+	@Test
+	void feedbackExpiresAtItsCutoff() {
+		// Ended three hours ago; ideally sent 2 minutes after the end, so the 360 minute cutoff falls at now + 182
+		SessionDto session = session(NOW.minusHours(4), 60);
+
+		assertTrue(catchUp.stillWorthSending(session, FEEDBACK, NOW.plusMinutes(181)));
+		assertFalse(catchUp.stillWorthSending(session, FEEDBACK, NOW.plusMinutes(182)));
+	}
+
+	private static SessionDto session(LocalDateTime start, int duration) {
+		return new SessionDto("s-" + start, "carol", "Graphs", start, duration, null, null, null, null);
+	}
+}
@@ -0,0 +1,56 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayCircuitBreakerTests {
+
+	@Test
+	void opensAfterConsecutiveFailuresAndFailsFast() {
+		GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("rarf", 3, Duration.ofMinutes(1), 1);
+
+		breaker.onFailure();
+		breaker.onFailure();
+		assertEquals(GatewayCircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.onFailure();
+		assertEquals(GatewayCircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(1, breaker.getTripCount());
+		assertFalse(breaker.tryAcquirePermission());
+	}
+
+	@Test
+	void halfOpenProbeClosesOnSuccessAndReopensOnFailure() {
+		GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("userEmail", 1, Duration.ZERO, 1);
+
+		breaker.onFailure();
+		assertTrue(breaker.tryAcquirePermission());
+		assertEquals(GatewayCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquirePermission());
+
+		breaker.onFailure();
+		assertEquals(GatewayCircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(2, breaker.getTripCount());
+
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.onSuccess(1_000_000);
+		assertEquals(GatewayCircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void latencyPercentileRequiresMinimumSamples() {
+		GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("sessionSearch", 5, Duration.ofSeconds(30), 1);
+		for (int i = 1; i <= 100; i++) {
+			breaker.onSuccess(i);
+		}
+
+		assertEquals(95, breaker.latencyPercentileNanos(95, 20));
+		assertEquals(-1, breaker.latencyPercentileNanos(95, 200));
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatewayClientTests {
+
+	private record Reply(HttpStatus status, String body, long delayMs) {
+	}
+
+	@Test
+	void primaryErrorAfterTheHedgeFiredWaitsForTheHedge() {
+		// Warm-up answer, then a primary that fails at 150 ms while the hedge fired at 50 ms answers at 250 ms
+		GatewayClient client = client(List.of(
+				new Reply(HttpStatus.OK, "warm", 0),
+				new Reply(HttpStatus.BAD_GATEWAY, "down", 150),
+				new Reply(HttpStatus.OK, "hedged", 200)));
+		client.get(GatewayClient.Endpoint.RARF, "/rarf");
+
+		assertEquals("hedged", client.get(GatewayClient.Endpoint.RARF, "/rarf"));
+		assertEquals(1L, hedgeStats(client).get("hedgesWon"));
+	}
+
+	@Test
+	void primaryErrorSurfacesWhenTheHedgeFailsToo() {
+		GatewayClient client = client(List.of(
+				new Reply(HttpStatus.OK, "warm", 0),
+				new Reply(HttpStatus.BAD_GATEWAY, "down", 150),
+				new Reply(HttpStatus.SERVICE_UNAVAILABLE, "down", 200)));
+		client.get(GatewayClient.Endpoint.RARF, "/rarf");
+
+		WebClientResponseException error = assertThrows(WebClientResponseException.class,
+				() -> client.get(GatewayClient.Endpoint.RARF, "/rarf"));
+		assertEquals(HttpStatus.BAD_GATEWAY, error.getStatusCode());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> hedgeStats(GatewayClient client) {
+		return (Map<String, Object>) client.getCircuitBreakerStats().get(GatewayClient.Endpoint.RARF.getName());
+	}
+
+	private static GatewayClient client(List<Reply> replies) {
+		AtomicInteger calls = new AtomicInteger();
+		WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+			Reply reply = replies.get(calls.getAndIncrement());
+			return Mono.delay(Duration.ofMillis(reply.delayMs()))
+					.map(tick -> ClientResponse.create(reply.status()).body(reply.body()).build());
+		});
+		GatewayClient client = new GatewayClient(builder, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(client, "gatewayBaseUrl", "http://gateway");
+		ReflectionTestUtils.setField(client, "timeoutMs", 5_000L);
+		ReflectionTestUtils.setField(client, "failureThreshold", 5);
+		ReflectionTestUtils.setField(client, "openDurationMs", 30_000L);
+		ReflectionTestUtils.setField(client, "halfOpenProbes", 1);
+		ReflectionTestUtils.setField(client, "hedgeEnabled", true);
+		ReflectionTestUtils.setField(client, "hedgePercentile", 95.0);
+		ReflectionTestUtils.setField(client, "hedgeMinDelayMs", 50L);
+		ReflectionTestUtils.setField(client, "hedgeMinSamples", 1);
+		client.init();
+		return client;
+	}
+}
@@ -0,0 +1,108 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcSessionOwnershipTests {
+
+	@Test
+	void fairSharesCoverEveryPartitionExactlyOnce() {
+		for (int instances = 1; instances <= 10; instances++) {
+			int total = 0;
+			for (int position = 0; position < instances; position++) {
+				int share = JdbcSessionOwnership.fairShare(64, instances, position);
+				assertTrue(share == 64 / instances || share == 64 / instances + 1);
+				total += share;
+			}
+			assertEquals(64, total);
+		}
+	}
+
+	@Test
+	void sessionsSpreadEvenlyOverPartitions() {
+		int[] counts = new int[64];
+		for (int i = 0; i < 64_000; i++) {
+			counts[JdbcSessionOwnership.partitionOf(i % 2 == 0 ? UUID.randomUUID().toString() : "session-" + i, 64)]++;
+		}
+		for (int count : counts) {
+			assertTrue(count > 800 && count < 1200, "partition count " + count);
+		}
+	}
+
+	@Test
+	void partitionIsStableForASession() {
+		assertEquals(JdbcSessionOwnership.partitionOf("session-42", 64), JdbcSessionOwnership.partitionOf(new String("session-42"), 64));
+	}
+
+	@Test
+	void clusterModeRequiresTheSharedJdbcLedger() {
+		assertThrows(IllegalStateException.class, () -> JdbcSessionOwnership.requireSharedLedger(false, "jdbc"));
+		assertThrows(IllegalStateException.class, () -> JdbcSessionOwnership.requireSharedLedger(true, "wal"));
+		assertDoesNotThrow(() -> JdbcSessionOwnership.requireSharedLedger(true, "jdbc"));
+	}
+
+	@Test
+	void newOwnerSkipsWhatTheOldOwnerSent() {
+		ReminderLedger shared = new InMemoryLedger();
+		ReminderLedgerFront oldOwner = clusterFront(shared);
+		ReminderLedgerFront newOwner = clusterFront(shared);
+		newOwner.rebuild();
+
+		// Sent by the old owner after the new owner built its filter, just before the partition moved
+		ReminderKey key = ReminderKey.of("session-1", "alice", ReminderStatus.ReminderType.BEFORE_30_MIN);
+		LocalDateTime start = LocalDateTime.now().plusMinutes(30);
+		oldOwner.recordSent(key, new ReminderStatus(), start);
+
+		assertEquals(Set.of(key), newOwner.findSent("session-1", start, List.of(key)));
+	}
+
+	private static ReminderLedgerFront clusterFront(ReminderLedger ledger) {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("ledger", ledger);
+		ReminderLedgerFront front = new ReminderLedgerFront(beans.getBeanProvider(ReminderLedger.class), Clock.systemDefaultZone());
+		ReflectionTestUtils.setField(front, "expectedInsertions", 1000L);
+		ReflectionTestUtils.setField(front, "falsePositiveRate", 0.01);
+		ReflectionTestUtils.setField(front, "retentionDays", 7L);
+		ReflectionTestUtils.setField(front, "sharedLedger", true);
+		return front;
+	}
+
+	static class InMemoryLedger implements ReminderLedger {
+
+		private final Set<ReminderKey> sent = ConcurrentHashMap.newKeySet();
+
+		@Override
+		public void recordSent(ReminderKey key, ReminderStatus status, LocalDateTime sessionStart) {
+			sent.add(key);
+		}
+
+		@Override
+		public Set<ReminderKey> findSent(String sessionId, LocalDateTime sessionStart, Collection<ReminderKey> keys) {
+			return keys.stream().filter(sent::contains).collect(Collectors.toCollection(HashSet::new));
+		}
+
+		@Override
+		public void forEachSentKey(LocalDateTime sessionsStartingFrom, Consumer<ReminderKey> consumer) {
+			sent.forEach(consumer);
+		}
+	}
+}
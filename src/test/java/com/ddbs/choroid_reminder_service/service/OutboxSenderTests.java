@@ -0,0 +1,154 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutboxSenderTests {
+
+	private final MutableClock clock = new MutableClock();
+	private final List<String> delivered = new ArrayList<>();
+	private final List<Integer> sentSettlements = new ArrayList<>();
+
+	private JdbcTemplate jdbcTemplate;
+	private ReminderOutbox outbox;
+	private Consumer<ReminderTask> onSend = task -> {
+	};
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:sender-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+		outbox = ReminderOutboxTests.configure(new ReminderOutbox(jdbcTemplate, ReminderOutboxTests.transactions(jdbcTemplate)) {
+			@Override
+			public int markSent(String senderId, Collection<Long> ids) {
+				sentSettlements.add(ids.size());
+				return super.markSent(senderId, ids);
+			}
+		});
+	}
+
+	@Test
+	void sentRemindersSettleInChunks() {
+		outbox.enqueue(ReminderOutboxTests.tasks("s1", 5));
+
+		assertEquals(5, sender(2).drainBatch("sender-a"));
+
+		assertEquals(List.of(2, 2, 1), sentSettlements);
+		assertEquals(Map.of("SENT", 5L), outbox.countByStatus());
+	}
+
+	@Test
+	void rowsLostBeforeRenewalAreNotSent() {
+		outbox.enqueue(ReminderOutboxTests.tasks("s1", 3));
+		// Each send takes past half the claim timeout, so the claim is renewed before every later send
+		onSend = task -> {
+			if (delivered.size() == 1) {
+				jdbcTemplate.update("UPDATE reminder_outbox SET claimed_by = 'sender-b' WHERE username = 'user2'");
+			}
+			clock.advanceSeconds(200);
+		};
+		OutboxSender sender = sender(10);
+
+		sender.drainBatch("sender-a");
+
+		assertEquals(List.of("user0", "user1"), delivered);
+		assertEquals(1L, sender.toStats().get("lostClaims"));
+		assertEquals(Map.of("SENT", 2L, "CLAIMED", 1L), outbox.countByStatus());
+	}
+
+	@Test
+	void failedSendsGoBackToPendingForRetry() {
+		outbox.enqueue(ReminderOutboxTests.tasks("s1", 2));
+		OutboxSender sender = sender(10);
+		onSend = task -> {
+			if (task.getUser().getUsername().equals("user1")) {
+				throw new IllegalStateException("smtp down");
+			}
+		};
+
+		sender.drainBatch("sender-a");
+
+		assertEquals(1L, sender.toStats().get("failed"));
+		assertEquals(Map.of("SENT", 1L, "PENDING", 1L), outbox.countByStatus());
+	}
+
+	@Test
+	void batchSizeFitsInsideOneClaim() {
+		assertEquals(50, OutboxSender.boundedBatchSize(50, 300, 5));
+		assertEquals(60, OutboxSender.boundedBatchSize(100, 300, 5));
+		assertEquals(1, OutboxSender.boundedBatchSize(10, 3, 5));
+	}
+
+	private OutboxSender sender(int settleEvery) {
+		EmailService emailService = new EmailService(null, new SimpleMeterRegistry(), clock) {
+			@Override
+			public MimeMessage createReminderMessage(ReminderTask task) {
+				return null;
+			}
+
+			@Override
+			public boolean sendReminderMessage(ReminderTask task) {
+				try {
+					onSend.accept(task);
+				} catch (IllegalStateException e) {
+					return false;
+				}
+				delivered.add(task.getUser().getUsername());
+				return true;
+			}
+		};
+		OutboxSender sender = new OutboxSender(outbox, emailService,
+				new ReminderLedgerFront(new StaticListableBeanFactory().getBeanProvider(ReminderLedger.class), clock),
+				new ReminderMetrics(clock), new ReminderLateness(new SimpleMeterRegistry(), clock), clock);
+		ReflectionTestUtils.setField(sender, "batchSize", 50);
+		ReflectionTestUtils.setField(sender, "settleEvery", settleEvery);
+		ReflectionTestUtils.setField(sender, "claimTimeoutSeconds", 300);
+		ReflectionTestUtils.setField(sender, "maxSendSeconds", 5);
+		return sender;
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private final AtomicLong millis = new AtomicLong(Instant.parse("2025-03-10T12:00:00Z").toEpochMilli());
+
+		void advanceSeconds(long seconds) {
+			millis.addAndGet(seconds * 1000);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis.get());
+		}
+	}
+}
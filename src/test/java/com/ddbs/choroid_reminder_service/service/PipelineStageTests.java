@@ -0,0 +1,81 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineStageTests {
+
+	@Test
+	void priorityStageDispatchesLowestValueFirst() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		List<Integer> processed = new CopyOnWriteArrayList<>();
+		PipelineStage<Integer> stage = new PipelineStage<>("test", 1, 16, item -> {
+			if (item == 0) {
+				await(gate);
+			}
+			processed.add(item);
+		}, Integer::compare);
+
+		// The single worker is parked on item 0 while the rest queue up out of order
+		stage.submit(0);
+		stage.submit(30);
+		stage.submit(10);
+		stage.submit(20);
+		gate.countDown();
+
+		awaitIdle(stage);
+		assertEquals(List.of(0, 10, 20, 30), processed);
+		stage.shutdown();
+	}
+
+	@Test
+	void fullQueueBlocksProducerUntilSpaceFrees() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		PipelineStage<Integer> stage = new PipelineStage<>("test", 1, 1, item -> await(gate));
+
+		stage.submit(1);
+		awaitQueueDepth(stage, 0);
+		stage.submit(2);
+
+		Thread producer = new Thread(() -> stage.submit(3));
+		producer.start();
+		producer.join(200);
+		assertTrue(producer.isAlive(), "producer should block while the queue is full");
+
+		gate.countDown();
+		producer.join(5000);
+		awaitIdle(stage);
+		assertEquals(3, ((Number) stage.toStats().get("completed")).intValue());
+		stage.shutdown();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void awaitQueueDepth(PipelineStage<?> stage, int depth) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (stage.getQueueDepth() != depth && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static void awaitIdle(PipelineStage<?> stage) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!stage.isIdle() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+}
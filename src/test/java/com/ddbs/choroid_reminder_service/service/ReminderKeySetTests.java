@@ -0,0 +1,61 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderKeySetTests {
+
+	private static final ReminderStatus.ReminderType TYPE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+
+	@Test
+	void keysDoNotCollideOnUnderscores() {
+		// Both of these used to map to "a_b_c_BEFORE_30_MIN"
+		assertNotEquals(ReminderKey.of("a_b", "c", TYPE), ReminderKey.of("a", "b_c", TYPE));
+		assertNotEquals(ReminderKey.of("s1", "alice", TYPE),
+				ReminderKey.of("s1", "alice", ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK));
+		assertEquals(ReminderKey.of("s1", "alice", TYPE), ReminderKey.of("s1", "alice", TYPE));
+	}
+
+	@Test
+	void setKeepsAllKeysAcrossResizes() {
+		ReminderKeySet set = new ReminderKeySet();
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(set.add(ReminderKey.of("session-" + (i / 50), "user-" + i, TYPE)));
+		}
+		assertTrue(set.add(0, 0));
+		assertFalse(set.add(0, 0));
+
+		assertEquals(10_001, set.size());
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(set.contains(ReminderKey.of("session-" + (i / 50), "user-" + i, TYPE)));
+			assertFalse(set.add(ReminderKey.of("session-" + (i / 50), "user-" + i, TYPE)));
+		}
+		assertFalse(set.contains(ReminderKey.of("session-0", "user-10000", TYPE)));
+	}
+
+	@Test
+	void copyAndForEachSeeEveryKey() {
+		ReminderKeySet set = new ReminderKeySet();
+		for (int i = 0; i < 1_000; i++) {
+			set.add(ReminderKey.of("session-" + (i / 50), "user-" + i, TYPE));
+		}
+		set.add(0, 0);
+
+		ReminderKeySet copy = set.copy();
+		set.add(ReminderKey.of("session-x", "user-x", TYPE));
+
+		ReminderKeySet visited = new ReminderKeySet();
+		copy.forEach(visited::add);
+		assertEquals(1_001, visited.size());
+		assertTrue(visited.contains(0, 0));
+		assertTrue(visited.contains(ReminderKey.of("session-3", "user-150", TYPE)));
+		assertFalse(copy.contains(ReminderKey.of("session-x", "user-x", TYPE)));
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderLedgerFrontTests {
+
+	private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-10T09:00:00Z"), ZoneOffset.UTC);
+
+	@Test
+	void saturatedFilterIsRebuiltForTheKeysItHolds() {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("ledger", new JdbcSessionOwnershipTests.InMemoryLedger());
+		ReminderLedgerFront front = new ReminderLedgerFront(beans.getBeanProvider(ReminderLedger.class), CLOCK);
+		ReflectionTestUtils.setField(front, "expectedInsertions", 100L);
+		ReflectionTestUtils.setField(front, "falsePositiveRate", 0.01);
+		ReflectionTestUtils.setField(front, "retentionDays", 7L);
+		front.rebuild();
+
+		LocalDateTime start = LocalDateTime.now(CLOCK).plusHours(1);
+		for (int i = 0; i < 400; i++) {
+			front.recordSent(ReminderKey.of("s1", "user" + i, ReminderStatus.ReminderType.BEFORE_30_MIN), new ReminderStatus(), start);
+		}
+		front.rebuildIfSaturated();
+
+		assertEquals(800L, front.toStats().get("filterCapacity"));
+		assertTrue((double) front.toStats().get("expectedFalsePositiveRate") <= 0.01);
+	}
+}
@@ -0,0 +1,119 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderBatch;
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.ReminderTask;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReminderOutboxTests {
+
+	private static final ReminderStatus.ReminderType TYPE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+
+	private JdbcTemplate jdbcTemplate;
+	private ReminderOutbox outbox;
+
+	@BeforeEach
+	void setUp() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		outbox = outbox(jdbcTemplate);
+	}
+
+	static ReminderOutbox outbox(JdbcTemplate jdbcTemplate) {
+		return configure(new ReminderOutbox(jdbcTemplate, transactions(jdbcTemplate)));
+	}
+
+	static TransactionTemplate transactions(JdbcTemplate jdbcTemplate) {
+		return new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+	}
+
+	static ReminderOutbox configure(ReminderOutbox outbox) {
+		ReflectionTestUtils.setField(outbox, "claimTimeoutSeconds", 300);
+		ReflectionTestUtils.setField(outbox, "maxAttempts", 2);
+		ReflectionTestUtils.setField(outbox, "retryBackoffSeconds", 60);
+		outbox.createTable();
+		return outbox;
+	}
+
+	@Test
+	void claimHandsEachRowToOneSender() {
+		assertEquals(3, outbox.enqueue(tasks("s1", 3)));
+		assertEquals(0, outbox.enqueue(tasks("s1", 3)));
+
+		assertEquals(2, outbox.claim("sender-a", 2).size());
+		assertEquals(1, outbox.claim("sender-b", 5).size());
+		assertEquals(0, outbox.claim("sender-c", 5).size());
+		assertEquals(Map.of("CLAIMED", 3L), outbox.countByStatus());
+	}
+
+	@Test
+	void renewalReportsClaimsLostToTheReaper() {
+		outbox.enqueue(tasks("s1", 2));
+		List<Long> ids = outbox.claim("sender-a", 2).stream().map(ReminderOutbox.Entry::id).toList();
+		expireClaim(ids.get(1));
+		assertEquals(1, outbox.reapExpiredClaims());
+
+		assertEquals(Set.of(ids.get(0)), outbox.renewClaims("sender-a", ids));
+		assertEquals(1, outbox.markSent("sender-a", ids));
+		assertEquals(Map.of("SENT", 1L, "PENDING", 1L), outbox.countByStatus());
+	}
+
+	@Test
+	void failuresSettleOnlyRowsStillHeld() {
+		outbox.enqueue(tasks("s1", 2));
+		List<Long> ids = outbox.claim("sender-a", 2).stream().map(ReminderOutbox.Entry::id).toList();
+		jdbcTemplate.update("UPDATE reminder_outbox SET claimed_by = 'sender-b' WHERE id = ?", ids.get(1));
+
+		assertEquals(1, outbox.markFailed("sender-a", Map.of(ids.get(0), "smtp down", ids.get(1), "smtp down")));
+	}
+
+	@Test
+	void reaperParksRowsOutOfAttemptsAsFailed() {
+		outbox.enqueue(tasks("s1", 1));
+
+		long id = outbox.claim("sender-a", 1).get(0).id();
+		expireClaim(id);
+		outbox.reapExpiredClaims();
+		assertEquals(Map.of("PENDING", 1L), outbox.countByStatus());
+
+		outbox.claim("sender-b", 1);
+		expireClaim(id);
+		outbox.reapExpiredClaims();
+		assertEquals(Map.of("FAILED", 1L), outbox.countByStatus());
+	}
+
+	private void expireClaim(long id) {
+		jdbcTemplate.update("UPDATE reminder_outbox SET claimed_until = TIMESTAMPADD(SECOND, -1, NOW(3)) WHERE id = ?", id);
+	}
+
+	static List<ReminderTask> tasks(String sessionId, int count) {
+		SessionDto session = new SessionDto(sessionId, "carol", "Graphs", LocalDateTime.now().plusMinutes(20), 60, null, null, null, null);
+		ReminderBatch batch = new ReminderBatch(session, TYPE, 30);
+		batch.setDueAt(session.getStart().minusMinutes(30));
+		return IntStream.range(0, count).mapToObj(i -> {
+			String username = "user" + i;
+			ReminderTask task = ReminderTask.create(batch, UserApiService.buildUser(username, username + "@example.com"), false,
+					ReminderKey.of(sessionId, username, TYPE), ReminderStatus.create(sessionId, username, TYPE, username + "@example.com"));
+			task.setPriority(i);
+			return task;
+		}).toList();
+	}
+}
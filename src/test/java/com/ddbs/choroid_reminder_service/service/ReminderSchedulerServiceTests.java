@@ -0,0 +1,114 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderSchedulerServiceTests {
+
+	private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC);
+
+	private final List<LocalDateTime> recordedCycles = new CopyOnWriteArrayList<>();
+	private final ReminderStatusStore statusStore = new ReminderStatusStore(CLOCK);
+
+	private ReminderSchedulerService scheduler;
+
+	@AfterEach
+	void tearDown() {
+		if (scheduler != null) {
+			scheduler.stopPipeline();
+		}
+	}
+
+	@Test
+	void failedDatabaseReadLeavesTheCycleUnrecorded() {
+		JdbcSessionDirectory directory = new JdbcSessionDirectory(new JdbcTemplate() {
+			@Override
+			public void query(PreparedStatementCreator creator, RowCallbackHandler handler) {
+				throw new DataAccessResourceFailureException("Communications link failure");
+			}
+		});
+		scheduler = scheduler(directory, null);
+
+		scheduler.checkAndSendReminders();
+
+		assertTrue(recordedCycles.isEmpty());
+	}
+
+	@Test
+	void cycleWithBothSearchesSucceedingIsRecorded() {
+		scheduler = scheduler((startAfter, startBefore) -> List.<SessionDto>of(), null);
+
+		scheduler.checkAndSendReminders();
+
+		assertEquals(List.of(LocalDateTime.now(CLOCK)), recordedCycles);
+	}
+
+	@Test
+	void handOffsToTheOutboxAreCountedAsQueued() {
+		ReminderOutbox outbox = ReminderOutboxTests.outbox(new JdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:handoff-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1")));
+		scheduler = scheduler((startAfter, startBefore) -> List.<SessionDto>of(), outbox);
+		SessionDto session = new SessionDto("s1", "carol", "Graphs", LocalDateTime.now(CLOCK).plusMinutes(20), 60,
+				null, null, null, null);
+		session.setRecipients(Map.of(
+				"alice", UserApiService.buildUser("alice", "alice@example.com"),
+				"carol", UserApiService.buildUser("carol", "carol@example.com")));
+
+		assertEquals(2, scheduler.dispatchCatchUp(session, ReminderStatus.ReminderType.BEFORE_30_MIN));
+
+		assertEquals(2, statusStore.queuedCount());
+		assertEquals(0, statusStore.sentCount());
+		assertEquals(Map.of("PENDING", 2L), outbox.countByStatus());
+		assertEquals(0, scheduler.dispatchCatchUp(session, ReminderStatus.ReminderType.BEFORE_30_MIN));
+	}
+
+	private ReminderSchedulerService scheduler(SessionDirectory directory, ReminderOutbox outbox) {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("sessionDirectory", directory);
+		if (outbox != null) {
+			beans.addBean("reminderOutbox", outbox);
+		}
+		beans.addBean("catchUpService", new CatchUpService(null, null, CLOCK) {
+			@Override
+			public void recordCycle(LocalDateTime cycleTime) {
+				recordedCycles.add(cycleTime);
+			}
+		});
+		SessionApiService sessions = new SessionApiService(null, null, beans.getBeanProvider(SessionDirectory.class));
+
+		ReminderSchedulerService scheduler = new ReminderSchedulerService(sessions, null, new DispatchPriority(), statusStore,
+				new ReminderLedgerFront(beans.getBeanProvider(ReminderLedger.class), CLOCK), new ReminderMetrics(CLOCK),
+				null, null, null, new SimpleMeterRegistry(), CLOCK, beans.getBeanProvider(SessionOwnership.class),
+				beans.getBeanProvider(ReminderOutbox.class), beans.getBeanProvider(OutboxSender.class),
+				beans.getBeanProvider(CatchUpService.class), beans.getBeanProvider(AdaptivePollingCadence.class));
+		for (String stage : List.of("fetch", "resolve", "render", "send")) {
+			ReflectionTestUtils.setField(scheduler, stage + "Workers", 2);
+			ReflectionTestUtils.setField(scheduler, stage + "QueueCapacity", 16);
+		}
+		ReflectionTestUtils.setField(scheduler, "cycleDrainTimeoutMs", 5_000L);
+		scheduler.startPipeline();
+		return scheduler;
+	}
+}
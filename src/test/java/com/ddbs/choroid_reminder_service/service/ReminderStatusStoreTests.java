@@ -0,0 +1,101 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderStatusStoreTests {
+
+	private static final ReminderStatus.ReminderType TYPE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+	private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-10T09:00:00Z"), ZoneOffset.UTC);
+	private static final LocalDateTime NOW = LocalDateTime.now(CLOCK);
+
+	private ReminderStatusStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new ReminderStatusStore(CLOCK);
+		ReflectionTestUtils.setField(store, "retentionDays", 7L);
+		ReflectionTestUtils.setField(store, "pendingRetentionMinutes", 120L);
+		ReflectionTestUtils.setField(store, "failedRetentionMinutes", 0L);
+	}
+
+	@Test
+	void claimIsExclusiveUntilFailureAllowsRetry() {
+		LocalDateTime start = NOW.plusMinutes(20);
+		ReminderStatus first = ReminderStatus.create("s1", "alice", TYPE, "alice@example.com");
+
+		assertTrue(store.claim(key("s1", "alice"), start, first));
+		assertFalse(store.claim(key("s1", "alice"), start, ReminderStatus.create("s1", "alice", TYPE, "alice@example.com")));
+
+		first.markAsFailed("smtp down");
+		ReminderStatus retry = ReminderStatus.create("s1", "alice", TYPE, "alice@example.com");
+		assertTrue(store.claim(key("s1", "alice"), start, retry));
+		assertEquals(1, retry.getRetryCount());
+		assertEquals(1, store.size());
+
+		retry.markAsSent(NOW);
+		store.markSent(key("s1", "alice"), start, retry);
+		assertEquals(1, store.sentCount());
+		assertFalse(store.claim(key("s1", "alice"), start, ReminderStatus.create("s1", "alice", TYPE, "alice@example.com")));
+	}
+
+	@Test
+	void expireDropsBucketsPastRetentionAndReleasesFailures() {
+		ReminderStatus old = ReminderStatus.create("old", "bob", TYPE, "bob@example.com");
+		store.claim(key("old", "bob"), NOW.minusDays(8), old);
+		old.markAsSent(NOW);
+		store.markSent(key("old", "bob"), NOW.minusDays(8), old);
+
+		ReminderStatus failed = ReminderStatus.create("s2", "carol", TYPE, "carol@example.com");
+		LocalDateTime start = NOW.plusMinutes(15);
+		store.claim(key("s2", "carol"), start, failed);
+		failed.markAsFailed("smtp down");
+		store.recordFailure(key("s2", "carol"), start, failed);
+
+		ReminderStatus sent = ReminderStatus.create("s3", "dave", TYPE, "dave@example.com");
+		store.claim(key("s3", "dave"), start, sent);
+		sent.markAsSent(NOW);
+		store.markSent(key("s3", "dave"), start, sent);
+
+		assertEquals(3, store.size());
+		store.expire();
+		assertEquals(1, store.size());
+		assertEquals(1, store.sentCount());
+		assertFalse(store.claim(key("s3", "dave"), start, ReminderStatus.create("s3", "dave", TYPE, "dave@example.com")));
+	}
+
+	@Test
+	void queuedRemindersBlockReclaimWithoutCountingAsSent() {
+		LocalDateTime start = NOW.plusMinutes(20);
+		ReminderStatus status = ReminderStatus.create("s4", "erin", TYPE, "erin@example.com");
+		assertTrue(store.claim(key("s4", "erin"), start, status));
+
+		store.markQueued(key("s4", "erin"), start, status);
+		assertEquals(0, store.sentCount());
+		assertEquals(1, store.queuedCount());
+		assertEquals(1, store.size());
+		assertFalse(store.claim(key("s4", "erin"), start, ReminderStatus.create("s4", "erin", TYPE, "erin@example.com")));
+
+		// Queued keys outlive the pending retention, unlike a bare claim
+		ReflectionTestUtils.setField(store, "pendingRetentionMinutes", 0L);
+		store.expire();
+		assertFalse(store.claim(key("s4", "erin"), start, ReminderStatus.create("s4", "erin", TYPE, "erin@example.com")));
+	}
+
+	private static ReminderKey key(String sessionId, String username) {
+		return ReminderKey.of(sessionId, username, TYPE);
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RollingWindowTests {
+
+	@Test
+	void countsOnlyEventsInsideTheWindow() {
+		RollingWindow window = new RollingWindow(60_000, 12);
+
+		window.add(0, 3);
+		window.add(30_000, 2);
+		assertEquals(5, window.sum(30_000));
+
+		// The first slot has slid out, the second is still inside
+		assertEquals(2, window.sum(62_000));
+
+		// Recycling a slot discards its old count
+		window.add(120_000, 1);
+		assertEquals(1, window.sum(120_000));
+	}
+
+}
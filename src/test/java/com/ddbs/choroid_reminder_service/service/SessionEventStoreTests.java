@@ -0,0 +1,156 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.RegistrationEventDto;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionEventStoreTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+	// Conductor emails come from the lookup; registration events below carry their own
+	private final UserApiService users = new UserApiService(null, null) {
+		@Override
+		public Optional<String> getEmailByUsername(String username) {
+			return Optional.of(username + "@lookup.example.com");
+		}
+	};
+
+	private final SessionEventStore store = new SessionEventStore(null, users, Clock.systemDefaultZone());
+
+	// Gateway view for reconciliation; a null search or RARF entry stands for a failed call
+	private List<SessionDto> gatewaySessions = List.of();
+	private final Map<String, List<String>> rarf = new HashMap<>();
+
+	private final SessionApiService gateway = new SessionApiService(null, null, null) {
+		@Override
+		public Optional<List<SessionDto>> findGatewaySessions(LocalDateTime from, LocalDateTime to) {
+			return Optional.ofNullable(gatewaySessions);
+		}
+
+		@Override
+		public Optional<List<String>> findRegisteredUsernamesBySession(String sessionID) {
+			return Optional.ofNullable(rarf.get(sessionID));
+		}
+	};
+
+	private final SessionEventStore reconciled = new SessionEventStore(gateway, users, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+	@Test
+	void sessionsInTheWindowComeBackWithConductorAndRegistrants() {
+		store.addRegistration("s1", "alice", new RegistrationEventDto("alice@example.com", "Alice"));
+		store.upsertSession(session("s1", "carol", NOW.plusMinutes(30)));
+		store.addRegistration("s1", "bob", new RegistrationEventDto("bob@example.com", null));
+		store.upsertSession(session("s2", "carol", NOW.plusHours(5)));
+
+		List<SessionDto> found = store.findSessionsWithRecipients(NOW, NOW.plusMinutes(35));
+
+		assertEquals(1, found.size());
+		assertEquals(List.of("carol", "alice", "bob"), List.copyOf(found.get(0).getRecipients().keySet()));
+		assertEquals("Alice", found.get(0).getRecipients().get("alice").getName());
+		assertEquals("bob@example.com", found.get(0).getRecipients().get("bob").getPrimaryEmail());
+		assertEquals("carol@lookup.example.com", found.get(0).getRecipients().get("carol").getPrimaryEmail());
+	}
+
+	@Test
+	void updatesKeepRegistrationsAndMoveTheSession() {
+		store.upsertSession(session("s1", "carol", NOW.plusMinutes(30)));
+		store.addRegistration("s1", "alice", new RegistrationEventDto("alice@example.com", null));
+
+		store.upsertSession(session("s1", "carol", NOW.plusHours(2)));
+
+		assertTrue(store.findSessionsWithRecipients(NOW, NOW.plusMinutes(35)).isEmpty());
+		SessionDto moved = store.findSessionsWithRecipients(NOW, NOW.plusHours(3)).get(0);
+		assertTrue(moved.getRecipients().containsKey("alice"));
+	}
+
+	@Test
+	void cancellationsAndRemovalsTakeEffect() {
+		store.upsertSession(session("s1", "carol", NOW.plusMinutes(30)));
+		store.upsertSession(session("s2", "carol", NOW.plusMinutes(20)));
+		store.addRegistration("s1", "alice", new RegistrationEventDto("alice@example.com", null));
+
+		assertTrue(store.removeRegistration("s1", "alice"));
+		assertFalse(store.removeRegistration("s1", "alice"));
+		assertTrue(store.cancelSession("s2"));
+
+		List<SessionDto> found = store.findSessionsWithRecipients(NOW, NOW.plusMinutes(35));
+		assertEquals(1, found.size());
+		assertEquals(List.of("carol"), List.copyOf(found.get(0).getRecipients().keySet()));
+	}
+
+	@Test
+	void readsAreCopiesOfTheStore() {
+		store.upsertSession(session("s1", "carol", NOW.plusMinutes(30)));
+
+		SessionDto read = store.findSessionsWithRecipients(NOW, NOW.plusMinutes(35)).get(0);
+		read.getRecipients().clear();
+		read.setTitle(null);
+
+		SessionDto again = store.findSessionsWithRecipients(NOW, NOW.plusMinutes(35)).get(0);
+		assertEquals(1, again.getRecipients().size());
+		assertEquals("Session s1", again.getTitle());
+		assertNull(store.findSessionsWithRecipients(NOW.plusMinutes(30), NOW.plusHours(1)).stream().findAny().orElse(null));
+	}
+
+	@Test
+	void reconciliationDropsSessionsAndRegistrantsTheGatewayNoLongerHas() {
+		ReflectionTestUtils.setField(reconciled, "reconcileLookaheadHours", 24L);
+		ReflectionTestUtils.setField(reconciled, "retainHours", 3L);
+		reconciled.upsertSession(session("s1", "carol", NOW.plusMinutes(30)));
+		reconciled.upsertSession(session("s2", "carol", NOW.plusHours(2)));
+		reconciled.upsertSession(session("s3", "carol", NOW.plusDays(3)));
+		reconciled.addRegistration("s1", "alice", new RegistrationEventDto("alice@example.com", null));
+		reconciled.addRegistration("s1", "bob", new RegistrationEventDto("bob@example.com", null));
+		gatewaySessions = List.of(session("s1", "carol", NOW.plusMinutes(30)));
+		rarf.put("s1", List.of("bob", "dave"));
+
+		reconciled.reconcile();
+
+		List<SessionDto> found = reconciled.findSessionsWithRecipients(NOW, NOW.plusDays(4));
+		assertEquals(List.of("s1", "s3"), found.stream().map(SessionDto::getSessionID).toList());
+		assertEquals(List.of("carol", "bob", "dave"), List.copyOf(found.get(0).getRecipients().keySet()));
+	}
+
+	@Test
+	void failedLookupsDuringReconciliationRemoveNothing() {
+		ReflectionTestUtils.setField(reconciled, "reconcileLookaheadHours", 24L);
+		ReflectionTestUtils.setField(reconciled, "retainHours", 3L);
+		reconciled.upsertSession(session("s1", "carol", NOW.plusMinutes(30)));
+		reconciled.addRegistration("s1", "alice", new RegistrationEventDto("alice@example.com", null));
+
+		gatewaySessions = List.of(session("s1", "carol", NOW.plusMinutes(30)));
+		reconciled.reconcile();
+		gatewaySessions = null;
+		reconciled.reconcile();
+
+		List<SessionDto> found = reconciled.findSessionsWithRecipients(NOW, NOW.plusHours(1));
+		assertEquals(1, found.size());
+		assertEquals(List.of("carol", "alice"), List.copyOf(found.get(0).getRecipients().keySet()));
+		assertEquals(2L, reconciled.toStats().get("reconcileFailures"));
+	}
+
+	private static SessionDto session(String id, String creator, LocalDateTime start) {
+		SessionDto session = new SessionDto();
+		session.setId(id);
+		session.setCreatorId(creator);
+		session.setTitle("Session " + id);
+		session.setStart(start);
+		session.setDuration(60);
+		return session;
+	}
+}
@@ -0,0 +1,60 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.PendingReminderBatch;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import com.ddbs.choroid_reminder_service.dto.SessionDto;
+import com.ddbs.choroid_reminder_service.dto.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShutdownCoordinatorTests {
+
+	@TempDir
+	Path dir;
+
+	// Same configuration as the application's mapper
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	@Test
+	void checkpointRoundTripsResolvedAndUnresolvedBatches() throws IOException {
+		SessionDto session = new SessionDto("s1", "carol", "Graphs", LocalDateTime.of(2025, 3, 10, 9, 30), 60,
+				List.of("algorithms"), "https://meet.example.com/s1", null, null);
+		UserDto alice = UserDto.builder().username("alice").nitkEmail("alice@example.com").build();
+		Path file = dir.resolve("state/checkpoint.json");
+
+		ShutdownCoordinator.writeCheckpoint(objectMapper, file, List.of(
+				new PendingReminderBatch(session, ReminderStatus.ReminderType.BEFORE_30_MIN, 30, true, List.of(alice)),
+				new PendingReminderBatch(session, ReminderStatus.ReminderType.AFTER_30_MIN_FEEDBACK, 0, false, null)));
+		List<PendingReminderBatch> read = ShutdownCoordinator.readCheckpoint(objectMapper, file);
+
+		assertEquals(2, read.size());
+		PendingReminderBatch resolved = read.get(0);
+		assertEquals(session, resolved.getSession());
+		assertEquals(ReminderStatus.ReminderType.BEFORE_30_MIN, resolved.getReminderType());
+		assertEquals(30, resolved.getMinutesBefore());
+		assertTrue(resolved.isResolved());
+		assertEquals("alice@example.com", resolved.getRecipients().get(0).getPrimaryEmail());
+		PendingReminderBatch unresolved = read.get(1);
+		assertFalse(unresolved.isResolved());
+		assertNull(unresolved.getRecipients());
+		assertFalse(Files.exists(dir.resolve("state/checkpoint.json.tmp")));
+	}
+
+	@Test
+	void noCheckpointMeansNothingToResume() throws IOException {
+		assertTrue(ShutdownCoordinator.readCheckpoint(objectMapper, dir.resolve("missing.json")).isEmpty());
+	}
+}
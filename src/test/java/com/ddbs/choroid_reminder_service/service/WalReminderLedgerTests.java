@@ -0,0 +1,151 @@
+package com.ddbs.choroid_reminder_service.service;
+
+import com.ddbs.choroid_reminder_service.dto.ReminderKey;
+import com.ddbs.choroid_reminder_service.dto.ReminderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalReminderLedgerTests {
+
+	private static final ReminderStatus.ReminderType TYPE = ReminderStatus.ReminderType.BEFORE_30_MIN;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void sentKeysSurviveARestart() throws IOException {
+		LocalDateTime start = LocalDateTime.now().plusMinutes(30);
+		WalReminderLedger ledger = open(0);
+		record(ledger, "s1", "alice", start);
+		record(ledger, "s1", "bob", start);
+		record(ledger, "s1", "alice", start);
+		ledger.close();
+
+		WalReminderLedger reopened = open(0);
+		Set<ReminderKey> sent = reopened.findSent("s1", start, List.of(key("s1", "alice"), key("s1", "bob"), key("s1", "carol")));
+		assertEquals(Set.of(key("s1", "alice"), key("s1", "bob")), sent);
+		assertEquals(2L, reopened.toStats().get("recoveredRecords"));
+		reopened.close();
+	}
+
+	@Test
+	void replayStopsAtATornRecord() throws IOException {
+		LocalDateTime start = LocalDateTime.now().plusMinutes(30);
+		WalReminderLedger ledger = open(0);
+		for (int i = 0; i < 10; i++) {
+			record(ledger, "s1", "user" + i, start);
+		}
+		ledger.close();
+
+		// Corrupt the hi half of the eighth record, as a crash mid-write would
+		try (FileChannel channel = FileChannel.open(files("wal-").get(0), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), 7L * WalReminderLedger.RECORD_SIZE + 16);
+		}
+
+		WalReminderLedger reopened = open(0);
+		assertEquals(7L, reopened.toStats().get("recoveredRecords"));
+		assertEquals(7, reopened.findSent("s1", start, keys("s1", 10)).size());
+		reopened.close();
+	}
+
+	@Test
+	void snapshotCompactsSegmentsAndKeepsRetainedKeys() throws IOException {
+		LocalDateTime recent = LocalDateTime.now().plusMinutes(30);
+		LocalDateTime expired = LocalDateTime.now().minusDays(10);
+		WalReminderLedger ledger = open(1000);
+		for (int i = 0; i < 40_000; i++) {
+			record(ledger, "s" + i / 100, "user" + i, recent);
+		}
+		record(ledger, "old", "alice", expired);
+		assertTrue(files("wal-").size() > 1, "40,000 records fill more than one 1 MB segment");
+
+		ledger.snapshot();
+		record(ledger, "s-after", "alice", recent);
+		ledger.close();
+
+		assertEquals(1, files("snapshot-").size());
+		assertEquals(1, files("wal-").size());
+
+		WalReminderLedger reopened = open(0);
+		assertEquals(40_001L, reopened.toStats().get("keys"));
+		assertEquals(1L, reopened.toStats().get("recoveredRecords"));
+		assertEquals(100, reopened.findSent("s7", recent, keys("s7", 800)).size());
+		assertTrue(reopened.findSent("old", expired, List.of(key("old", "alice"))).isEmpty());
+		List<ReminderKey> streamed = new ArrayList<>();
+		reopened.forEachSentKey(LocalDateTime.now().minusDays(7), streamed::add);
+		assertEquals(40_001, streamed.size());
+		reopened.close();
+	}
+
+	@Test
+	void lookupsProbeTheBucketOfTheSessionStart() throws IOException {
+		LocalDateTime start = LocalDateTime.now().plusMinutes(30);
+		WalReminderLedger ledger = open(0);
+		record(ledger, "s1", "alice", start);
+
+		assertEquals(Set.of(key("s1", "alice")), ledger.findSent("s1", start, List.of(key("s1", "alice"))));
+		assertTrue(ledger.findSent("s1", start.plusHours(2), List.of(key("s1", "alice"))).isEmpty());
+		assertEquals(Set.of(key("s1", "alice")), ledger.findSent("s1", null, List.of(key("s1", "alice"))));
+		ledger.close();
+	}
+
+	@Test
+	void recordingAfterCloseIsRejected() throws IOException {
+		WalReminderLedger ledger = open(0);
+		ledger.close();
+
+		assertThrows(IllegalStateException.class, () -> record(ledger, "s1", "alice", LocalDateTime.now()));
+	}
+
+	private WalReminderLedger open(long syncIntervalMs) throws IOException {
+		WalReminderLedger ledger = new WalReminderLedger(Clock.systemDefaultZone());
+		ReflectionTestUtils.setField(ledger, "dir", dir.toString());
+		ReflectionTestUtils.setField(ledger, "segmentSizeMb", 1);
+		ReflectionTestUtils.setField(ledger, "syncIntervalMs", syncIntervalMs);
+		ReflectionTestUtils.setField(ledger, "retentionDays", 7L);
+		ledger.open();
+		return ledger;
+	}
+
+	private static void record(WalReminderLedger ledger, String sessionId, String username, LocalDateTime start) {
+		ReminderStatus status = ReminderStatus.create(sessionId, username, TYPE, username + "@example.com");
+		ledger.recordSent(key(sessionId, username), status, start);
+	}
+
+	private static ReminderKey key(String sessionId, String username) {
+		return ReminderKey.of(sessionId, username, TYPE);
+	}
+
+	// Keys of users 0..count-1 in one session; record() above numbers users globally
+	private static List<ReminderKey> keys(String sessionId, int count) {
+		List<ReminderKey> keys = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			keys.add(key(sessionId, "user" + i));
+		}
+		return keys;
+	}
+
+	private List<Path> files(String prefix) throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().toList();
+		}
+	}
+}